@@ -0,0 +1,342 @@
+/*
+    Description:
+    Command line entry point (next to Main) which plays a large batch of TicTacToe, OrderAndChaos, or SuperTicTacToe
+    games between two bot policies without any user input. The batch is split into ranges of games on a fork/join
+    pool so that idle workers steal work from busy ones. Every leaf range reuses one game object, playing one round
+    after another and throwing its history away (or appending it to the history file), and adds its results to the stats
+    of the worker running it.
+    At the end the games/sec, moves/sec, win/draw distribution and per worker stats are printed.
+
+    Usage:
+    java BatchSimulator [game=T|O|S] [games=N] [rows=N] [cols=N] [win=N] [policy0=NAME] [policy1=NAME]
+                        [threads=N] [seed=N] [bitboard=true|false] [history=PATH]
+                        [format=text|binary]
+    - policy0/policy1: the policy of the first and second team (X/O, or ORDER/CHAOS), see MoveSource.createBot.
+    - rows/cols/win are ignored for SuperTicTacToe, which is always a 3x3 grid of 3x3 games.
+    - history: appends every game to this file through one shared writer, in the data.txt format (GameHistoryWriter) or
+    with format=binary in the game record format (GameRecordWriter).
+
+    Fields:
+    - gameType: T, O, or S.
+    - games: the number of games to play.
+    - rows/columns/winLength: the board settings of TicTacToe and OrderAndChaos games.
+    - policies: the policy name of each team.
+    - threads: the parallelism of the fork/join pool.
+    - seed: the base seed; every leaf range seeds its policies from it and its first game number, so runs repeat.
+    - bitBoard: whether games store their boards as bitboards.
+    - historyFile: where the game histories are appended, or null to throw them away.
+    - binaryHistory: whether the histories are written as binary game records instead of text.
+    - historyWriter: the writer shared by every leaf while a batch with a history file runs.
+    - recoveredBytes: the partly written record a binary history file was cut back by when the last batch opened it.
+    - workerStats/threadStats: the stats of every worker which played a leaf, each registered by the worker the first
+    time it reads its thread local stats.
+
+    Constructors:
+    - BatchSimulator(String[] args): parses key=value arguments, using defaults for anything left out.
+
+    Important Methods:
+    - run(): plays every game and returns the combined stats, the per worker stats are kept in getWorkerStats().
+    - createGame(...)/createPolicy(...): build the game objects and bots played by each leaf. The threads share the cores,
+    so a search bot gets cores / threads search threads (at least 1) rather than every core.
+    - main(String[] args): runs a batch and prints the report.
+*/
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchSimulator {
+    private final char gameType;
+    private final long games;
+    private final int rows;
+    private final int columns;
+    private final int winLength;
+    private final String[] policies;
+    private final int threads;
+    private final long seed;
+    private final boolean bitBoard;
+    private final String historyFile;
+    private final boolean binaryHistory;
+    private HistoryWriter historyWriter;
+    private long recoveredBytes;
+    private List<Stats> workerStats;
+    private ThreadLocal<Stats> threadStats;
+
+    // CONSTRUCTOR
+    public BatchSimulator(String[] args) {
+        char gameType = 'T';
+        long games = 100000;
+        int rows = 3, columns = 3, winLength = -1;
+        String[] policies = { "random", "random" };
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = System.nanoTime();
+        boolean bitBoard = false;
+        String historyFile = null;
+        boolean binaryHistory = false;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "game": gameType = Character.toUpperCase(value.charAt(0)); break;
+                case "games": games = Long.parseLong(value); break;
+                case "rows": rows = Integer.parseInt(value); break;
+                case "cols": columns = Integer.parseInt(value); break;
+                case "win": winLength = Integer.parseInt(value); break;
+                case "policy0": policies[0] = value; break;
+                case "policy1": policies[1] = value; break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "bitboard": bitBoard = Boolean.parseBoolean(value); break;
+                case "history": historyFile = value; break;
+                case "format":
+                    if (!value.equalsIgnoreCase("text") && !value.equalsIgnoreCase("binary")) throw new IllegalArgumentException("format must be text or binary");
+                    binaryHistory = value.equalsIgnoreCase("binary");
+                    break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+
+        if (gameType != 'T' && gameType != 'O' && gameType != 'S') throw new IllegalArgumentException("game must be T, O, or S");
+        if (gameType == 'O') { // Order and Chaos defaults to its usual 6x6 board, in whichever dimension was not given
+            if (!arg(args, "rows")) rows = 6;
+            if (!arg(args, "cols")) columns = 6;
+        }
+        if (winLength < 0) winLength = gameType == 'O' ? Math.min(5, Math.min(rows, columns)) : Math.min(rows, columns);
+        if (games < 1 || threads < 1) throw new IllegalArgumentException("games and threads must be positive");
+        if (rows < 1 || columns < 1 || winLength < 1 || winLength > Math.max(rows, columns)) throw new IllegalArgumentException("Invalid board size or win length");
+
+        this.gameType = gameType;
+        this.games = games;
+        this.rows = rows;
+        this.columns = columns;
+        this.winLength = winLength;
+        this.policies = policies;
+        this.threads = threads;
+        this.seed = seed;
+        this.bitBoard = bitBoard;
+        this.historyFile = historyFile;
+        this.binaryHistory = binaryHistory;
+    }
+
+    // GETTER methods
+    public Stats[] getWorkerStats() {
+        return this.workerStats.toArray(new Stats[0]);
+    }
+
+    public long getRecoveredBytes() {
+        return this.recoveredBytes;
+    }
+
+    // plays every game of the batch and returns the stats of all workers added together
+    public Stats run() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(this.threads);
+        List<Stats> workerStats = new CopyOnWriteArrayList<>();
+        this.workerStats = workerStats;
+        this.threadStats = ThreadLocal.withInitial(() -> { // each worker registers its stats the first time it plays a leaf
+            Stats stats = new Stats();
+            workerStats.add(stats);
+            return stats;
+        });
+        if (this.historyFile != null && this.binaryHistory) {
+            GameRecordWriter writer = new GameRecordWriter(Paths.get(this.historyFile));
+            this.recoveredBytes = writer.getRecoveredBytes();
+            this.historyWriter = writer;
+        } else if (this.historyFile != null) {
+            this.historyWriter = new GameHistoryWriter(Paths.get(this.historyFile), GameHistoryWriter.DEFAULT_SEGMENT_BYTES,
+                GameHistoryWriter.DEFAULT_BATCH_SIZE * 16, GameHistoryWriter.DEFAULT_FLUSH_MILLIS);
+        }
+
+        long threshold = Math.max(1, this.games / (this.threads * 16L)); // enough leaves for work stealing to balance
+        try {
+            pool.invoke(new GameRange(0, this.games, threshold));
+        } finally {
+            pool.shutdown();
+            if (this.historyWriter != null) this.historyWriter.close();
+            this.historyWriter = null;
+            this.threadStats = null;
+        }
+
+        Stats total = new Stats();
+        for (Stats stats : this.workerStats) total.add(stats);
+        return total;
+    }
+
+    // builds a headless game of the configured type for the given teams
+    public BoardGame createGame(Team[] teams) {
+        BoardGame game;
+        if (this.gameType == 'S') game = new SuperTicTacToe(teams);
+        else if (this.gameType == 'O') game = new OrderAndChaos(this.rows, this.columns, this.winLength, teams);
+        else game = new TicTacToe(this.rows, this.columns, this.winLength, teams);
+
+        game.setDisplayEnabled(false);
+        if (this.bitBoard) game.setBitBoardStorage(true);
+        game.setHistoryWriter(this.historyWriter);
+        return game;
+    }
+
+    // builds the move source of a policy by name
+    public static MoveSource createPolicy(String name, long seed, int searchThreads) {
+        MoveSource policy = MoveSource.createBot(name, seed, searchThreads);
+        if (policy == null) throw new IllegalArgumentException("Unknown policy: " + name);
+        return policy;
+    }
+
+    // HELPER methods
+    private Team[] createTeams(long rangeSeed) {
+        String[] names = this.gameType == 'O'
+            ? new String[] { OrderAndChaos.TEAM_0_NAME, OrderAndChaos.TEAM_1_NAME }
+            : new String[] { "" + TicTacToe.TEAM_0_SYMBOL, "" + TicTacToe.TEAM_1_SYMBOL };
+
+        int searchThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / this.threads); // the games already run in parallel
+        Team[] teams = new Team[2];
+        for (int t = 0; t < 2; t++) {
+            Player player = new Player(this.policies[t], createPolicy(this.policies[t], rangeSeed * 31 + t, searchThreads));
+            teams[t] = new Team(player, t, names[t]);
+        }
+        return teams;
+    }
+
+    private static boolean arg(String[] args, String key) {
+        for (String arg : args) if (arg.toLowerCase().startsWith(key + "=")) return true;
+        return false;
+    }
+
+    private Stats currentWorkerStats() {
+        return this.threadStats.get();
+    }
+
+    // splits a range of game numbers in half until it is small enough to play on one worker
+    private class GameRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long start;
+        private final long end;
+        private final long threshold;
+
+        GameRange(long start, long end, long threshold) {
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (this.end - this.start > this.threshold) {
+                long middle = (this.start + this.end) >>> 1;
+                invokeAll(new GameRange(this.start, middle, this.threshold), new GameRange(middle, this.end, this.threshold));
+                return;
+            }
+
+            long begin = System.nanoTime();
+            Team[] teams = createTeams(seed + this.start);
+            BoardGame game = createGame(teams);
+            long wins0 = 0, wins1 = 0, draws = 0, endedEarly = 0;
+
+            for (long i = this.start; i < this.end; i++) {
+                Team winner = game.playRound();
+                if (winner == null) draws++;
+                else if (winner.getNumber() == 0) wins0++;
+                else wins1++;
+
+                if (game.getLastGameHistory().getEndedEarly()) endedEarly++;
+                game.getGameHistory().clear(); // only filled when there is no history writer
+            }
+
+            Stats stats = currentWorkerStats(); // only ever touched by this worker thread
+            stats.games += this.end - this.start;
+            stats.moves += game.getMovesPlayed();
+            stats.wins[0] += wins0;
+            stats.wins[1] += wins1;
+            stats.draws += draws;
+            stats.endedEarly += endedEarly;
+            stats.leaves++;
+            stats.nanos += System.nanoTime() - begin;
+        }
+    }
+
+    // results of the games played by one worker (or every worker, once added together)
+    public static class Stats {
+        private long games;
+        private long moves;
+        private final long[] wins = new long[2];
+        private long draws;
+        private long endedEarly;
+        private long leaves;
+        private long nanos;
+
+        public long getGames() {
+            return this.games;
+        }
+
+        public long getMoves() {
+            return this.moves;
+        }
+
+        public long getWins(int teamNumber) {
+            return this.wins[teamNumber];
+        }
+
+        public long getDraws() {
+            return this.draws;
+        }
+
+        public long getEndedEarly() {
+            return this.endedEarly;
+        }
+
+        public void add(Stats other) {
+            this.games += other.games;
+            this.moves += other.moves;
+            this.wins[0] += other.wins[0];
+            this.wins[1] += other.wins[1];
+            this.draws += other.draws;
+            this.endedEarly += other.endedEarly;
+            this.leaves += other.leaves;
+            this.nanos += other.nanos;
+        }
+
+        private static String percent(long count, long total) {
+            return String.format("%.2f%%", total == 0 ? 0.0 : 100.0 * count / total);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        BatchSimulator simulator = new BatchSimulator(args);
+        boolean superGame = simulator.gameType == 'S';
+        String[] names = simulator.gameType == 'O'
+            ? new String[] { OrderAndChaos.TEAM_0_NAME, OrderAndChaos.TEAM_1_NAME }
+            : new String[] { "" + TicTacToe.TEAM_0_SYMBOL, "" + TicTacToe.TEAM_1_SYMBOL };
+
+        System.out.println("Simulating " + simulator.games + " games of " + (superGame ? "Super Tic Tac Toe"
+            : (simulator.gameType == 'O' ? "Order and Chaos " : "Tic Tac Toe ") + simulator.rows + "x" + simulator.columns + " (" + simulator.winLength + " in a row)")
+            + " on " + simulator.threads + " threads: " + names[0] + "=" + simulator.policies[0] + ", " + names[1] + "=" + simulator.policies[1]
+            + ", seed " + simulator.seed);
+
+        long begin = System.nanoTime();
+        Stats total = simulator.run();
+        if (simulator.getRecoveredBytes() > 0) System.out.println("Cut off a partly written game record (" + simulator.getRecoveredBytes() + " bytes) at the end of " + simulator.historyFile);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("Time:\t\t%.3f s%n", seconds);
+        System.out.printf("Games/sec:\t%,.0f%n", total.games / seconds);
+        System.out.printf("Moves/sec:\t%,.0f%n", total.moves / seconds);
+        System.out.printf("Moves/game:\t%.2f%n", (double) total.moves / total.games);
+        System.out.println(names[0] + " wins:\t" + total.wins[0] + " (" + Stats.percent(total.wins[0], total.games) + ")");
+        System.out.println(names[1] + " wins:\t" + total.wins[1] + " (" + Stats.percent(total.wins[1], total.games) + ")");
+        System.out.println("Draws:\t\t" + total.draws + " (" + Stats.percent(total.draws, total.games) + ")");
+        System.out.println("Ended early:\t" + total.endedEarly + " (" + Stats.percent(total.endedEarly, total.games) + ")");
+
+        System.out.println("Worker\tGames\tMoves\tLeaves\tBusy (s)");
+        Stats[] workers = simulator.getWorkerStats();
+        for (int i = 0; i < workers.length; i++) {
+            System.out.printf("%d\t%d\t%d\t%d\t%.3f%n", i, workers[i].games, workers[i].moves, workers[i].leaves, workers[i].nanos / 1e9);
+        }
+        if (workers.length < simulator.threads) System.out.println("(some workers were never needed)");
+        if (simulator.historyFile != null) System.out.println("Appended the game histories to " + simulator.historyFile);
+    }
+}
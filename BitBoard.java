@@ -0,0 +1,266 @@
+/*
+    Description:
+    The BitBoard class is an alternative Board storage which keeps the board state in packed long[] bitsets rather
+    than a grid of Cell objects. Every team and every piece symbol has its own bitset, so occupancy tests, full board
+    checks and n-in-a-row scans become word level bit operations. Each row is padded with one unused bit so that
+    shifting a bitset never carries a piece from the end of one row onto the start of the next.
+    Cells handed out by getCell are lightweight BitBoardCell views that read and write through to this board.
+
+    Class Level Constants:
+    - MAX_TEAMS: maximum number of teams that can place pieces on the board.
+    - MAX_SYMBOLS: maximum number of distinct piece symbols that can be placed on the board.
+
+    Fields:
+    - stride: number of bits used per row (columns + 1 padding bit).
+    - occupied: bitset of all cells holding a piece.
+    - teamBits: bitset per team number of the cells that team has placed a piece in.
+    - symbolBits: bitset per symbol slot of the cells holding that symbol.
+    - symbols/pieces: the symbol registered in each symbol slot and a shared GamePiece for it.
+    - recordMoves: whether the turn/player side table is kept (only needed for game histories).
+    - turns/playerIds/players: side table of the turn and player that modified each cell.
+    - teams: the Team object registered for each team number.
+    - runBuffer/shiftBuffer: scratch bitsets used by the consecutive piece scans.
+
+    Constructors:
+    - BitBoard(int rows, int columns, String type): creates an empty bitboard which records turn and player metadata.
+    - BitBoard(int rows, int columns, String type, boolean recordMoves): creates an empty bitboard, optionally
+    skipping the turn/player side table when no history is needed.
+
+    Important Methods:
+    - placePiece(...): sets the bits for the piece and team and records the side table entry.
+    - hasConsecutiveSymbols(char symbol, int length): checks for length of the same symbol in a row in any direction.
+    - hasConsecutiveTeamPieces(int teamNumber, int length): checks for length of one team's pieces in a row in any direction.
+*/
+
+public class BitBoard extends Board {
+    private static final int MAX_TEAMS = 4;
+    private static final int MAX_SYMBOLS = 4;
+
+    private final int stride;
+    private final long[] occupied;
+    private final long[][] teamBits;
+    private final long[][] symbolBits;
+    private final char[] symbols;
+    private final GamePiece[] pieces;
+    private int symbolCount;
+
+    private final boolean recordMoves;
+    private final int[] turns;
+    private final short[] playerIds;
+    private Player[] players;
+    private int playerCount;
+    private final Team[] teams;
+
+    private final long[] runBuffer;
+    private final long[] shiftBuffer;
+
+    // CONSTRUCTORS
+    public BitBoard(int rows, int columns, String type) {
+        this(rows, columns, type, true);
+    }
+
+    public BitBoard(int rows, int columns, String type, boolean recordMoves) {
+        super(rows, columns, type, false);
+        this.stride = columns + 1;
+
+        int words = (rows * this.stride + 63) / 64;
+        this.occupied = new long[words];
+        this.teamBits = new long[MAX_TEAMS][words];
+        this.symbolBits = new long[MAX_SYMBOLS][words];
+        this.symbols = new char[MAX_SYMBOLS];
+        this.pieces = new GamePiece[MAX_SYMBOLS];
+        this.symbolCount = 0;
+
+        this.recordMoves = recordMoves;
+        this.turns = recordMoves ? new int[rows * columns] : null;
+        this.playerIds = recordMoves ? new short[rows * columns] : null;
+        this.players = recordMoves ? new Player[4] : null;
+        this.playerCount = 0;
+        this.teams = new Team[MAX_TEAMS];
+
+        this.runBuffer = new long[words];
+        this.shiftBuffer = new long[words];
+    }
+
+    // GETTER methods
+    public boolean getRecordMoves() {
+        return this.recordMoves;
+    }
+
+    public Cell getCell(int row, int column) {
+        return new BitBoardCell(this, row, column);
+    }
+
+    // builds a grid of cell views, used when the whole board needs to be walked (e.g. game histories)
+    public Cell[][] getBoard() {
+        Cell[][] cells = new Cell[this.getRows()][this.getColumns()];
+        for (int i = 0; i < this.getRows(); i++) {
+            for (int j = 0; j < this.getColumns(); j++) cells[i][j] = this.getCell(i, j);
+        }
+        return cells;
+    }
+
+    public char getPieceSymbol(int row, int column) {
+        int slot = this.getSymbolSlotAt(this.bitIndex(row, column));
+        return slot < 0 ? ' ' : this.symbols[slot];
+    }
+
+    public GamePiece getPiece(int row, int column) {
+        int slot = this.getSymbolSlotAt(this.bitIndex(row, column));
+        return slot < 0 ? null : this.pieces[slot];
+    }
+
+    public Team getTeam(int row, int column) {
+        int bit = this.bitIndex(row, column);
+        for (int t = 0; t < MAX_TEAMS; t++) {
+            if (isSet(this.teamBits[t], bit)) return this.teams[t];
+        }
+        return null;
+    }
+
+    public int getTurn(int row, int column) {
+        if (!this.recordMoves || this.isBoardCellEmpty(row, column)) return -1;
+        return this.turns[row * this.getColumns() + column];
+    }
+
+    public Player getPlayer(int row, int column) {
+        if (!this.recordMoves || this.isBoardCellEmpty(row, column)) return null;
+        return this.players[this.playerIds[row * this.getColumns() + column]];
+    }
+
+    public Board createEmptyBoard(int rows, int columns, String type) {
+        BitBoard board = new BitBoard(rows, columns, type, this.recordMoves);
+        board.setHashBoardIndex(this.getHashBoardIndex(), this.getSymmetricBoardIndices());
+        return board;
+    }
+
+    // SETTER methods
+    public void placePiece(GamePiece piece, Team team, int turn, Player player, int row, int column) {
+        int bit = this.bitIndex(row, column);
+        int word = bit >>> 6;
+        long mask = 1L << (bit & 63);
+
+        char oldSymbol = this.getPieceSymbol(row, column);
+        this.clearBit(word, mask);
+        this.updateCell(row, column, oldSymbol, piece == null ? ' ' : piece.getSymbol());
+        if (piece == null) return; // placing nothing empties the cell
+
+        this.occupied[word] |= mask;
+        this.symbolBits[this.getSymbolSlot(piece.getSymbol())][word] |= mask;
+        if (team != null) {
+            int number = team.getNumber();
+            if (number < 0 || number >= MAX_TEAMS) throw new IllegalArgumentException("Unsupported team number " + number);
+            this.teams[number] = team;
+            this.teamBits[number][word] |= mask;
+        }
+
+        if (this.recordMoves) {
+            int cell = row * this.getColumns() + column;
+            this.turns[cell] = turn;
+            this.playerIds[cell] = this.getPlayerId(player);
+        }
+    }
+
+    // VALIDATION methods
+    public boolean isBoardCellEmpty(int row, int column) {
+        return !isSet(this.occupied, this.bitIndex(row, column));
+    }
+
+    // WIN SCANS: length of the same bits in a row horizontally, vertically, or along either diagonal
+    public boolean hasConsecutiveSymbols(char symbol, int length) {
+        for (int slot = 0; slot < this.symbolCount; slot++) {
+            if (this.symbols[slot] == symbol) return this.hasConsecutive(this.symbolBits[slot], length);
+        }
+        return false; // symbol was never placed
+    }
+
+    public boolean hasConsecutiveTeamPieces(int teamNumber, int length) {
+        if (teamNumber < 0 || teamNumber >= MAX_TEAMS) return false;
+        return this.hasConsecutive(this.teamBits[teamNumber], length);
+    }
+
+    // a run of k + 1 bits starting at p exists if bit p is set and a run of k bits starts at p + shift,
+    // so the run bitset is built by repeatedly shifting it down one step and masking with the piece bits
+    private boolean hasConsecutive(long[] bits, int length) {
+        int[] shifts = { 1, this.stride, this.stride + 1, this.stride - 1 };
+
+        for (int shift : shifts) {
+            System.arraycopy(bits, 0, this.runBuffer, 0, bits.length);
+            boolean any = true;
+
+            for (int i = 1; i < length && any; i++) {
+                shiftDown(this.runBuffer, shift, this.shiftBuffer);
+                any = false;
+                for (int w = 0; w < bits.length; w++) {
+                    this.runBuffer[w] = bits[w] & this.shiftBuffer[w];
+                    if (this.runBuffer[w] != 0) any = true;
+                }
+            }
+
+            if (any) {
+                for (long word : this.runBuffer) if (word != 0) return true;
+            }
+        }
+
+        return false;
+    }
+
+    // HELPER methods
+    private int bitIndex(int row, int column) {
+        return row * this.stride + column;
+    }
+
+    private static boolean isSet(long[] bits, int bit) {
+        return (bits[bit >>> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    private void clearBit(int word, long mask) {
+        this.occupied[word] &= ~mask;
+        for (long[] bits : this.teamBits) bits[word] &= ~mask;
+        for (long[] bits : this.symbolBits) bits[word] &= ~mask;
+    }
+
+    private int getSymbolSlotAt(int bit) {
+        for (int slot = 0; slot < this.symbolCount; slot++) {
+            if (isSet(this.symbolBits[slot], bit)) return slot;
+        }
+        return -1;
+    }
+
+    private int getSymbolSlot(char symbol) {
+        for (int slot = 0; slot < this.symbolCount; slot++) {
+            if (this.symbols[slot] == symbol) return slot;
+        }
+
+        if (this.symbolCount == MAX_SYMBOLS) throw new IllegalArgumentException("Too many piece symbols on one board");
+        this.symbols[this.symbolCount] = symbol;
+        this.pieces[this.symbolCount] = new GamePiece(symbol);
+        return this.symbolCount++;
+    }
+
+    private short getPlayerId(Player player) {
+        for (int i = 0; i < this.playerCount; i++) {
+            if (this.players[i] == player) return (short) i;
+        }
+
+        if (this.playerCount == this.players.length) {
+            Player[] grown = new Player[this.players.length * 2];
+            System.arraycopy(this.players, 0, grown, 0, this.playerCount);
+            this.players = grown;
+        }
+        this.players[this.playerCount] = player;
+        return (short) this.playerCount++;
+    }
+
+    // out[p] = in[p + shift] over the whole multi word bitset
+    private static void shiftDown(long[] in, int shift, long[] out) {
+        int wordShift = shift >>> 6, bitShift = shift & 63;
+
+        for (int w = 0; w < out.length; w++) {
+            int src = w + wordShift;
+            long low = src < in.length ? in[src] : 0L;
+            long high = src + 1 < in.length ? in[src + 1] : 0L;
+            out[w] = bitShift == 0 ? low : (low >>> bitShift) | (high << (64 - bitShift));
+        }
+    }
+}
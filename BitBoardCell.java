@@ -0,0 +1,60 @@
+/*
+    Description:
+    A lightweight Cell view over a single square of a BitBoard. It holds no game state of its own: every getter reads
+    the bitsets and side table of the board, and every setter writes through to the board, so existing code that works
+    with Cell objects (moves, validation, game histories) keeps working when the board is stored as bits.
+
+    Fields:
+    - board: the BitBoard this cell belongs to.
+
+    Constructors:
+    - BitBoardCell(BitBoard board, int row, int column): creates a view of the given square on the board.
+*/
+
+public class BitBoardCell extends Cell {
+    private final BitBoard board;
+
+    // CONSTRUCTOR
+    public BitBoardCell(BitBoard board, int row, int column) {
+        super(row, column);
+        this.board = board;
+    }
+
+    // GETTER METHODS
+    public GamePiece getValue() {
+        return this.board.getPiece(this.getRow(), this.getColumn());
+    }
+
+    public Team getTeamModified() {
+        return this.board.getTeam(this.getRow(), this.getColumn());
+    }
+
+    public int getTurnModified() {
+        return this.board.getTurn(this.getRow(), this.getColumn());
+    }
+
+    public Player getPlayerModified() {
+        return this.board.getPlayer(this.getRow(), this.getColumn());
+    }
+
+    // SETTER METHODS
+    public void setValue(GamePiece piece) {
+        this.board.placePiece(piece, this.getTeamModified(), this.getTurnModified(), this.getPlayerModified(), this.getRow(), this.getColumn());
+    }
+
+    public void setTeamModified(Team team) {
+        this.board.placePiece(this.getValue(), team, this.getTurnModified(), this.getPlayerModified(), this.getRow(), this.getColumn());
+    }
+
+    public void setTurnModified(int turn) {
+        this.board.placePiece(this.getValue(), this.getTeamModified(), turn, this.getPlayerModified(), this.getRow(), this.getColumn());
+    }
+
+    public void setPlayerModified(Player player) {
+        this.board.placePiece(this.getValue(), this.getTeamModified(), this.getTurnModified(), player, this.getRow(), this.getColumn());
+    }
+
+    public void setAllFields(GamePiece piece, Team team, int turn, Player player) {
+        this.board.placePiece(piece, team, turn, player, this.getRow(), this.getColumn());
+    }
+}
@@ -9,11 +9,22 @@
     - columns: The number of columns in the board.  
     - gameType: The type of game being played on this board.  
     - board: A 2D array representing the board grid, containing Cell objects.  
+    - occupiedCount: The number of cells holding a piece, kept up to date as pieces are placed.  
+    - version: Changes every time a piece is placed or removed, so renderers can tell whether the board needs drawing again.  
+    - emptyCells: The packed indices (row * columns + column) of every empty cell, kept as a swap-remove array.  
+    - emptyCellPositions: The position of every cell in emptyCells, or -1 if the cell holds a piece.  
+    - hashes: The Zobrist hash of the pieces on the board under every symmetry transform (hashes[0] is the board as it
+    is), kept up to date as pieces are placed and removed. Transforms which do not fit the board's shape stay 0.  
+    - hashBoardIndex: Which board this is in a game made of several boards (0 for a standalone board), part of every key.  
+    - symmetricBoardIndices: The board index each transform moves this board to in a game made of several boards.  
+    - symmetryMaps: The cell every cell moves to under each transform (see Symmetry).  
 
     Constructors:  
     - Board(): Creates an empty board with undefined dimensions and game type.  
     - Board(int rows, int columns): Creates a board with specified dimensions and initializes all cells.  
     - Board(int rows, int columns, String type): Creates a board with specified dimensions and game type.  
+    - Board(int rows, int columns, String type, boolean allocateCells): used by subclasses (BitBoard) that store 
+    the board state in their own format instead of a grid of Cell objects.
 
     Static Methods:
     - boardsToString(Board[][] boards): returns a string representation of a 2D array of boards
@@ -23,14 +34,41 @@
     - getCell(int row, int column): Returns the Cell object at the specified coordinates.  
     - displayBoard(): Prints the current state of the board with row and column labels.  
     - isBoardCellEmpty(int row, int column): Checks if the specified cell on the board is empty.
-    - toString(): returns the string representation of a board.
+    - isFull(): Checks in O(1) if every cell on the board holds a piece.
+    - getEmptyCellCount()/getEmptyCell(int index)/getEmptyCells(int[] cells): Enumerate the empty cells (legal moves)
+    in O(empty cells) without walking the whole board.
+    - updateCell(int row, int column, char oldSymbol, char newSymbol): Called whenever the piece in a cell changes, keeps
+    the empty cell set and the hash up to date.
+    - getHash(): Returns the Zobrist hash of the position in O(1).
+    - getVersion(): Returns a number which changes whenever a piece is placed or removed.
+    - getSymmetricHash(int transform): Returns the hash of the position rotated or reflected by the transform in O(1).
+    - getCanonicalHash()/getCanonicalTransform(): The smallest hash over every symmetry of the board, which is the same
+    for all positions that are rotations or reflections of each other, and the transform which produces it.
+    - getCanonicalBoard(): Returns a copy of the board transformed into its canonical orientation.
+    - setHashBoardIndex(int index): Sets which sub board this is, so equal positions on different sub boards hash differently.
+    - setHashBoardIndex(int index, int[] symmetricIndices): Same as above, also setting which sub board each transform of
+    the whole grid of boards moves this board to.
+    - getPieceSymbol(int row, int column): Returns the symbol in the specified cell or a space if it is empty.
+    - placePiece(GamePiece piece, Team team, int turn, Player player, int row, int column): Places a piece in the specified cell.
+    - createEmptyBoard(int rows, int columns, String type): Returns a new empty board using the same storage as this one.
+    - toString(): returns the string representation of a board, drawn by BoardRenderer.
  */
 
+import java.util.Arrays;
+
 public class Board {
     private final int rows;
     private final int columns;
     private String gameType;
     private Cell[][] board;
+    private int occupiedCount;
+    private int version;
+    private int[] emptyCells;
+    private int[] emptyCellPositions;
+    private long[] hashes;
+    private int hashBoardIndex;
+    private int[] symmetricBoardIndices;
+    private int[][] symmetryMaps;
 
     // CONSTRUCTORS
     // to create empty board
@@ -39,33 +77,49 @@ public class Board {
         this.columns = -1;
         this.gameType = null;
         this.board = null;
+        this.occupiedCount = 0;
+        this.emptyCells = new int[0];
+        this.emptyCellPositions = new int[0];
+        this.hashes = new long[Symmetry.COUNT];
+        this.symmetricBoardIndices = new int[Symmetry.COUNT];
+        this.symmetryMaps = new int[Symmetry.COUNT][];
     }
 
     // to create a board of rows x columns size
     public Board(int rows, int columns) {
-        this.rows = rows;
-        this.columns = columns;
-        this.gameType = null;
-        this.board = new Cell[rows][columns];
-
-        // fill the board with empty cells
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < columns; j++) {
-                board[i][j] = new Cell(i,j);
-            }
-        }
+        this(rows, columns, null, true);
     }
 
     public Board(int rows, int columns, String type) {
+        this(rows, columns, type, true);
+    }
+
+    // used by subclasses which keep the board state in another format and do not need the Cell grid
+    protected Board(int rows, int columns, String type, boolean allocateCells) {
         this.rows = rows;
         this.columns = columns;
         this.gameType = type;
-        this.board = new Cell[rows][columns];
+        this.board = allocateCells ? new Cell[rows][columns] : null;
+
+        // every cell starts out empty
+        this.occupiedCount = 0;
+        this.emptyCells = new int[rows * columns];
+        this.emptyCellPositions = new int[rows * columns];
+        for (int cell = 0; cell < rows * columns; cell++) {
+            this.emptyCells[cell] = cell;
+            this.emptyCellPositions[cell] = cell;
+        }
+
+        this.hashes = new long[Symmetry.COUNT];
+        this.symmetricBoardIndices = new int[Symmetry.COUNT];
+        this.symmetryMaps = Symmetry.getCellMaps(rows, columns);
+
+        if (!allocateCells) return;
 
         // fill the board with empty cells
         for (int i = 0; i < rows; i++) {
             for (int j = 0; j < columns; j++) {
-                board[i][j] = new Cell(i,j);
+                board[i][j] = new Cell(this, i, j);
             }
         }
     }
@@ -87,114 +141,182 @@ public class Board {
         return this.board;
     }
 
+    public int getVersion() {
+        return this.version;
+    }
+
     public Cell getCell(int row, int column) {
         return this.board[row][column];
     }
 
-    // SETTER methods - can't change the rows/columns of a board after you create it
-    public void setGameType(String type) {
-        this.gameType = type;
+    public long getHash() {
+        return this.hashes[Symmetry.IDENTITY];
     }
 
-    // VALIDATION method - if a cell on the board is filled or not
-    public boolean isBoardCellEmpty(int row, int column) {
-        return this.board[row][column].isEmpty();
+    public long getSymmetricHash(int transform) {
+        return this.hashes[transform];
     }
 
-    // DISPLAY methods:
-    // helper function used to get the board width separators
-    private String getBoardWidthSeperator(boolean withNumbers) {
-        String seperator = "";
+    // the smallest hash over the transforms which fit the board, shared by every symmetric position
+    public long getCanonicalHash() {
+        return this.hashes[this.getCanonicalTransform()];
+    }
 
-        for (int i = 0; i < this.columns; i++) {
-            if (i == 0 && withNumbers) seperator += "   ";
-            seperator += "+---";
+    public int getCanonicalTransform() {
+        int best = Symmetry.IDENTITY;
+        for (int t = 1; t < Symmetry.COUNT; t++) {
+            if (this.symmetryMaps[t] != null && this.hashes[t] < this.hashes[best]) best = t;
         }
-
-        return seperator + "+";
+        return best;
     }
 
-    // toString method to get the string representation of the board
-    public String toString() {
-        String board = "";
+    // a copy of the board in its canonical orientation, keeping the team, turn, and player of every piece
+    public Board getCanonicalBoard() {
+        int transform = this.getCanonicalTransform();
+        Board canonical = this.createEmptyBoard(this.rows, this.columns, this.gameType);
 
         for (int i = 0; i < this.rows; i++) {
-            if (i == 0) {
-                board += "     ";
-                for (int c = 0; c < this.columns; c++) {
-                    if (c < 10) board += (c + "   ");
-                    else board += (c + "  ");
-                }
-                board += "\n";
+            for (int j = 0; j < this.columns; j++) {
+                if (this.isBoardCellEmpty(i, j)) continue;
+                Cell cell = this.getCell(i, j);
+                int target = this.symmetryMaps[transform][i * this.columns + j];
+                canonical.placePiece(cell.getValue(), cell.getTeamModified(), cell.getTurnModified(), cell.getPlayerModified(), target / this.columns, target % this.columns);
             }
-            board += this.getBoardWidthSeperator(true);
-            board += "\n";
+        }
+        return canonical;
+    }
 
-            for (int j = 0; j < this.columns; j++) {
-                if (j == 0) {
-                    if (i < 10) board += (i + "  ");
-                    else board += (i + " ");
-                }
+    public int getHashBoardIndex() {
+        return this.hashBoardIndex;
+    }
 
-                char cellValue = this.board[i][j].getValue() != null ? this.board[i][j].getValue().getSymbol() : ' ';
+    public int[] getSymmetricBoardIndices() {
+        return this.symmetricBoardIndices.clone();
+    }
 
-                board += ("| " + cellValue + " ");
+    public int getOccupiedCount() {
+        return this.occupiedCount;
+    }
 
-                if (j == this.columns - 1) board += "|\n";
-            }
-        }
+    public int getEmptyCellCount() {
+        return this.rows * this.columns - this.occupiedCount;
+    }
 
-        board += this.getBoardWidthSeperator(true);
-        board += "\n";
+    // returns the packed index (row * columns + column) of the index-th empty cell, in no particular order
+    public int getEmptyCell(int index) {
+        return this.emptyCells[index];
+    }
 
+    // copies the packed indices of all empty cells into cells and returns how many there are
+    public int getEmptyCells(int[] cells) {
+        int count = this.getEmptyCellCount();
+        System.arraycopy(this.emptyCells, 0, cells, 0, count);
+        return count;
+    }
+
+    // returns the symbol of the piece in the given cell, or a space if the cell is empty
+    public char getPieceSymbol(int row, int column) {
+        GamePiece piece = this.board[row][column].getValue();
+        return piece != null ? piece.getSymbol() : ' ';
+    }
+
+    // returns a new empty board of the given size which uses the same storage as this board
+    public Board createEmptyBoard(int rows, int columns, String type) {
+        Board board = new Board(rows, columns, type);
+        board.setHashBoardIndex(this.hashBoardIndex, this.symmetricBoardIndices);
         return board;
     }
 
-    public void displayBoard() {       
-        System.out.print(this.toString());
+    // SETTER methods - can't change the rows/columns of a board after you create it
+    public void setGameType(String type) {
+        this.gameType = type;
     }
 
-    // STATIC DISPLAY METHODS 
-    private static String getBoardSeperator(int numCols, int numBoards) {
-        String seperator = "";
+    public void setHashBoardIndex(int index) {
+        int[] symmetricIndices = new int[Symmetry.COUNT];
+        Arrays.fill(symmetricIndices, index);
+        this.setHashBoardIndex(index, symmetricIndices);
+    }
 
-        for (int b = 0; b < numBoards; b++) {
-            for (int i = 0; i < numCols; i++) seperator += "+---";
-            seperator += "+ ";
+    // rehashes the pieces already on the board with the keys of the new indices
+    public void setHashBoardIndex(int index, int[] symmetricIndices) {
+        if (symmetricIndices.length != Symmetry.COUNT || symmetricIndices[Symmetry.IDENTITY] != index) {
+            throw new IllegalArgumentException("The identity transform must keep the board index");
         }
 
-        return seperator;        
+        this.hashBoardIndex = index;
+        this.symmetricBoardIndices = symmetricIndices.clone();
+        Arrays.fill(this.hashes, 0);
+        for (int i = 0; i < this.rows; i++) {
+            for (int j = 0; j < this.columns; j++) {
+                char symbol = this.getPieceSymbol(i, j);
+                if (symbol != ' ') this.updateHashes(i * this.columns + j, symbol);
+            }
+        }
     }
 
-    private static String boardRowToString(Board b, int row) {
-        String str = "| ";
-        for (int col = 0; col < b.getColumns(); col++) {
-            char val = b.getCell(row, col).getValue() == null ? ' ' : b.getCell(row, col).getValue().getSymbol(); // if null then put empty space there
-            str += (val + " | ");
+    // places a piece on the board, recording the team, turn, and player that made the move
+    public void placePiece(GamePiece piece, Team team, int turn, Player player, int row, int column) {
+        this.board[row][column].setAllFields(piece, team, turn, player); // the cell reports back through updateCell
+    }
+
+    // keeps the hash, the occupied count and the empty cell set up to date (' ' is an empty cell),
+    // a filled cell is removed from the empty cell set by moving the last empty cell into its slot
+    protected void updateCell(int row, int column, char oldSymbol, char newSymbol) {
+        int cell = row * this.columns + column;
+        this.version++;
+        if (oldSymbol != ' ') this.updateHashes(cell, oldSymbol);
+        if (newSymbol != ' ') this.updateHashes(cell, newSymbol);
+
+        boolean wasEmpty = oldSymbol == ' ', isEmpty = newSymbol == ' ';
+        if (wasEmpty == isEmpty) return;
+
+        if (wasEmpty) {
+            int position = this.emptyCellPositions[cell];
+            int last = this.emptyCells[this.getEmptyCellCount() - 1];
+            this.emptyCells[position] = last;
+            this.emptyCellPositions[last] = position;
+            this.emptyCellPositions[cell] = -1;
+            this.occupiedCount++;
+        } else {
+            int position = this.getEmptyCellCount();
+            this.emptyCells[position] = cell;
+            this.emptyCellPositions[cell] = position;
+            this.occupiedCount--;
         }
-        return str;
     }
 
-    public static String boardsToString(Board[][] boards) {
-        int gridRows = boards.length, gridCols = boards[0].length;
-        int boardRows = boards[0][0].getRows(), boardCols = boards[0][0].getColumns();
-        String seperator = getBoardSeperator(boardCols, gridCols) + "\n";
-        String str = seperator;
-
-        for (int gr = 0; gr < gridRows; gr++) {
-            for (int br = 0; br < boardRows; br++) {
-                for (Board board : boards[gr]) {
-                    str += boardRowToString(board, br);
-                }
-
-                str += "\n";
-                str += seperator;
-            }
-            
-            if (gr < gridRows - 1) str += seperator;
+    // toggles a piece in the hash of every symmetric position, at the cell and board the transform moves it to
+    private void updateHashes(int cell, char symbol) {
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            int[] map = this.symmetryMaps[t];
+            if (map != null) this.hashes[t] ^= Zobrist.getPieceKey(this.symmetricBoardIndices[t], map[cell], symbol);
         }
+    }
+
+    // VALIDATION method - if a cell on the board is filled or not
+    public boolean isBoardCellEmpty(int row, int column) {
+        return this.board[row][column].isEmpty();
+    }
+
+    // VALIDATION method - if every cell on the board holds a piece
+    public boolean isFull() {
+        return this.occupiedCount == this.rows * this.columns;
+    }
+
+    // DISPLAY methods:
+    // the frame of the board (numbers and separators) is cached per board size, only the symbols are filled in
+    public String toString() {
+        return BoardRenderer.render(this);
+    }
 
-        return str;
+    public void displayBoard() {       
+        System.out.print(this.toString());
+    }
+
+    // STATIC DISPLAY METHODS 
+    public static String boardsToString(Board[][] boards) {
+        return MultiBoardRenderer.render(boards);
     }
 
     public static void displayBoards(Board[][] boards) {
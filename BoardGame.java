@@ -6,70 +6,136 @@
 
     Fields:  
     - FILENAME: Class level constant filename for exporting game history.  
-    - scanner: Constant scanner object for user input.  
+    - BOT_PREFIX: Player names starting with this prefix are played by the named bot policy.  
+    - moveSource: Where setup answers and the moves of players without their own source come from (console by default).  
     - board: The game board.  
+    - moveLog: The moves played on the current board in order, which the history of the game keeps instead of the board.  
     - turnNumber: Tracks the current turn number.  
     - gameNumber: Tracks the game number across multiple sessions.  
+    - displayEnabled: Whether boards and results are printed (turned off for headless play such as batch simulation).  
+    - renderer: Draws the board, in full after every move or only the changed cells (diff mode).  
+    - output: The stream boards, messages, and win counts are printed to (System.out unless the game is played over a network session).  
+    - renderThread: When set, frames and messages are handed to this output thread instead of being printed by the game loop.  
+    - eventBus: When set, every move, win, tie, and reset is published to it for its listeners (logging, metrics, spectators). History and
+    the display do not depend on it, since its listeners may miss events.  
+    - movesPlayed: The total number of pieces placed across all games played by this object.  
+    - gameHistory (from Game): A SpillingHistoryList, which keeps only the most recent games in memory.  
+    - historyWriter: When set, every finished game is appended to it as it is recorded instead of being kept in memory.  
+    - historyQuestionAsked: Whether the user was already asked about saving data.txt, so exitGame does not ask again.  
+    - lastGameHistory: The history of the most recently finished game.  
+    - playerStats: When set, the result of every finished game is added to each player's persistent record.  
 
     Constructors:  
     - BoardGame(String name): Initializes a board game with default board size.  
     - BoardGame(int rows, int columns, String name): Initializes a board game with a custom board size. 
     - BoardGame(int rows, int columns, String name, String gameID): initializes all of the above plus the game id field. 
 
+    Abstract Methods:
+    - playRound(): Plays a single game until it is won or tied, resets the board, and returns the winner (null for a tie).
+
     Abstract Method Implementations:
-    - exitGame(): Saves game history to a file before exiting.  
+    - playGame(): Plays rounds until the user is done.
+    - exitGame(): Closes the event bus, the player stats store and the history writer, or appends the game histories kept in memory to a file, before exiting.  
     - isValidMove(int row, int column): Checks if a move is valid.      
     - getTurnNumber(): Gets the current turn number.
     - getCurrentTeam(): Gets the current team based off of the current turn.
+    - getPositionHash(): Gets the Zobrist hash of the board and the team to move in O(1).
+    - getCanonicalPositionHash(): Same as above, but shared by all rotations and reflections of the position.
     - incrementTurnNumber: Increments the current turn number.
     - resetTurnNumber: Resets the turn number.
 
     Important Methods:  
     - getIsBoardFull(): used to check if the board is full of pieces
-    - reset(String gameType): Saves game history, resets the board, and prepares for a new game.  
-    - getTeamFromUserInput(int number, String name): Gets team input from the user.  
-    - isUserDone(): Checks if the user wants to continue playing.  
-    - getNextPlayerInputCell(Team team, Player player): Gets the player's move input.  
+    - setBitBoardStorage(boolean enabled): switches the board between the Cell grid and the packed BitBoard storage
+    - reset(String gameType): Saves game history, publishes the result and the new board, resets the board, and prepares for a new game.  
+    - reset(String gameType, boolean endedEarly): Same as above, recording that the game was ended before the board was full.
+    - createHistory(boolean endedEarly): Builds the history of the finished game, overridden by games which know more about their rules.
+    - setHistoryRetention(int maxGames, long maxBytes): Bounds the games kept in memory, older games are spilled to disk and paged back in when read.
+    - recordHistory(GameHistory history): Appends a finished game to the history writer, or keeps it in memory if there is none.
+    - askToSaveHistory(): Asks up front whether to save data.txt, and if so streams every game to it as it is recorded.
+    - setPlayerStatsStore(PlayerStatsStore playerStats): Records every finished game's result in the store, which is closed by exitGame.
+    - placePiece(GamePiece piece, Team team, int turn, Player player, int row, int column): Places a piece on the board,
+    appends it to the move log, publishes it to the event bus, and notifies subclasses through onPiecePlaced so they can update any state they derive from the moves.
+    - setMoveEventBus(MoveEventBus eventBus): Publishes the game's events to the bus, whose listeners run on their own threads.
+    - getMoveSource(Player player): Returns the player's own move source, or the game's if the player has none.  
+    - getTeamFromUserInput(int number, String name): Gets team input from the move source, players named bot:<policy> are played by that bot.  
+    - isUserDone(): Checks if the user wants to continue playing, saving the player stats first.  
+    - getNextPlayerInputCell(Team team, Player player): Gets the player's move from their move source.  
+    - displayGame(): Prints the current state of the game.  
+    - updateDisplay()/displayMessage(String message): Print the game or a message unless the display is turned off, 
+    or publish them to the render thread if there is one.  
+    - createFrame(): Snapshots the game on the game thread, returning the drawing of the snapshot for the render thread.  
+    - setOutput(PrintStream output): Prints the game to the given stream instead of System.out.  
+    - setRenderThread(RenderThread renderThread): Moves drawing off the game loop, the game waits for the output before asking a person for input.  
 */
 
 
-import java.util.Scanner;
-import java.io.File;  
-import java.io.FileWriter;
 import java.io.IOException; 
+import java.io.PrintStream;
+import java.util.function.Consumer;
 
 public abstract class BoardGame extends Game implements TurnBased {
     // constant filename to export game history data
     private static final String FILENAME = "data.txt";
+    private static final String BOT_PREFIX = "bot:";
 
-    private final Scanner scanner;
+    private MoveSource moveSource;
     private Board board;
+    private MoveLog moveLog;
     private int turnNumber;
     private int gameNumber;
+    private boolean displayEnabled;
+    private BoardRenderer renderer;
+    private PrintStream output;
+    private RenderThread renderThread;
+    private MoveEventBus eventBus;
+    private long movesPlayed;
+    private HistoryWriter historyWriter;
+    private boolean historyQuestionAsked;
+    private BoardGameHistory lastGameHistory;
+    private PlayerStatsStore playerStats;
 
     // CONSTRUCTORS
     public BoardGame(String name) {
         super(name);
         this.board = new Board();
+        this.moveLog = new MoveLog(this.board.getRows(), this.board.getColumns());
         this.turnNumber = 0;
-        this.scanner = new Scanner(System.in);
+        this.moveSource = null; // the console is only opened if it is needed
+        this.displayEnabled = true;
+        this.renderer = new BoardRenderer(false);
+        this.output = System.out;
+        this.movesPlayed = 0;
         this.gameNumber = 1;
+        this.setGameHistory(new SpillingHistoryList()); // keeps recent games in memory and spills older ones to disk
     }
 
     public BoardGame(int rows, int columns, String name) {
         super(name);
         this.board = new Board(rows, columns);
+        this.moveLog = new MoveLog(rows, columns);
         this.turnNumber = 0;
-        this.scanner = new Scanner(System.in);
+        this.moveSource = null; // the console is only opened if it is needed
+        this.displayEnabled = true;
+        this.renderer = new BoardRenderer(false);
+        this.output = System.out;
+        this.movesPlayed = 0;
         this.gameNumber = 1;
+        this.setGameHistory(new SpillingHistoryList()); // keeps recent games in memory and spills older ones to disk
     }
 
     public BoardGame(int rows, int columns, String name, String gameID) {
         super(name, gameID);
         this.board = new Board(rows, columns);
+        this.moveLog = new MoveLog(rows, columns);
         this.turnNumber = 0;
-        this.scanner = new Scanner(System.in);
+        this.moveSource = null; // the console is only opened if it is needed
+        this.displayEnabled = true;
+        this.renderer = new BoardRenderer(false);
+        this.output = System.out;
+        this.movesPlayed = 0;
         this.gameNumber = 1;
+        this.setGameHistory(new SpillingHistoryList()); // keeps recent games in memory and spills older ones to disk
     }
 
     // GETTER METHODS
@@ -77,6 +143,10 @@ public abstract class BoardGame extends Game implements TurnBased {
         return this.board;
     }
 
+    public MoveLog getMoveLog() {
+        return this.moveLog;
+    }
+
     public int getTurnNumber() {
         return this.turnNumber;
     }
@@ -86,31 +156,165 @@ public abstract class BoardGame extends Game implements TurnBased {
         return teams[this.turnNumber % teams.length];
     }
 
-    public Scanner getScanner() {
-        return this.scanner;
+    // Zobrist hash of the pieces on the board and the team to move
+    public long getPositionHash() {
+        return this.board.getHash() ^ Zobrist.getSideKey(this.getCurrentTeam().getNumber());
+    }
+
+    // same as above, but equal for every rotation and reflection of the position
+    public long getCanonicalPositionHash() {
+        return this.board.getCanonicalHash() ^ Zobrist.getSideKey(this.getCurrentTeam().getNumber());
+    }
+
+    public MoveSource getMoveSource() {
+        if (this.moveSource == null) this.moveSource = new ConsoleMoveSource();
+        this.awaitOutput(this.moveSource);
+        return this.moveSource;
+    }
+
+    // players can be driven by their own move source (e.g. a bot), otherwise they use the game's
+    public MoveSource getMoveSource(Player player) {
+        if (player != null && player.getMoveSource() != null) return this.awaitOutput(player.getMoveSource());
+        return this.getMoveSource();
+    }
+
+    // a person is only asked for input once the board and messages before the prompt are on the screen
+    private MoveSource awaitOutput(MoveSource source) {
+        if (this.renderThread != null && source.isInteractive()) this.renderThread.awaitIdle();
+        return source;
     }
 
     public boolean getIsBoardFull() {
         // check if there are any empty cells left on the board
-        for (Cell[] row : this.board.getBoard()) {
-            for (Cell cell : row) {
-                if (cell.getValue() == null) return false;
-            }
-        }
-        return true;
+        return this.board.isFull();
+    }
+
+    public boolean getIsBitBoardStorage() {
+        return this.board instanceof BitBoard;
     }
 
     public int getGameNumber() {
         return this.gameNumber;
     }
 
+    public boolean isDisplayEnabled() {
+        return this.displayEnabled;
+    }
+
+    public BoardRenderer getRenderer() {
+        return this.renderer;
+    }
+
+    public PrintStream getOutput() {
+        return this.output;
+    }
+
+    public RenderThread getRenderThread() {
+        return this.renderThread;
+    }
+
+    public MoveEventBus getMoveEventBus() {
+        return this.eventBus;
+    }
+
+    public long getMovesPlayed() {
+        return this.movesPlayed;
+    }
+
+    public HistoryWriter getHistoryWriter() {
+        return this.historyWriter;
+    }
+
+    public BoardGameHistory getLastGameHistory() {
+        return this.lastGameHistory;
+    }
+
+    public PlayerStatsStore getPlayerStatsStore() {
+        return this.playerStats;
+    }
+
     // SETTER METHODS
     public void incrementTurnNumber() {
         this.turnNumber += 1;
     }
 
+    // the move log always describes the current board, so it starts over with every new board
     public void setBoard(Board board) {
         this.board = board;
+        if (board.getRows() != this.moveLog.getRows() || board.getColumns() != this.moveLog.getColumns()) this.moveLog = new MoveLog(board.getRows(), board.getColumns());
+        else this.moveLog.clear();
+    }
+
+    public void setMoveSource(MoveSource moveSource) {
+        this.moveSource = moveSource;
+    }
+
+    public void setDisplayEnabled(boolean enabled) {
+        this.displayEnabled = enabled;
+    }
+
+    public void setRenderer(BoardRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    // boards and messages are printed to this stream, e.g. the connection of a GameServer session
+    public void setOutput(PrintStream output) {
+        this.output = output;
+    }
+
+    // frames and messages go to the render thread, which draws them off the game loop (null to print them directly)
+    public void setRenderThread(RenderThread renderThread) {
+        this.renderThread = renderThread;
+    }
+
+    // moves, results, and new boards are published to the bus, which hands them to its listeners off the game loop (null for none)
+    public void setMoveEventBus(MoveEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    // keeps at most maxGames games (and about maxBytes bytes of them) in memory, spilling older games to disk
+    public void setHistoryRetention(int maxGames, long maxBytes) {
+        SpillingHistoryList history = new SpillingHistoryList(maxGames, maxBytes);
+        history.addAll(this.getGameHistory());
+        if (this.getGameHistory() instanceof SpillingHistoryList) ((SpillingHistoryList) this.getGameHistory()).close();
+        this.setGameHistory(history);
+    }
+
+    // finished games are streamed to the writer instead of piling up in the game history list
+    public void setHistoryWriter(HistoryWriter historyWriter) {
+        this.historyWriter = historyWriter;
+    }
+
+    // asked before the first game, so the games are appended to data.txt as they finish and a crash loses at most one batch
+    public void askToSaveHistory() throws IOException {
+        this.historyQuestionAsked = true;
+        if (this.getMoveSource().shouldSaveHistory(FILENAME)) this.setHistoryWriter(new GameHistoryWriter(FILENAME));
+    }
+
+    // every finished game's result is added to the players' records in the store, which outlive the session
+    public void setPlayerStatsStore(PlayerStatsStore playerStats) {
+        this.playerStats = playerStats;
+    }
+
+    // all moves go through here so that subclasses can keep state derived from the board up to date
+    public void placePiece(GamePiece piece, Team team, int turn, Player player, int row, int column) {
+        this.board.placePiece(piece, team, turn, player, row, column);
+        this.moveLog.add(turn, row, column, piece.getSymbol(), team, player);
+        this.movesPlayed++;
+        if (this.eventBus != null) this.eventBus.publishMove(this.getGameID(), this.gameNumber, turn, row, column, piece.getSymbol(), team, player);
+        this.onPiecePlaced(piece, team, row, column);
+    }
+
+    // hook called after every placed piece, overridden by games which track the moves made
+    protected void onPiecePlaced(GamePiece piece, Team team, int row, int column) {}
+
+    // replaces the board with an empty board of the same size using the chosen storage
+    public void setBitBoardStorage(boolean enabled) {
+        Board current = this.board;
+        Board replacement = enabled ? new BitBoard(current.getRows(), current.getColumns(), current.getGameType())
+            : new Board(current.getRows(), current.getColumns(), current.getGameType());
+        replacement.setHashBoardIndex(current.getHashBoardIndex(), current.getSymmetricBoardIndices());
+        this.setBoard(replacement);
     }
 
     public void resetTurnNumber() {
@@ -122,35 +326,75 @@ public abstract class BoardGame extends Game implements TurnBased {
     }
 
     public void reset(String gameType) {
-        this.addGameHistory(new BoardGameHistory(this.getWinner(), this.board, this.turnNumber + 1, this.gameNumber));
-        this.board = new Board(board.getRows(), board.getColumns(), gameType);
+        this.reset(gameType, false);
+    }
+
+    public void reset(String gameType, boolean endedEarly) {
+        this.lastGameHistory = this.createHistory(endedEarly);
+        this.recordHistory(this.lastGameHistory);
+        this.recordPlayerStats(gameType);
+        this.publishResult(endedEarly);
+        this.setBoard(this.board.createEmptyBoard(board.getRows(), board.getColumns(), gameType));
         this.resetTurnNumber();
         this.incrementGameNumber();
         this.setWinner(null);
+        // the bus only reports to observers, the history above is recorded here because a listener may miss events
+        if (this.eventBus != null) this.eventBus.publishReset(this.getGameID(), this.gameNumber);
+    }
+
+    private void publishResult(boolean endedEarly) {
+        if (this.eventBus == null) return;
+
+        if (this.getWinner() != null) this.eventBus.publishWin(this.getGameID(), this.gameNumber, this.turnNumber + 1, this.getWinner());
+        else this.eventBus.publishTie(this.getGameID(), this.gameNumber, this.turnNumber + 1, endedEarly);
+    }
+
+    protected BoardGameHistory createHistory(boolean endedEarly) {
+        return new BoardGameHistory(this.getWinner(), this.board.getGameType(), this.moveLog.copy(), this.turnNumber + 1, this.gameNumber, this.getGameID(),
+            endedEarly, 0, this.getTeams());
+    }
+
+    protected void recordHistory(GameHistory history) {
+        if (this.historyWriter == null) {
+            this.addGameHistory(history);
+            return;
+        }
+
+        try {
+            this.historyWriter.append(history);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing game history data to " + this.historyWriter.getPath(), e);
+        }
+    }
+
+    private void recordPlayerStats(String gameType) {
+        if (this.playerStats == null) return;
+
+        try {
+            this.playerStats.recordGame(gameType, this.getTeams(), this.getWinner());
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing player stats to " + this.playerStats.getPath(), e);
+        }
     }
 
     // COMMON METHODS FOR ALL GAME SUBCLASSES
     // USER INPUT METHODS
     private Team getTeamFromUserInput(int number, String name) {
-        System.out.print("Enter comma seperated list of players on team " + name + " (leave blank for default player):\t");
-        String input;
+        String[] names = this.getMoveSource().getTeamPlayerNames(name);
+        if (names == null || names.length == 0) return new Team(new Player(), number, name); 
+        
+        Player[] players = new Player[names.length];
+        for (int i = 0; i < names.length; i++) players[i] = this.createPlayer(names[i]);
+        
+        return new Team(players, number, name);
+    }
 
-        while (true) {
-            try {
-                input = this.scanner.nextLine().trim();
-                if (input.length() == 0) return new Team(new Player(), number, name); 
-                
-                String[] names = input.split(",");
-                for (int i = 0; i < names.length; i++) names[i] = names[i].trim();
-                
-                Player[] players = new Player[names.length];
-                for (int i = 0; i < names.length; i++) players[i] = new Player(names[i]);
-                
-                return new Team(players, number, name);
-            } catch (Exception e) {
-                System.out.print("Enter comma seperated list of players on team " + name + " (leave blank for default player):\t");
-            }
-        }
+    // a player named bot:<policy> (e.g. bot:negamax) is played by that bot, anyone else by the game's move source
+    private Player createPlayer(String name) {
+        if (!name.toLowerCase().startsWith(BOT_PREFIX)) return new Player(name);
+
+        MoveSource bot = MoveSource.createBot(name.substring(BOT_PREFIX.length()), System.nanoTime());
+        return bot == null ? new Player(name) : new Player(name, bot);
     }
 
     public void setTeamsFromUserInput(String team0Name, String team1Name) {
@@ -161,49 +405,67 @@ public abstract class BoardGame extends Game implements TurnBased {
     }
 
     public boolean isUserDone() {
-        System.out.print("Would you like to play again (y/n):\t");
+        this.flushPlayerStats(); // the results so far are saved even if the program is stopped at the prompt
+        if (!this.getMoveSource().isDone()) return false;
 
-        String resp;
-        while (true) {
-            resp = this.scanner.next();
-
-            if (resp.equalsIgnoreCase("y")) {
-                return false;
-            } else if (resp.equalsIgnoreCase("n")) {
-                // display the win counts for all players on all teams before quitting
-                for (Team team : this.getTeams()) {
-                    team.displayPlayerWinCounts();
-                }
-                return true;
-            } else {
-                System.out.print("Invalid input. Please enter y/n:\t");
-            }
+        // display the win counts for all players on all teams before quitting
+        for (Team team : this.getTeams()) {
+            if (this.playerStats == null || this.lastGameHistory == null) team.displayPlayerWinCounts(this.output);
+            else team.displayPlayerWinCounts(this.playerStats, this.lastGameHistory.getGameType(), this.output);
+        }
+        return true;
+    }
+
+    private void flushPlayerStats() {
+        if (this.playerStats == null) return;
+
+        try {
+            this.playerStats.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing player stats to " + this.playerStats.getPath(), e);
         }
     }
 
     public Cell getNextPlayerInputCell(Team team, Player player) {
-        System.out.print("[TEAM " + team.getName() + "] " + player.getName() + " enter your move (row,col):\t");
-        int row, column;
-        String input;
+        int[] move = this.getMoveSource(player).getNextCell(this, team, player);
+        int row = move[0], column = move[1];
 
+        if (!this.isValidMove(row, column)) throw new IllegalStateException("Invalid move (" + row + "," + column + ") from " + player.getName());
+        return this.board.getCell(row, column);
+    }
+
+    // GAME LOOP: keep playing rounds until the user is done
+    public void playGame() {
         while (true) {
-            try {
-                input = this.scanner.next();
-                String[] parts = input.split(",");
+            this.playRound();
+            if (this.isUserDone()) break;
+        }
+    }
 
-                if (parts.length != 2) throw new IllegalArgumentException();
+    public abstract Team playRound();
 
-                row = Integer.parseInt(parts[0].trim());
-                column = Integer.parseInt(parts[1].trim());
+    // DISPLAY METHODS
+    public void displayGame() {
+        this.renderer.display(this.board, this.output);
+    }
 
-                if (!this.isValidMove(row, column)) throw new IllegalArgumentException();
-                break;
-            } catch (Exception e) {
-                System.out.print("Invalid move. Please enter a valid move (row,col):\t");
-            }   
-        }
+    protected void updateDisplay() {
+        if (!this.displayEnabled) return;
+        if (this.renderThread != null) this.renderThread.publishFrame(this.createFrame());
+        else this.displayGame();
+    }
 
-        return this.board.getCell(row, column);
+    protected void displayMessage(String message) {
+        if (!this.displayEnabled) return;
+        if (this.renderThread != null) this.renderThread.publishMessage(message);
+        else this.output.println(message);
+    }
+
+    // the board is copied now, on the game thread, and drawn whenever the render thread gets to it
+    protected Consumer<PrintStream> createFrame() {
+        BoardRenderer.Snapshot snapshot = BoardRenderer.snapshot(this.board);
+        BoardRenderer renderer = this.renderer;
+        return out -> renderer.display(snapshot, out);
     }
 
     // VALIDATION METHOD TO CHECK IF THE MOVE IS VALID
@@ -213,32 +475,42 @@ public abstract class BoardGame extends Game implements TurnBased {
                 this.board.isBoardCellEmpty(row, column);
     }
 
-    // EXIT ROUTINE FOR BOARD GAMES: save the list of game histories to a seperate file
+    // EXIT ROUTINE FOR BOARD GAMES: finish writing the game histories to a seperate file
     public void exitGame() {
-        String input;
-        System.out.print("Would you like to save your game histories to " + FILENAME + " (y/n):\t");
+        if (this.renderThread != null) this.renderThread.close(); // everything still queued is written first, so the lines below come after it
+        if (this.eventBus != null) this.eventBus.close(); // the listeners are given every event published before stopping
 
-        while (true) {
-            input = this.scanner.next();
-            if (input.equalsIgnoreCase("n")) return; // immediately return if user does not want data.txt file
-            else if (input.equalsIgnoreCase("y")) break;
-            else System.out.print("Invalid input. Enter y or n:\t");           
+        if (this.playerStats != null) {
+            try {
+                this.playerStats.close();
+            } catch (IOException e) {
+                this.output.println("Error writing player stats to " + this.playerStats.getPath() + ": " + e.getMessage());
+            }
         }
 
-        try {
-            File file = new File(FILENAME);
-            file.createNewFile();
-            FileWriter writer = new FileWriter(file, false); // overwrite enabled
-            
-            String data = "";
-            for (GameHistory history : this.getGameHistory()) data += history.toString() + "\n";
-            
-            writer.write(data);
-            writer.close();
-
-            System.out.println("Saved game history data in " + FILENAME);
+        if (this.historyWriter != null) {
+            try {
+                this.historyWriter.close(); // every game was already appended as it finished
+                this.output.println("Saved game history data in " + this.historyWriter.getPath());
+            } catch (IOException e) {
+                this.output.println("Error writing game history data to " + this.historyWriter.getPath() + ": " + e.getMessage());
+            }
+            return;
+        }
+
+        // only save if the user wants a data.txt file (and was not asked already)
+        if (!this.historyQuestionAsked && this.getMoveSource().shouldSaveHistory(FILENAME)) this.saveGameHistory();
+        if (this.getGameHistory() instanceof SpillingHistoryList) ((SpillingHistoryList) this.getGameHistory()).close(); // deletes the spill file
+    }
+
+    // spilled games are read back one at a time while they are written, so saving does not load the whole history
+    private void saveGameHistory() {
+        try (GameHistoryWriter writer = new GameHistoryWriter(FILENAME)) {
+            for (GameHistory history : this.getGameHistory()) writer.append(history); // appended, earlier sessions are kept
         } catch (IOException e) {
-            System.out.println("Error writing game history data to " + FILENAME);
+            this.output.println("Error writing game history data to " + FILENAME + ": " + e.getMessage());
+            return;
         }
+        this.output.println("Saved game history data in " + FILENAME);
     }
-}
\ No newline at end of file
+}
@@ -1,50 +1,73 @@
 /*
     Description:  
-    BoardGameHistory class extends GameHistory and represents the history of a board game. It stores the final board state,
-    total turns taken, and the game details from GameHistory in a read-only format.
+    BoardGameHistory class extends GameHistory and represents the history of a board game. It stores the moves played in
+    order, total turns taken, and the game details from GameHistory in a read-only format.
 
     Fields:  
-    - boardState: The final state of the board at the end of the game.  
+    - gameType: The name of the game which was played.  
+    - moveLog: The moves of the game in the order they were played (a trimmed copy, the board itself is not kept).  
     - totalTurns: The total number of turns taken in the game.  
+    - endedEarly: Whether the game was ended before the board filled up because its result could no longer change.
+    - winLength: The number of pieces in a row needed to win (0 if the game has no such rule).
+    - teams: The teams which played the game (null if unknown).
 
     Constructor:  
-    - BoardGameHistory(Team winner, Board boardState, int totalTurns, int number): Initializes the game history with the winning team, 
-    final board state, total turns, and game number.  
+    - BoardGameHistory(Team winner, String gameType, MoveLog moveLog, int totalTurns, int number): Initializes the game history
+    with the winning team, game type, moves, total turns, and game number.  
+    - BoardGameHistory(Team winner, String gameType, MoveLog moveLog, int totalTurns, int number, String gameID, boolean endedEarly,
+    int winLength, Team[] teams): Also stores the game ID of a SuperTicTacToe sub game, whether the game was ended early, the win
+    length, and the teams, which the binary game record format keeps.
 
     Important Methods:  
-    - toString(): Returns a formatted string representing the game history, including game details, winner, board size, and a sorted list of moves. 
-    Uses a TreeMap to iterate over the board cells in row major order and sppending them to the final string in sorted order by turn.
+    - getRows()/getColumns(): The size of the board the game was played on.  
+    - toString(): Returns a formatted string representing the game history, including game details, winner, board size, and the list of moves. 
+    The moves are already in the order they were played, so they are appended straight from the move log.
     Prints out the game ID if the game is a subgame of SuperTicTacToe.
 */
 
 
-import java.util.Map;
-import java.util.TreeMap;
-
 public class BoardGameHistory extends GameHistory {
     // READ ONLY: history cannot be changed
-    private final Board boardState;
+    private final String gameType;
+    private final MoveLog moveLog;
     private final int totalTurns;
     private String gameID;
+    private final boolean endedEarly;
+    private final int winLength;
+    private final Team[] teams;
 
     // CONSTRUCTOR
-    public BoardGameHistory(Team winner, Board boardState, int totalTurns, int number) {
-        super(winner, number);
-        this.boardState = boardState;
-        this.totalTurns = totalTurns;
-        this.gameID = null;
+    public BoardGameHistory(Team winner, String gameType, MoveLog moveLog, int totalTurns, int number) {
+        this(winner, gameType, moveLog, totalTurns, number, null, false, 0, null);
     }
 
-    public BoardGameHistory(Team winner, Board boardState, int totalTurns, int number, String gameID) {
+    public BoardGameHistory(Team winner, String gameType, MoveLog moveLog, int totalTurns, int number, String gameID, boolean endedEarly,
+            int winLength, Team[] teams) {
         super(winner, number);
-        this.boardState = boardState;
+        this.gameType = gameType;
+        this.moveLog = moveLog;
         this.totalTurns = totalTurns;
         this.gameID = gameID;
+        this.endedEarly = endedEarly;
+        this.winLength = winLength;
+        this.teams = teams;
     }
     
     // GETTER methods
-    public Board getBoardState() {
-        return this.boardState;
+    public String getGameType() {
+        return this.gameType;
+    }
+
+    public MoveLog getMoveLog() {
+        return this.moveLog;
+    }
+
+    public int getRows() {
+        return this.moveLog.getRows();
+    }
+
+    public int getColumns() {
+        return this.moveLog.getColumns();
     }
 
     public int getTotalTurns() {
@@ -55,34 +78,35 @@ public class BoardGameHistory extends GameHistory {
         return this.gameID;
     }
 
-    // TO STRING METHOD
-    public String toString() {
-        String data = "GAME NUMBER:\t" + this.getGameNumber() + "\n";
-        if (this.gameID != null) data += "GAME ID:\t" + this.gameID + "\n";
-        data += "GAME NAME:\t" + this.boardState.getGameType() + "\n";
+    public boolean getEndedEarly() {
+        return this.endedEarly;
+    }
+
+    public int getWinLength() {
+        return this.winLength;
+    }
 
-        if (this.getWinner() != null) data += "WINNER TEAM:\tTeam " + this.getWinner().getName() + "\n";
-        else data += "GAME TIED\n";
+    public Team[] getTeams() {
+        return this.teams;
+    }
 
-        data += "TURNS TAKEN:\t" + this.totalTurns + "\n";
-        data += "BOARD SIZE:\t" + this.boardState.getRows() + "x" + this.boardState.getColumns() + "\n";
-        data += "MOVES (NUMBER, POSITION, PLAYER, PIECE, TEAM):\n";
+    // TO STRING METHOD
+    public String toString() {
+        StringBuilder data = new StringBuilder(256 + this.moveLog.size() * 32);
+        data.append("GAME NUMBER:\t").append(this.getGameNumber()).append("\n");
+        if (this.gameID != null) data.append("GAME ID:\t").append(this.gameID).append("\n");
+        data.append("GAME NAME:\t").append(this.gameType).append("\n");
 
-        Map<Integer, String> sortedMoves = new TreeMap<>(); // use to add the moves in sorted order
+        if (this.getWinner() != null) data.append("WINNER TEAM:\tTeam ").append(this.getWinner().getName()).append("\n");
+        else data.append("GAME TIED\n");
 
-        for (Cell[] cellRow : this.boardState.getBoard()) {
-            for (Cell cell : cellRow) {
-                if (cell.getValue() != null) {
-                    String cellData = cell.toString();
-                    String[] splitCellData = cellData.split(",");
-                    int turnNum = Integer.parseInt(splitCellData[0]);
-                    sortedMoves.put(turnNum, cellData);
-                } 
-            }
-        }
+        if (this.endedEarly) data.append("ENDED EARLY:\tno win line could still be completed\n");
 
-        for (Map.Entry<Integer, String> entry : sortedMoves.entrySet()) data += entry.getValue();
+        data.append("TURNS TAKEN:\t").append(this.totalTurns).append("\n");
+        data.append("BOARD SIZE:\t").append(this.getRows()).append("x").append(this.getColumns()).append("\n");
+        data.append("MOVES (NUMBER, POSITION, PLAYER, PIECE, TEAM):\n");
+        this.moveLog.appendMoves(data);
 
-        return data;
+        return data.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,199 @@
+/*
+    Description:
+    Draws a board in the layout of Board.toString (column numbers, row numbers, and +---+ separators) without building
+    it up from Strings. Everything but the pieces only depends on the board size, so it is rendered once per size into
+    a frame of chars which is cached and shared, along with where each cell's symbol goes in it. Drawing a board is
+    copying the frame into a buffer the renderer keeps and writing each cell's symbol into its slot.
+
+    In diff mode the board is pinned to the top of the terminal: the first frame clears the screen and draws it in
+    full, and later frames only move the cursor (ANSI escape codes) to the cells whose symbol changed since the last
+    frame and rewrite them, then clear everything below the board for the prompts. A move costs the same few bytes of
+    output on a 40x40 board as on a 3x3 one (as long as the board fits on the screen, so the terminal does not scroll).
+    A board of another size is drawn in full again.
+
+    Class Level Constants:
+    - FRAMES: the cached frames, keyed by board size.
+
+    Fields:
+    - diff: whether only the changed cells are redrawn.
+    - output: the buffer full frames are drawn into, reused while the board size stays the same.
+    - symbols: the symbols of the board being drawn.
+    - drawn: the symbols on the screen in diff mode (null until the first frame).
+    - drawnFrame: the frame on the screen in diff mode.
+    - escapes: the buffer the cursor movements of a diff frame are written into.
+
+    Constructors:
+    - BoardRenderer(boolean diff): a renderer which redraws every frame in full, or only the changed cells.
+
+    Important Methods:
+    - render(Board board): the board as a String, the same as Board.toString.
+    - display(Board board, PrintStream out): draws the board, in full or as the changes since the last frame.
+    - snapshot(Board board)/display(Snapshot snapshot, PrintStream out): copies the symbols of a board, and draws the
+    copy later, e.g. on another thread (see RenderThread) while the game goes on changing the board.
+    - isDiff(): whether only the changed cells are redrawn.
+*/
+
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class BoardRenderer {
+    private static final ConcurrentHashMap<Long, Frame> FRAMES = new ConcurrentHashMap<>();
+
+    private final boolean diff;
+    private char[] output;
+    private char[] symbols;
+    private char[] drawn;
+    private Frame drawnFrame;
+    private final StringBuilder escapes;
+
+    // CONSTRUCTOR
+    public BoardRenderer(boolean diff) {
+        this.diff = diff;
+        this.output = new char[0];
+        this.symbols = new char[0];
+        this.escapes = new StringBuilder();
+    }
+
+    // GETTER methods
+    public boolean isDiff() {
+        return this.diff;
+    }
+
+    public static String render(Board board) {
+        Frame frame = getFrame(board.getRows(), board.getColumns());
+        char[] text = frame.template.clone();
+        for (int cell = 0; cell < frame.cellOffsets.length; cell++) {
+            text[frame.cellOffsets[cell]] = board.getPieceSymbol(cell / frame.columns, cell % frame.columns);
+        }
+        return new String(text);
+    }
+
+    public static Snapshot snapshot(Board board) {
+        Frame frame = getFrame(board.getRows(), board.getColumns());
+        char[] symbols = new char[frame.cellOffsets.length];
+        for (int cell = 0; cell < symbols.length; cell++) symbols[cell] = board.getPieceSymbol(cell / frame.columns, cell % frame.columns);
+        return new Snapshot(frame, symbols);
+    }
+
+    // DISPLAY methods
+    public void display(Board board, PrintStream out) {
+        Frame frame = getFrame(board.getRows(), board.getColumns());
+        int cells = frame.cellOffsets.length;
+        if (this.symbols.length != cells) this.symbols = new char[cells];
+        for (int cell = 0; cell < cells; cell++) this.symbols[cell] = board.getPieceSymbol(cell / frame.columns, cell % frame.columns);
+        this.draw(frame, out);
+    }
+
+    public void display(Snapshot snapshot, PrintStream out) {
+        if (this.symbols.length != snapshot.symbols.length) this.symbols = new char[snapshot.symbols.length];
+        System.arraycopy(snapshot.symbols, 0, this.symbols, 0, snapshot.symbols.length);
+        this.draw(snapshot.frame, out);
+    }
+
+    // HELPER methods
+    // draws the symbols in this.symbols, in full or as the changes since the last frame
+    private void draw(Frame frame, PrintStream out) {
+        int cells = frame.cellOffsets.length;
+        if (!this.diff) {
+            out.print(this.fill(frame));
+            return;
+        }
+
+        if (this.drawnFrame != frame) {
+            out.print("\033[H\033[2J"); // home and clear the screen, the board is drawn at the top from now on
+            out.print(this.fill(frame));
+            this.drawnFrame = frame;
+            this.drawn = this.symbols.clone();
+            return;
+        }
+
+        this.escapes.setLength(0);
+        for (int cell = 0; cell < cells; cell++) {
+            if (this.symbols[cell] == this.drawn[cell]) continue;
+            this.escapes.append("\033[").append(frame.cellLines[cell] + 1).append(';').append(frame.cellColumns[cell] + 1).append('H').append(this.symbols[cell]);
+            this.drawn[cell] = this.symbols[cell];
+        }
+        this.escapes.append("\033[").append(frame.lineCount + 1).append(";1H\033[J"); // below the board, clearing the old prompts
+        out.append(this.escapes);
+        out.flush();
+    }
+
+    // copies the frame into the output buffer and writes the symbols into their slots
+    private char[] fill(Frame frame) {
+        if (this.output.length != frame.template.length) this.output = new char[frame.template.length];
+        System.arraycopy(frame.template, 0, this.output, 0, frame.template.length);
+        for (int cell = 0; cell < frame.cellOffsets.length; cell++) this.output[frame.cellOffsets[cell]] = this.symbols[cell];
+        return this.output;
+    }
+
+    private static Frame getFrame(int rows, int columns) {
+        rows = Math.max(0, rows); // a board made with Board() has no size
+        columns = Math.max(0, columns);
+        int frameRows = rows, frameColumns = columns;
+        return FRAMES.computeIfAbsent(((long) rows << 32) | columns, key -> new Frame(frameRows, frameColumns));
+    }
+
+    // the symbols of a board at one moment, which can be drawn after the board has changed
+    public static class Snapshot {
+        private final Frame frame;
+        private final char[] symbols;
+
+        private Snapshot(Frame frame, char[] symbols) {
+            this.frame = frame;
+            this.symbols = symbols;
+        }
+    }
+
+    // the text of an empty board of one size, and the offset, line, and column of every cell's symbol in it
+    private static class Frame {
+        private final int columns;
+        private final char[] template;
+        private final int[] cellOffsets;
+        private final int[] cellLines;
+        private final int[] cellColumns;
+        private final int lineCount;
+
+        Frame(int rows, int columns) {
+            this.columns = columns;
+            this.cellOffsets = new int[rows * columns];
+            this.cellLines = new int[rows * columns];
+            this.cellColumns = new int[rows * columns];
+
+            StringBuilder separator = new StringBuilder(columns > 0 ? "   " : "");
+            for (int j = 0; j < columns; j++) separator.append("+---");
+            separator.append("+\n");
+
+            StringBuilder text = new StringBuilder();
+            int lines = 0;
+            if (rows > 0) {
+                text.append("     ");
+                for (int c = 0; c < columns; c++) text.append(c).append(c < 10 ? "   " : "  ");
+                text.append('\n');
+                lines++;
+            }
+
+            for (int i = 0; i < rows; i++) {
+                text.append(separator);
+                lines++;
+
+                int lineStart = text.length();
+                text.append(i).append(i < 10 ? "  " : " ");
+                for (int j = 0; j < columns; j++) {
+                    text.append("| ");
+                    int cell = i * columns + j;
+                    this.cellOffsets[cell] = text.length();
+                    this.cellLines[cell] = lines;
+                    this.cellColumns[cell] = text.length() - lineStart;
+                    text.append("  ");
+                }
+                text.append("|\n");
+                lines++;
+            }
+            text.append(separator);
+
+            this.lineCount = lines + 1;
+            this.template = new char[text.length()];
+            text.getChars(0, text.length(), this.template, 0);
+        }
+    }
+}
@@ -11,10 +11,12 @@
     - turnModified: The turn number when the cell was modified.  
     - row: The row index of the cell in the grid.  
     - column: The column index of the cell in the grid.  
+    - board: The board the cell belongs to, told whenever the cell is filled or emptied (null for standalone cells).  
 
     Constructors:  
     - Cell(): Initializes the cell with default values (null for value, team, and player; -1 for turn, row, and column).  
     - Cell(int row, int column): Initializes the cell with specified row and column indices, leaving other fields as default.  
+    - Cell(Board board, int row, int column): Same as above for a cell owned by a board.  
     - Cell(GamePiece value, Team teamModified, Player playerModified, int turnModified, int row, int column): Initializes the 
     cell with specified values for the game piece, team, player, turn, row, and column.  
 
@@ -31,6 +33,7 @@ public class Cell {
     private int turnModified;
     private int row;
     private int column;
+    private Board board;
 
     // CONSTRUCTORS
     public Cell () {
@@ -49,6 +52,12 @@ public class Cell {
         this.turnModified = -1;
         this.row = row;
         this.column = column;
+        this.board = null;
+    }
+
+    public Cell (Board board, int row, int column) {
+        this(row, column);
+        this.board = board;
     }
 
     public Cell(GamePiece value, Team teamModified, Player playerModified, int turnModified, int row, int column) {
@@ -87,7 +96,9 @@ public class Cell {
 
     // SETTER METHODS
     public void setValue(GamePiece piece) {
+        GamePiece old = this.value;
         this.value = piece;
+        if (this.board != null) this.board.updateCell(this.row, this.column, symbolOf(old), symbolOf(piece));
     }
 
     public void setTeamModified(Team team) {
@@ -103,23 +114,30 @@ public class Cell {
     }
 
     public void setAllFields(GamePiece piece, Team team, int turn, Player player) {
+        GamePiece old = this.value;
         this.value = piece;
         this.teamModified = team;
         this.turnModified = turn;
         this.playerModified = player;
+        if (this.board != null) this.board.updateCell(this.row, this.column, symbolOf(old), symbolOf(piece));
     }
 
     // VALIDATION METHOD: check if the current cell is empty
     public boolean isEmpty() {
-        return this.value == null;
+        return this.getValue() == null;
+    }
+
+    // HELPER METHOD: the symbol of a piece, or a space for no piece
+    private static char symbolOf(GamePiece piece) {
+        return piece == null ? ' ' : piece.getSymbol();
     }
 
     // TO STRING METHOD
     public String toString() {
-        if (this.value == null) return null;
+        if (this.getValue() == null) return null;
 
-        char symVal = this.value.getSymbol();
+        char symVal = this.getValue().getSymbol();
 
-        return this.turnModified + ",(" + this.row + "," + this.column + ")," + this.playerModified.getName() + ",Piece " + symVal + ",Team " + this.teamModified.getName() + "\n";
+        return this.getTurnModified() + ",(" + this.row + "," + this.column + ")," + this.getPlayerModified().getName() + ",Piece " + symVal + ",Team " + this.getTeamModified().getName() + "\n";
     }
 }
\ No newline at end of file
@@ -6,7 +6,16 @@
     Instance Variables:
     - DEFAULT_LENGTH: Class level constant default number of consecutive pieces required to win.
     - winLength: The current win length (modifiable by user input).
-    - winPositions: A list of all possible winning positions on the board.
+    - winLines: All possible winning positions on the board as a flat table of packed cell indices, with an index of
+    the lines passing through every cell.
+    - winPositions: A list of all possible winning positions on the board, built from winLines the first time it is requested.
+    - winCheckMode: Whether wins are found by scanning every winning position or only the lines through the last move.
+    - lastMoveRow/lastMoveColumn: The cell of the last piece placed on the current board (-1 before the first move).
+    - lineCounts: Running count of the pieces of every owner in every win line, updated on each placed piece. The owner of a
+    piece is its team by default, and its symbol in games like Order and Chaos where either team may place either piece.
+    - openLineCounts: Per owner, the number of win lines holding no pieces of any other owner (lines it could still complete).
+    - completedLineCounts: Per owner, the number of win lines it has filled completely.
+    - deadLineCount: The number of win lines holding pieces of more than one owner, which nobody can complete anymore.
 
     Constructors:
     - public ConsecutivePiecesGame(String name): Initializes a game with a default board size and win conditions.
@@ -16,35 +25,60 @@
 
     Important Methods:
     - getWinPositions(): Returns all possible winning positions.
-    - getWinLengthFromUserInput(): Prompts the user to specify a win length, ensuring valid input.
+    - getWinLines(): Returns all possible winning positions as a WinLines table, along with the lines through each cell.
+    - getWinLengthFromUserInput(): Asks the game's move source (by default the user) to specify a win length.
     - setWinLengthFromUserInput(): Updates the win length based on user input.
-    - generateWinPositions(): Generates and stores all possible winning positions (horizontal, vertical, and diagonal).
+    - generateWinLines(): Generates and stores all possible winning positions (horizontal, vertical, and diagonal).
+    - getPieceOwner(GamePiece piece, Team team): Returns which owner's line counters a piece counts towards.
+    - createHistory(boolean endedEarly): Builds the history of a finished game including its win length.
+    - hasCompletedLine(int owner): Checks in O(1) if an owner has winLength pieces in a row.
+    - getLiveLineCount(): Returns in O(1) the number of win lines that can still be completed by someone.
+    - canOwnerStillWin(int owner, int movesLeft): Checks if an owner can still complete a line with the moves left to it.
+    - isWinningMove(int row, int column, char symbol): Checks the four lines through a cell for winLength of the symbol
+    in a row, which is O(winLength) instead of a scan of every winning position.
 */
 
 import java.util.List;
-import java.util.ArrayList;
 
 public abstract class ConsecutivePiecesGame extends BoardGame {
     private static final int DEFAULT_LENGTH = 3;
+    protected static final int OWNER_COUNT = 2; // two teams, or the two piece symbols in Order and Chaos
     private int winLength;
+    private WinLines winLines;
     private List<List<int[]>> winPositions;
+    private WinCheckMode winCheckMode;
+    private int lastMoveRow;
+    private int lastMoveColumn;
+    private int[] lineCounts;
+    private int[] openLineCounts;
+    private int[] completedLineCounts;
+    private int deadLineCount;
 
     public ConsecutivePiecesGame(String name) {
         super(name);
         this.winLength = DEFAULT_LENGTH;
-        this.winPositions = generateWinPositions();
+        this.generateWinLines();
+        this.winCheckMode = WinCheckMode.LINE_COUNTERS;
+        this.lastMoveRow = -1;
+        this.lastMoveColumn = -1;
     }
 
     public ConsecutivePiecesGame(int rows, int cols, String name) {
         super(rows, cols, name);
         this.winLength = DEFAULT_LENGTH;
-        this.winPositions = generateWinPositions();
+        this.generateWinLines();
+        this.winCheckMode = WinCheckMode.LINE_COUNTERS;
+        this.lastMoveRow = -1;
+        this.lastMoveColumn = -1;
     }
 
     public ConsecutivePiecesGame(int rows, int cols, String name, String gameID) {
         super(rows, cols, name, gameID);
         this.winLength = DEFAULT_LENGTH;
-        this.winPositions = generateWinPositions();
+        this.generateWinLines();
+        this.winCheckMode = WinCheckMode.LINE_COUNTERS;
+        this.lastMoveRow = -1;
+        this.lastMoveColumn = -1;
     }
 
     // GETTER methods
@@ -53,91 +87,210 @@ public abstract class ConsecutivePiecesGame extends BoardGame {
     }
 
     public List<List<int[]>> getWinPositions() {
+        if (this.winPositions == null) this.winPositions = this.winLines.toPositions();
         return this.winPositions;
     }
 
-    public int getWinLengthFromUserInput() {
-        String inputString;
-        int input;
+    public WinLines getWinLines() {
+        return this.winLines;
+    }
 
-        System.out.print("Enter desired win length (pieces in a row to win) or leave blank to play default:\t");
+    public WinCheckMode getWinCheckMode() {
+        return this.winCheckMode;
+    }
 
-        Board board = this.getBoard();
-        int rows = board.getRows(), columns = board.getColumns();
+    public int getLastMoveRow() {
+        return this.lastMoveRow;
+    }
 
-        while (true) {
-            try {
-                inputString = this.getScanner().nextLine().trim();
-                if (inputString.length() == 0) return Math.min(rows, columns);
-                input = Integer.parseInt(inputString);
+    public int getLastMoveColumn() {
+        return this.lastMoveColumn;
+    }
 
-                if (input < 2 || input > Math.max(rows, columns)) {
-                    System.out.println("Invalid input. winLength \u2208 [2, max{" + rows + ", " + columns + "}]");
-                    throw new IllegalArgumentException();
-                }
+    public boolean hasLastMove() {
+        return this.lastMoveRow >= 0;
+    }
 
-                return input;
-            } catch (Exception e) {
-                System.out.print("Please enter your desired grid size (rows, columns) or leave blank to play default game:\t");
-            }
+    // LINE COUNTER getters
+    public int getLinePieceCount(int line, int owner) {
+        return this.lineCounts[line * OWNER_COUNT + owner];
+    }
+
+    public boolean isLineDead(int line) {
+        return this.getLineOwnerCount(line * OWNER_COUNT) > 1;
+    }
+
+    public int getLiveLineCount() {
+        return this.winLines.getLineCount() - this.deadLineCount;
+    }
+
+    public int getOpenLineCount(int owner) {
+        return this.openLineCounts[owner];
+    }
+
+    public int getCompletedLineCount(int owner) {
+        return this.completedLineCounts[owner];
+    }
+
+    public boolean hasCompletedLine(int owner) {
+        return this.completedLineCounts[owner] > 0;
+    }
+
+    public int getPiecesPlaced() {
+        return this.getBoard().getOccupiedCount();
+    }
+
+    public int getEmptyCellCount() {
+        return this.getBoard().getEmptyCellCount();
+    }
+
+    // if an owner can still fill some line which holds none of the other owners' pieces using at most movesLeft pieces
+    public boolean canOwnerStillWin(int owner, int movesLeft) {
+        if (this.completedLineCounts[owner] > 0) return true;
+        if (this.openLineCounts[owner] == 0) return false;
+        if (movesLeft >= this.winLength) return true; // any open line can be filled
+
+        // only near the end of the game do the open lines have to be checked one by one
+        for (int line = 0; line < this.winLines.getLineCount(); line++) {
+            int base = line * OWNER_COUNT;
+            if (this.getLineOwnerCount(base) > 1 || (this.getLineOwnerCount(base) == 1 && this.lineCounts[base + owner] == 0)) continue;
+            if (this.winLength - this.lineCounts[base + owner] <= movesLeft) return true;
         }
+        return false;
+    }
+
+    // the owner whose line counters a piece counts towards, or -1 if it is not counted
+    protected int getPieceOwner(GamePiece piece, Team team) {
+        if (team == null || team.getNumber() < 0 || team.getNumber() >= OWNER_COUNT) return -1;
+        return team.getNumber();
+    }
+
+    // the history of a finished game also records the win length
+    protected BoardGameHistory createHistory(boolean endedEarly) {
+        return new BoardGameHistory(this.getWinner(), this.getBoard().getGameType(), this.getMoveLog().copy(), this.getTurnNumber() + 1,
+            this.getGameNumber(), this.getGameID(), endedEarly, this.winLength, this.getTeams());
+    }
+
+    public int getWinLengthFromUserInput() {
+        Board board = this.getBoard();
+        return this.getMoveSource().getWinLength(board.getRows(), board.getColumns());
     }
 
     // SETTER methods
+    public void setWinCheckMode(WinCheckMode mode) {
+        this.winCheckMode = mode;
+    }
+
+    public void setBoard(Board board) {
+        super.setBoard(board);
+        if (board.getRows() != this.winLines.getRows() || board.getColumns() != this.winLines.getColumns()) this.generateWinLines();
+        else this.resetLineCounters();
+        this.lastMoveRow = -1;
+        this.lastMoveColumn = -1;
+    }
+
+    protected void onPiecePlaced(GamePiece piece, Team team, int row, int column) {
+        this.lastMoveRow = row;
+        this.lastMoveColumn = column;
+
+        int owner = this.getPieceOwner(piece, team);
+        if (owner >= 0) this.countPiece(owner, this.winLines.toCell(row, column));
+    }
+
     public void setWinLength(int length) {
         this.winLength = length;
-        this.winPositions = this.generateWinPositions();
+        this.generateWinLines();
     }
     
     public void setWinLengthFromUserInput() {
         this.winLength = this.getWinLengthFromUserInput();
-        this.winPositions = this.generateWinPositions();
+        this.generateWinLines();
     }
 
-    // METHOD TO GENERATE ALL WINNING POSITIONS OF winLength pieces in a row
-    private List<List<int[]>> generateWinPositions() {
-        List<List<int[]>> positions = new ArrayList<>();
-        int numRows = this.getBoard().getRows();
-        int numCols = this.getBoard().getColumns();
+    // INCREMENTAL WIN CHECK: a new win must run through the cell just played, so only the four lines through it are counted
+    public boolean isWinningMove(int row, int column, char symbol) {
+        int[][] directions = { {0, 1}, {1, 0}, {1, 1}, {1, -1} };
 
-        // Horizontal wins
-        for (int r = 0; r < numRows; r++) {
-            for (int c = 0; c <= numCols - this.winLength; c++) {
-                List<int[]> position = new ArrayList<>();
-                for (int i = 0; i < this.winLength; i++) position.add(new int[] {r, c + i}); // add the coordinates
-                positions.add(position);
-            }
+        for (int[] direction : directions) {
+            int count = 1 + this.countConsecutive(row, column, direction[0], direction[1], symbol) 
+                          + this.countConsecutive(row, column, -direction[0], -direction[1], symbol);
+            if (count >= this.winLength) return true;
         }
 
-        // Vertical wins
-        for (int c = 0; c < numCols; c++) {
-            for (int r = 0; r <= numRows - this.winLength; r++) {
-                List<int[]> position = new ArrayList<>();
-                for (int i = 0; i < this.winLength; i++) position.add(new int[] {r + i, c}); // add the coordinates
-                positions.add(position);
-            }
+        return false;
+    }
+
+    // counts the pieces with the given symbol in a row starting next to (row, column) and walking in one direction
+    private int countConsecutive(int row, int column, int rowStep, int columnStep, char symbol) {
+        Board board = this.getBoard();
+        int count = 0;
+        int r = row + rowStep, c = column + columnStep;
+
+        while (count < this.winLength && r >= 0 && r < board.getRows() && c >= 0 && c < board.getColumns() && board.getPieceSymbol(r, c) == symbol) {
+            count++;
+            r += rowStep;
+            c += columnStep;
         }
 
-        // Top left to bottom right diagonal
-        for (int r = 0; r <= numRows - this.winLength; r++) {
-            for (int c = 0; c <= numCols - this.winLength; c++) {
-                List<int[]> position = new ArrayList<>();
-                for (int i = 0; i < this.winLength; i++) position.add(new int[]{r + i, c + i});
-                positions.add(position);
+        return count;
+    }
+
+    // LINE COUNTER METHODS
+    // adds a piece of the given owner to the counters of every line through the cell
+    private void countPiece(int owner, int cell) {
+        for (int i = this.winLines.getLinesThroughCellStart(cell); i < this.winLines.getLinesThroughCellEnd(cell); i++) {
+            int base = this.winLines.getCellLine(i) * OWNER_COUNT;
+
+            if (this.lineCounts[base + owner] == 0) {
+                int ownersBefore = this.getLineOwnerCount(base);
+
+                // the first piece of this owner closes the line for the only other owner that had pieces in it (or all others if it was empty)
+                for (int other = 0; other < OWNER_COUNT; other++) {
+                    if (other == owner) continue;
+                    if (ownersBefore == 0 || (ownersBefore == 1 && this.lineCounts[base + other] > 0)) this.openLineCounts[other]--;
+                }
+
+                if (ownersBefore == 1) this.deadLineCount++; // now holds pieces of two owners
             }
+
+            if (++this.lineCounts[base + owner] == this.winLength) this.completedLineCounts[owner]++;
         }
+    }
 
-        // Top right to bottom left diagonal
-        for (int r = 0; r <= numRows - this.winLength; r++) {
-            for (int c = this.winLength - 1; c < numCols; c++) {
-                List<int[]> position = new ArrayList<>();
-                for (int i = 0; i < this.winLength; i++) {
-                    position.add(new int[]{r + i, c - i});
-                }
-                positions.add(position);
+    // number of distinct owners with pieces in the line starting at base in lineCounts
+    private int getLineOwnerCount(int base) {
+        int owners = 0;
+        for (int owner = 0; owner < OWNER_COUNT; owner++) {
+            if (this.lineCounts[base + owner] > 0) owners++;
+        }
+        return owners;
+    }
+
+    // clears every line counter, then counts any pieces already on the board
+    private void resetLineCounters() {
+        int lineCount = this.winLines.getLineCount();
+        this.lineCounts = new int[lineCount * OWNER_COUNT];
+        this.openLineCounts = new int[OWNER_COUNT];
+        this.completedLineCounts = new int[OWNER_COUNT];
+        this.deadLineCount = 0;
+        for (int owner = 0; owner < OWNER_COUNT; owner++) this.openLineCounts[owner] = lineCount;
+
+        Board board = this.getBoard();
+        for (int r = 0; r < board.getRows(); r++) {
+            for (int c = 0; c < board.getColumns(); c++) {
+                if (board.isBoardCellEmpty(r, c)) continue;
+                Cell cell = board.getCell(r, c);
+                int owner = this.getPieceOwner(cell.getValue(), cell.getTeamModified());
+                if (owner >= 0) this.countPiece(owner, this.winLines.toCell(r, c));
             }
         }
+    }
 
-        return positions;
+    // METHOD TO GENERATE ALL WINNING POSITIONS of winLength pieces in a row for the current board
+    private void generateWinLines() {
+        Board board = this.getBoard();
+        this.winLines = new WinLines(board.getRows(), board.getColumns(), this.winLength);
+        this.winPositions = null; // the list form is only built again if someone asks for it
+        this.resetLineCounters();
     }
 }
\ No newline at end of file
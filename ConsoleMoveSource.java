@@ -0,0 +1,221 @@
+/*
+    Description:
+    MoveSource which asks a human at the console for every decision, printing prompts and re-prompting until the
+    input is valid. This is the default source of every BoardGame.
+
+    Fields:
+    - scanner: Scanner used to read user input.
+    - out: Stream the prompts are printed to.
+
+    Constructors:
+    - ConsoleMoveSource(): reads from System.in and prompts on System.out.
+    - ConsoleMoveSource(Scanner scanner, PrintStream out): reads from and prompts on the given streams.
+
+    Interface Method Implementations:
+    - getNextCell(...): Prompts for a move as "row,col" until a valid move is entered.
+    - getNextPiece(...): Prompts for a game piece (X/O).
+    - getNextGameID(...): Prompts for the ID of a sub game (A-I).
+    - getTeamPlayerNames(String teamName): Prompts for a comma seperated list of players on a team.
+    - getBoardSize(int maxRows, int maxColumns): Prompts for the board size as "rows, columns".
+    - getWinLength(int rows, int columns): Prompts for the win length.
+    - isDone(): Asks if the user would like to play again.
+    - shouldSaveHistory(String filename): Asks if the user would like to save their game histories.
+*/
+
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+
+public class ConsoleMoveSource implements MoveSource {
+    private final Scanner scanner;
+    private final PrintStream out;
+
+    // CONSTRUCTORS
+    public ConsoleMoveSource() {
+        this(new Scanner(System.in), System.out);
+    }
+
+    public ConsoleMoveSource(Scanner scanner, PrintStream out) {
+        this.scanner = scanner;
+        this.out = out;
+    }
+
+    // GETTER METHOD
+    public Scanner getScanner() {
+        return this.scanner;
+    }
+
+    // MOVE INPUT METHODS
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        this.out.print("[TEAM " + team.getName() + "] " + player.getName() + " enter your move (row,col):\t");
+        int row, column;
+        String input;
+
+        while (true) {
+            try {
+                input = this.scanner.next();
+                String[] parts = input.split(",");
+
+                if (parts.length != 2) throw new IllegalArgumentException();
+
+                row = Integer.parseInt(parts[0].trim());
+                column = Integer.parseInt(parts[1].trim());
+
+                if (!game.isValidMove(row, column)) throw new IllegalArgumentException();
+                return new int[] {row, column};
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Invalid move. Please enter a valid move (row,col):\t");
+            }   
+        }
+    }
+
+    public char getNextPiece(BoardGame game, Team team, Player player) {
+        // Order and chaos allows either player to play either game piece
+        this.out.print("[TEAM " + team.getName() + "] " + player.getName() + " enter your game piece (X/O):\t");
+        String input;
+
+        while (true) {
+            try {
+                input = this.scanner.next();
+                char symbol = Character.toUpperCase(input.charAt(0));
+
+                if (symbol != 'X' && symbol != 'O') throw new IllegalArgumentException();
+
+                return symbol;
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Invalid game piece. Please enter a valid piece (X/O):\t");
+            }
+        }
+    }
+
+    public String getNextGameID(SuperTicTacToe game, Team team, Player player) {
+        String input;
+        char inputChar;
+
+        this.out.print("[TEAM " + team.getName() + "] " + player.getName() + " enter the game grid ID to make a move (A-I):\t");
+
+        while(true) {
+            try {
+                input = this.scanner.next();
+                inputChar = Character.toUpperCase(input.charAt(0));
+                if (inputChar < 'A' || inputChar > 'I') throw new IllegalArgumentException();
+                return inputChar + ""; // convert it to a string since all IDs are strings
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Invalid input. Please enter a valid game ID (A-I): \t");
+            }
+        }
+    }
+
+    // SETUP INPUT METHODS
+    public String[] getTeamPlayerNames(String teamName) {
+        this.out.print("Enter comma seperated list of players on team " + teamName + " (leave blank for default player):\t");
+        String input;
+
+        while (true) {
+            try {
+                input = this.scanner.nextLine().trim();
+                if (input.length() == 0) return null; 
+                
+                String[] names = input.split(",");
+                for (int i = 0; i < names.length; i++) names[i] = names[i].trim();
+                return names;
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Enter comma seperated list of players on team " + teamName + " (leave blank for default player):\t");
+            }
+        }
+    }
+
+    public int[] getBoardSize(int maxRows, int maxColumns) {
+        String input;
+        int rows, columns;
+
+        this.out.print("Enter desired board size (rows, columns) or leave blank to play default game:\t");
+
+        while (true) {
+            try {
+                input = this.scanner.nextLine().trim();
+                if (input.length() == 0) return null;
+
+                String[] parts = input.split(",");
+                if (parts.length != 2) throw new IllegalArgumentException();
+
+                rows = Integer.parseInt(parts[0].trim());
+                columns = Integer.parseInt(parts[1].trim());
+
+                if (rows < 1 || columns < 1 || rows > maxRows || columns > maxColumns) {
+                    this.out.println("Invalid input. Rows \u2208 [1, " + maxRows + "], columns \u2208 [1, " + maxColumns + "]");
+                    throw new IllegalArgumentException();
+                }
+
+                return new int[] {rows, columns};
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Enter desired board size (rows, columns) or leave blank to play default game:\t");
+            }
+        }
+    }
+
+    public int getWinLength(int rows, int columns) {
+        String inputString;
+        int input;
+
+        this.out.print("Enter desired win length (pieces in a row to win) or leave blank to play default:\t");
+
+        while (true) {
+            try {
+                inputString = this.scanner.nextLine().trim();
+                if (inputString.length() == 0) return Math.min(rows, columns);
+                input = Integer.parseInt(inputString);
+
+                if (input < 2 || input > Math.max(rows, columns)) {
+                    this.out.println("Invalid input. winLength \u2208 [2, max{" + rows + ", " + columns + "}]");
+                    throw new IllegalArgumentException();
+                }
+
+                return input;
+            } catch (NoSuchElementException e) {
+                throw e; // the console was closed, so no valid input will ever come
+            } catch (Exception e) {
+                this.out.print("Please enter your desired grid size (rows, columns) or leave blank to play default game:\t");
+            }
+        }
+    }
+
+    public boolean isDone() {
+        this.out.print("Would you like to play again (y/n):\t");
+
+        String resp;
+        while (true) {
+            resp = this.scanner.next();
+
+            if (resp.equalsIgnoreCase("y")) return false;
+            else if (resp.equalsIgnoreCase("n")) return true;
+            else this.out.print("Invalid input. Please enter y/n:\t");
+        }
+    }
+
+    public boolean shouldSaveHistory(String filename) {
+        String input;
+        this.out.print("Would you like to save your game histories to " + filename + " (y/n):\t");
+
+        while (true) {
+            input = this.scanner.next();
+            if (input.equalsIgnoreCase("n")) return false;
+            else if (input.equalsIgnoreCase("y")) return true;
+            else this.out.print("Invalid input. Enter y or n:\t");           
+        }
+    }
+
+    public boolean isInteractive() {
+        return true;
+    }
+}
@@ -0,0 +1,577 @@
+/*
+    Description:
+    Query engine over an archive of games written in the binary game record format (GameRecordWriter). Every game is
+    described by a few ints (its configuration, turns taken, winning team, winning line, and each player with their
+    result), and posting lists (sorted arrays of game numbers) index the games by game type, board size, winner, player
+    (played, won, and lost), and turns taken. A query starts from the shortest matching posting list and intersects
+    the others with it, so questions like "every game player P lost in under 10 turns" or "the win rate of ORDER on
+    6x6 Order and Chaos" only touch the games they match instead of scanning the archive. The descriptions are saved
+    next to the archive (<archive>.qix) and reloaded at start up, so only games added since the last run are decoded.
+
+    Usage:
+    java GameHistoryIndex file=PATH [type=NAME] [size=RxC] [winner=TEAM|tie] [player=NAME] [won=NAME] [lost=NAME]
+                          [minturns=N] [maxturns=N] [winrate=TEAM] [lines=N] [show=N]
+    - prints the number of matching games, then the win rate of a team, the N most common winning lines, and the
+    first N matching games if asked for.
+
+    Class Level Constants:
+    - MAGIC/VERSION: identify the saved index file.
+    - NONE: the value of a missing winner or winning line.
+    - DRAW/WON/LOST: the result of a player in a game.
+
+    Fields:
+    - archive: the game record file being indexed.
+    - indexPath: where the game descriptions are saved.
+    - strings/stringNumbers: names (game types, teams, players) by number and the number of every name.
+    - configs/configNumbers: the distinct (game type, rows, columns, win length) configurations by number.
+    - gameCount: the number of games indexed.
+    - configOf/turnsOf/winnerOf/lineOf: per game, its configuration, turns taken, winning team name, and winning line.
+    - playerStart/playerEntries: the players of game g are playerEntries[playerStart[g]] ... playerEntries[playerStart[g + 1] - 1],
+    each packed as name << 2 | result.
+    - byType/bySize/byWinner/byPlayer/byPlayerWon/byPlayerLost/byTurns: the posting lists.
+
+    Constructors:
+    - GameHistoryIndex(Path archive): loads the saved index, indexes any games added to the archive since, and saves it again.
+    A saved index which was cut off is ignored and rebuilt, and saving replaces the file in one atomic move.
+
+    Important Methods:
+    - query(): starts a query matching every game, narrowed by chaining its filters.
+    - getGameCount(): the number of games indexed.
+    - getGame(int game): decodes a game from the archive.
+    - describeLine(int config, int line): the cells of a winning line, e.g. (0,0)-(1,1)-(2,2).
+*/
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GameHistoryIndex {
+    public static final int MAGIC = 0x47515831; // "GQX1"
+    public static final int VERSION = 1;
+    public static final int NONE = -1;
+    public static final int DRAW = 0, WON = 1, LOST = 2;
+
+    private final GameRecordReader archive;
+    private final Path indexPath;
+    private final List<String> strings;
+    private final Map<String, Integer> stringNumbers;
+    private final List<int[]> configs;
+    private final Map<String, Integer> configNumbers;
+    private int gameCount;
+    private final IntList configOf;
+    private final IntList turnsOf;
+    private final IntList winnerOf;
+    private final IntList lineOf;
+    private final IntList playerStart;
+    private final IntList playerEntries;
+    private final Map<Integer, IntList> byType;
+    private final Map<Integer, IntList> bySize;
+    private final Map<Integer, IntList> byWinner;
+    private final Map<Integer, IntList> byPlayer;
+    private final Map<Integer, IntList> byPlayerWon;
+    private final Map<Integer, IntList> byPlayerLost;
+    private final Map<Integer, IntList> byTurns;
+    private final Map<Integer, WinLines> winLines;
+
+    // CONSTRUCTOR
+    public GameHistoryIndex(Path archive) throws IOException {
+        this.archive = new GameRecordReader(archive);
+        this.indexPath = archive.resolveSibling(archive.getFileName() + ".qix");
+        this.strings = new ArrayList<>();
+        this.stringNumbers = new HashMap<>();
+        this.configs = new ArrayList<>();
+        this.configNumbers = new HashMap<>();
+        this.configOf = new IntList();
+        this.turnsOf = new IntList();
+        this.winnerOf = new IntList();
+        this.lineOf = new IntList();
+        this.playerStart = new IntList();
+        this.playerStart.add(0);
+        this.playerEntries = new IntList();
+        this.byType = new HashMap<>();
+        this.bySize = new HashMap<>();
+        this.byWinner = new HashMap<>();
+        this.byPlayer = new HashMap<>();
+        this.byPlayerWon = new HashMap<>();
+        this.byPlayerLost = new HashMap<>();
+        this.byTurns = new HashMap<>();
+        this.winLines = new HashMap<>();
+
+        if (this.archive.getGameCount() > Integer.MAX_VALUE) throw new IOException(archive + " has too many games to index");
+        int saved = this.load();
+        for (int game = this.gameCount; game < this.archive.getGameCount(); game++) this.index(this.archive.getGame(game));
+        if (this.gameCount > saved) this.save();
+    }
+
+    // GETTER methods
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    public BoardGameHistory getGame(int game) {
+        return this.archive.getGame(game);
+    }
+
+    public Query query() {
+        return new Query();
+    }
+
+    // the cells of a winning line of a configuration, e.g. (0,0)-(1,1)-(2,2)
+    public String describeLine(int config, int line) {
+        WinLines lines = this.getWinLines(config);
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < lines.getLength(); i++) {
+            int cell = lines.getLineCell(line, i);
+            if (i > 0) description.append("-");
+            description.append("(").append(cell / lines.getColumns()).append(",").append(cell % lines.getColumns()).append(")");
+        }
+        return description.toString();
+    }
+
+    // the game type, board size, and win length of a configuration
+    public String describeConfig(int config) {
+        int[] values = this.configs.get(config);
+        return this.strings.get(values[0]) + " " + values[1] + "x" + values[2] + " (" + values[3] + " in a row)";
+    }
+
+    // HELPER methods
+    // adds the description of the next game of the archive to the columns and posting lists
+    private void index(BoardGameHistory history) {
+        MoveLog log = history.getMoveLog();
+        int config = this.getConfigNumber(history.getGameType(), log.getRows(), log.getColumns(), history.getWinLength());
+        int winner = history.getWinner() == null ? NONE : this.getStringNumber(history.getWinner().getName());
+        int line = history.getWinner() == null ? NONE : this.findWinningLine(config, log);
+
+        this.configOf.add(config);
+        this.turnsOf.add(history.getTotalTurns());
+        this.winnerOf.add(winner);
+        this.lineOf.add(line);
+
+        Team[] teams = history.getTeams() == null ? new Team[0] : history.getTeams();
+        for (Team team : teams) {
+            int result = history.getWinner() == null ? DRAW : (history.getWinner() == team ? WON : LOST);
+            for (Player player : team.getTeam()) this.playerEntries.add(this.getStringNumber(player.getName()) << 2 | result);
+        }
+        this.playerStart.add(this.playerEntries.size());
+
+        this.addPostings(this.gameCount);
+        this.gameCount++;
+    }
+
+    // adds a game whose columns are filled in to the posting lists
+    private void addPostings(int game) {
+        int[] config = this.configs.get(this.configOf.get(game));
+        post(this.byType, config[0], game);
+        post(this.bySize, config[1] << 16 | config[2], game);
+        post(this.byWinner, this.winnerOf.get(game), game);
+        post(this.byTurns, this.turnsOf.get(game), game);
+
+        for (int i = this.playerStart.get(game); i < this.playerStart.get(game + 1); i++) {
+            int entry = this.playerEntries.get(i), name = entry >>> 2;
+            IntList played = this.byPlayer.computeIfAbsent(name, key -> new IntList());
+            if (played.size() == 0 || played.get(played.size() - 1) != game) played.add(game); // a player on two teams is listed once
+            if ((entry & 3) == WON) post(this.byPlayerWon, name, game);
+            if ((entry & 3) == LOST) post(this.byPlayerLost, name, game);
+        }
+    }
+
+    private static void post(Map<Integer, IntList> postings, int key, int game) {
+        postings.computeIfAbsent(key, k -> new IntList()).add(game);
+    }
+
+    // the line through the last move holding only its symbol, or NONE if the game was not won by completing a line
+    private int findWinningLine(int config, MoveLog log) {
+        if (log.size() == 0 || this.configs.get(config)[3] < 1) return NONE;
+        WinLines lines = this.getWinLines(config);
+
+        char[] board = new char[log.getRows() * log.getColumns()];
+        for (int i = 0; i < log.size(); i++) board[log.getCell(i)] = log.getSymbol(i);
+
+        int last = log.getCell(log.size() - 1);
+        for (int i = lines.getLinesThroughCellStart(last); i < lines.getLinesThroughCellEnd(last); i++) {
+            int line = lines.getCellLine(i);
+            boolean complete = true;
+            for (int j = 0; j < lines.getLength() && complete; j++) complete = board[lines.getLineCell(line, j)] == board[last];
+            if (complete) return line;
+        }
+        return NONE;
+    }
+
+    private WinLines getWinLines(int config) {
+        int[] values = this.configs.get(config);
+        return this.winLines.computeIfAbsent(config, key -> new WinLines(values[1], values[2], values[3]));
+    }
+
+    private int getStringNumber(String value) {
+        Integer number = this.stringNumbers.get(value);
+        if (number != null) return number;
+        this.strings.add(value);
+        this.stringNumbers.put(value, this.strings.size() - 1);
+        return this.strings.size() - 1;
+    }
+
+    private int getConfigNumber(String gameType, int rows, int columns, int winLength) {
+        String key = gameType + "/" + rows + "/" + columns + "/" + winLength;
+        Integer number = this.configNumbers.get(key);
+        if (number != null) return number;
+        this.configs.add(new int[] { this.getStringNumber(gameType), rows, columns, winLength });
+        this.configNumbers.put(key, this.configs.size() - 1);
+        return this.configs.size() - 1;
+    }
+
+    // reads the saved descriptions if they still match the archive and returns how many games they cover
+    private int load() throws IOException {
+        if (!Files.exists(this.indexPath)) return 0;
+
+        try {
+            return this.read();
+        } catch (EOFException e) {
+            this.clear(); // cut off (e.g. the last save was stopped part way), index the archive again from the start
+            return 0;
+        }
+    }
+
+    private int read() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(this.indexPath), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return 0;
+            int count = in.readInt();
+            long lastOffset = in.readLong();
+            if (count > this.archive.getGameCount() || (count > 0 && this.archive.getOffset(count - 1) != lastOffset)) {
+                return 0; // the archive was replaced, index it again from the start
+            }
+
+            int stringCount = in.readInt();
+            for (int i = 0; i < stringCount; i++) this.getStringNumber(in.readUTF());
+            int configCount = in.readInt();
+            for (int i = 0; i < configCount; i++) {
+                int[] values = { in.readInt(), in.readInt(), in.readInt(), in.readInt() };
+                this.configs.add(values);
+                this.configNumbers.put(this.strings.get(values[0]) + "/" + values[1] + "/" + values[2] + "/" + values[3], i);
+            }
+
+            for (int game = 0; game < count; game++) {
+                this.configOf.add(in.readInt());
+                this.turnsOf.add(in.readInt());
+                this.winnerOf.add(in.readInt());
+                this.lineOf.add(in.readInt());
+                int players = in.readInt();
+                for (int i = 0; i < players; i++) this.playerEntries.add(in.readInt());
+                this.playerStart.add(this.playerEntries.size());
+                this.addPostings(game);
+                this.gameCount++;
+            }
+            return count;
+        }
+    }
+
+    // forgets the games read from a saved index which turned out to be incomplete
+    private void clear() {
+        this.strings.clear();
+        this.stringNumbers.clear();
+        this.configs.clear();
+        this.configNumbers.clear();
+        this.gameCount = 0;
+        this.configOf.clear();
+        this.turnsOf.clear();
+        this.winnerOf.clear();
+        this.lineOf.clear();
+        this.playerStart.clear();
+        this.playerStart.add(0);
+        this.playerEntries.clear();
+        this.byType.clear();
+        this.bySize.clear();
+        this.byWinner.clear();
+        this.byPlayer.clear();
+        this.byPlayerWon.clear();
+        this.byPlayerLost.clear();
+        this.byTurns.clear();
+    }
+
+    // written to a temporary file which then replaces the saved index, so a stopped save never leaves half an index behind
+    private void save() throws IOException {
+        Path temporary = this.indexPath.resolveSibling(this.indexPath.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.gameCount);
+            out.writeLong(this.gameCount > 0 ? this.archive.getOffset(this.gameCount - 1) : 0);
+
+            out.writeInt(this.strings.size());
+            for (String value : this.strings) out.writeUTF(value);
+            out.writeInt(this.configs.size());
+            for (int[] values : this.configs) for (int value : values) out.writeInt(value);
+
+            for (int game = 0; game < this.gameCount; game++) {
+                out.writeInt(this.configOf.get(game));
+                out.writeInt(this.turnsOf.get(game));
+                out.writeInt(this.winnerOf.get(game));
+                out.writeInt(this.lineOf.get(game));
+                out.writeInt(this.playerStart.get(game + 1) - this.playerStart.get(game));
+                for (int i = this.playerStart.get(game); i < this.playerStart.get(game + 1); i++) out.writeInt(this.playerEntries.get(i));
+            }
+        }
+        Files.move(temporary, this.indexPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // the games in both sorted lists, galloping through the longer one when the lengths are far apart
+    private static int[] intersect(int[] a, int aSize, int[] b, int bSize) {
+        if (aSize > bSize) return intersect(b, bSize, a, aSize);
+        int[] result = new int[aSize];
+        int count = 0, j = 0;
+
+        for (int i = 0; i < aSize && j < bSize; i++) {
+            int step = 1;
+            while (j + step < bSize && b[j + step] < a[i]) step <<= 1; // gallop, then binary search the last step
+            int found = Arrays.binarySearch(b, j + (step >> 1), Math.min(bSize, j + step + 1), a[i]);
+            if (found >= 0) {
+                result[count++] = a[i];
+                j = found + 1;
+            } else {
+                j = -found - 1;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // a query over the games of the index, each filter keeps only the games matching it as well
+    public class Query {
+        private final List<IntList> postings = new ArrayList<>(); // a null entry matches nothing
+        private int minTurns = 0;
+        private int maxTurns = Integer.MAX_VALUE;
+
+        public Query gameType(String gameType) {
+            Integer name = stringNumbers.get(gameType);
+            return this.filter(name == null ? null : byType.get(name));
+        }
+
+        public Query boardSize(int rows, int columns) {
+            return this.filter(bySize.get(rows << 16 | columns));
+        }
+
+        public Query winner(String team) {
+            Integer name = stringNumbers.get(team);
+            return this.filter(name == null ? null : byWinner.get(name));
+        }
+
+        public Query tie() {
+            return this.filter(byWinner.get(NONE));
+        }
+
+        public Query player(String player) {
+            return this.filter(this.getPostings(byPlayer, player));
+        }
+
+        public Query playerWon(String player) {
+            return this.filter(this.getPostings(byPlayerWon, player));
+        }
+
+        public Query playerLost(String player) {
+            return this.filter(this.getPostings(byPlayerLost, player));
+        }
+
+        public Query turns(int min, int max) {
+            this.minTurns = Math.max(this.minTurns, min);
+            this.maxTurns = Math.min(this.maxTurns, max);
+            return this;
+        }
+
+        public Query maxTurns(int max) {
+            return this.turns(0, max);
+        }
+
+        // the matching game numbers in increasing order
+        public int[] games() {
+            boolean turnFilter = this.minTurns > 0 || this.maxTurns < Integer.MAX_VALUE;
+            if (!this.postings.isEmpty()) {
+                int[] games = this.intersectPostings();
+                if (!turnFilter) return games;
+                int[] result = new int[games.length];
+                int count = 0;
+                for (int game : games) {
+                    int turns = turnsOf.get(game);
+                    if (turns >= this.minTurns && turns <= this.maxTurns) result[count++] = game;
+                }
+                return Arrays.copyOf(result, count);
+            }
+
+            if (!turnFilter) {
+                int[] all = new int[gameCount];
+                for (int i = 0; i < gameCount; i++) all[i] = i;
+                return all;
+            }
+
+            // only the turn filter: merge the posting lists of the turn counts in range
+            IntList merged = new IntList();
+            for (Map.Entry<Integer, IntList> entry : byTurns.entrySet()) {
+                if (entry.getKey() >= this.minTurns && entry.getKey() <= this.maxTurns) merged.addAll(entry.getValue());
+            }
+            int[] result = merged.toArray();
+            Arrays.sort(result);
+            return result;
+        }
+
+        public int count() {
+            return this.games().length;
+        }
+
+        // the matching games decoded from the archive, at most limit of them
+        public List<BoardGameHistory> histories(int limit) {
+            List<BoardGameHistory> histories = new ArrayList<>();
+            for (int game : this.games()) {
+                if (histories.size() == limit) break;
+                histories.add(archive.getGame(game));
+            }
+            return histories;
+        }
+
+        // the share of the matching games the team won
+        public double winRate(String team) {
+            int[] matching = this.games();
+            if (matching.length == 0) return 0;
+            Integer name = stringNumbers.get(team);
+            if (name == null) return 0;
+
+            int wins = 0;
+            for (int game : matching) if (winnerOf.get(game) == name) wins++;
+            return (double) wins / matching.length;
+        }
+
+        // the limit most common winning lines among the matching games, with how often each won
+        public List<Map.Entry<String, Integer>> mostCommonWinningLines(int limit) {
+            Map<Long, Integer> counts = new HashMap<>();
+            for (int game : this.games()) {
+                if (lineOf.get(game) != NONE) counts.merge((long) configOf.get(game) << 32 | lineOf.get(game), 1, Integer::sum);
+            }
+
+            List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(counts.entrySet());
+            sorted.sort(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+            List<Map.Entry<String, Integer>> lines = new ArrayList<>();
+            for (Map.Entry<Long, Integer> entry : sorted.subList(0, Math.min(limit, sorted.size()))) {
+                int config = (int) (entry.getKey() >>> 32), line = (int) (long) entry.getKey();
+                lines.add(Map.entry(describeConfig(config) + " " + describeLine(config, line), entry.getValue()));
+            }
+            return lines;
+        }
+
+        // HELPER methods
+        private IntList getPostings(Map<Integer, IntList> postings, String name) {
+            Integer number = stringNumbers.get(name);
+            return number == null ? null : postings.get(number);
+        }
+
+        private Query filter(IntList postings) {
+            this.postings.add(postings);
+            return this;
+        }
+
+        // starts from the shortest posting list, so the work depends on the rarest filter and not on the archive size
+        private int[] intersectPostings() {
+            if (this.postings.contains(null)) return new int[0]; // nothing has one of the values
+            List<IntList> sorted = new ArrayList<>(this.postings);
+            sorted.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            int[] games = sorted.get(0).toArray();
+            for (int i = 1; i < sorted.size() && games.length > 0; i++) games = intersect(games, games.length, sorted.get(i).values, sorted.get(i).size);
+            return games;
+        }
+    }
+
+    // growable list of ints, used for the columns and the posting lists
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, this.size * 2);
+            this.values[this.size++] = value;
+        }
+
+        void addAll(IntList list) {
+            for (int i = 0; i < list.size; i++) this.add(list.values[i]);
+        }
+
+        int get(int index) {
+            return this.values[index];
+        }
+
+        void clear() {
+            this.size = 0;
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(this.values, this.size);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = null, winRateTeam = null;
+        int lines = 0, show = 0;
+        List<String[]> filters = new ArrayList<>();
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "file": file = value; break;
+                case "winrate": winRateTeam = value; break;
+                case "lines": lines = Integer.parseInt(value); break;
+                case "show": show = Integer.parseInt(value); break;
+                case "type": case "size": case "winner": case "player": case "won": case "lost": case "minturns": case "maxturns":
+                    filters.add(new String[] { key, value });
+                    break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("Usage: java GameHistoryIndex file=PATH [filters...]");
+
+        long begin = System.nanoTime();
+        GameHistoryIndex index = new GameHistoryIndex(Paths.get(file));
+        System.out.printf("Indexed %,d games in %.3f s%n", index.getGameCount(), (System.nanoTime() - begin) / 1e9);
+
+        begin = System.nanoTime();
+        Query query = index.query();
+        for (String[] filter : filters) {
+            switch (filter[0]) {
+                case "type": query.gameType(filter[1]); break;
+                case "size": {
+                    String[] size = filter[1].toLowerCase().split("x");
+                    query.boardSize(Integer.parseInt(size[0]), Integer.parseInt(size[1]));
+                    break;
+                }
+                case "winner":
+                    if (filter[1].equalsIgnoreCase("tie")) query.tie();
+                    else query.winner(filter[1]);
+                    break;
+                case "player": query.player(filter[1]); break;
+                case "won": query.playerWon(filter[1]); break;
+                case "lost": query.playerLost(filter[1]); break;
+                case "minturns": query.turns(Integer.parseInt(filter[1]), Integer.MAX_VALUE); break;
+                default: query.maxTurns(Integer.parseInt(filter[1])); break;
+            }
+        }
+
+        System.out.printf("Matching games:\t%,d (%.3f ms)%n", query.count(), (System.nanoTime() - begin) / 1e6);
+        if (winRateTeam != null) System.out.printf("Win rate of %s:\t%.2f%%%n", winRateTeam, 100 * query.winRate(winRateTeam));
+        for (Map.Entry<String, Integer> line : query.mostCommonWinningLines(lines)) System.out.println(line.getValue() + "\t" + line.getKey());
+        for (BoardGameHistory history : query.histories(show)) System.out.println(history);
+    }
+}
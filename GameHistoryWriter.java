@@ -0,0 +1,165 @@
+/*
+    Description:
+    Append-only writer for game histories. Each history is encoded as soon as it is recorded and kept in a fixed size
+    buffer, which is written to the end of the file through a FileChannel once a batch of games has been collected or
+    the flush timer goes off, so memory use stays flat no matter how many games are played, earlier sessions are never
+    overwritten, and a crash loses at most the games of one batch. When the file grows past the segment size it is
+    rotated: the full segment is renamed to <file>.1, <file>.2, ... (the lowest number is the oldest) and a new file
+    is started, so no single file grows without bound.
+
+    Class Level Constants:
+    - DEFAULT_SEGMENT_BYTES/DEFAULT_BATCH_SIZE/DEFAULT_FLUSH_MILLIS: the default rotation size, batch size, and timer.
+    - BUFFER_BYTES: the size of the buffer histories are collected in.
+
+    Fields:
+    - path: the active segment file.
+    - segmentBytes: the size a segment may reach before it is rotated (0 never rotates).
+    - batchSize: the number of games collected before they are written.
+    - channel: the open active segment.
+    - buffer: the encoded histories that have not been written yet.
+    - pendingGames: the number of games in the buffer.
+    - gamesWritten: the number of games written since the writer was opened.
+    - flusher: the daemon thread that flushes the buffer on a timer.
+
+    Constructors:
+    - GameHistoryWriter(String file): appends to the file with the default settings.
+    - GameHistoryWriter(Path path, long segmentBytes, int batchSize, long flushMillis): appends with the given settings
+    (a flushMillis of 0 turns the timer off).
+
+    Interface Method Implementations:
+    - append(GameHistory history): adds a game, writing the batch once it is full.
+    - flush(): writes everything collected so far to the file.
+    - close(): flushes, stops the timer, and closes the file.
+*/
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class GameHistoryWriter implements HistoryWriter {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+    public static final long DEFAULT_FLUSH_MILLIS = 1000;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private final Path path;
+    private final long segmentBytes;
+    private final int batchSize;
+    private FileChannel channel;
+    private final ByteBuffer buffer;
+    private int pendingGames;
+    private long gamesWritten;
+    private final ScheduledExecutorService flusher;
+
+    // CONSTRUCTORS
+    public GameHistoryWriter(String file) throws IOException {
+        this(Paths.get(file), DEFAULT_SEGMENT_BYTES, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_MILLIS);
+    }
+
+    public GameHistoryWriter(Path path, long segmentBytes, int batchSize, long flushMillis) throws IOException {
+        if (segmentBytes < 0 || batchSize < 1 || flushMillis < 0) throw new IllegalArgumentException("Invalid history writer settings");
+        this.path = path;
+        this.segmentBytes = segmentBytes;
+        this.batchSize = batchSize;
+        this.buffer = ByteBuffer.allocate(BUFFER_BYTES);
+        this.channel = open(path);
+
+        if (flushMillis == 0) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "history-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // GETTER methods
+    public Path getPath() {
+        return this.path;
+    }
+
+    public synchronized long getGamesWritten() {
+        return this.gamesWritten;
+    }
+
+    // adds a game to the current batch, writing the batch once it is full
+    public synchronized void append(GameHistory history) throws IOException {
+        if (this.channel == null) throw new IllegalStateException("The history writer is closed");
+
+        byte[] record = (history.toString() + "\n").getBytes(StandardCharsets.UTF_8);
+        if (record.length > this.buffer.remaining()) this.writeBuffer();
+
+        if (record.length > this.buffer.capacity()) {
+            this.writeFully(ByteBuffer.wrap(record)); // too big to buffer, write it straight through
+        } else {
+            this.buffer.put(record);
+        }
+
+        this.pendingGames++;
+        if (this.pendingGames >= this.batchSize) this.flush();
+    }
+
+    // writes every collected game to the file and rotates the segment if it is full
+    public synchronized void flush() throws IOException {
+        if (this.channel == null) return;
+        this.writeBuffer();
+        this.gamesWritten += this.pendingGames;
+        this.pendingGames = 0;
+
+        if (this.segmentBytes > 0 && this.channel.size() >= this.segmentBytes) this.rotate();
+    }
+
+    public synchronized void close() throws IOException {
+        if (this.channel == null) return;
+        if (this.flusher != null) this.flusher.shutdownNow();
+        this.flush();
+        this.channel.close();
+        this.channel = null;
+    }
+
+    // HELPER methods
+    private void writeBuffer() throws IOException {
+        this.buffer.flip();
+        this.writeFully(this.buffer);
+        this.buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) this.channel.write(data);
+    }
+
+    // renames the full segment to the next free numbered name and starts a new one
+    private void rotate() throws IOException {
+        this.channel.close();
+
+        int number = 1;
+        while (Files.exists(this.path.resolveSibling(this.path.getFileName() + "." + number))) number++;
+        Files.move(this.path, this.path.resolveSibling(this.path.getFileName() + "." + number));
+
+        this.channel = open(this.path);
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // stops the timer; the next append or flush reports the problem again
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
@@ -5,9 +5,12 @@
 
     Instance Variables:
     - scanner: A Scanner object used for reading user input.
+    - out: The stream the prompts are printed to.
+    - moveSource: Console move source sharing the scanner, handed to the initialized game so only one Scanner reads System.in.
 
     Constructors:
     - public GameInitializer(): Initializes the scanner for reading input from the console.
+    - public GameInitializer(Scanner scanner, PrintStream out): Reads from and prompts on the given streams (e.g. a GameServer connection).
 
     Important Methods:
     - initializeBoardGame(): Prompts the user to select a game type (Tic Tac Toe, Order and Chaos, or Super Tic Tac Toe).
@@ -16,17 +19,27 @@
 */
 
 
+import java.io.PrintStream;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
 
 public class GameInitializer {
     private Scanner scanner;
+    private PrintStream out;
+    private ConsoleMoveSource moveSource;
 
     public GameInitializer() {
-        this.scanner = new Scanner(System.in);
+        this(new Scanner(System.in), System.out);
+    }
+
+    public GameInitializer(Scanner scanner, PrintStream out) {
+        this.scanner = scanner;
+        this.out = out;
+        this.moveSource = new ConsoleMoveSource(this.scanner, this.out);
     }
 
     public BoardGame initializeBoardGame() {
-        System.out.print("Please enter game to play (T/O/S): \t");
+        this.out.print("Please enter game to play (T/O/S): \t");
 
         String input;
         char inputChar;
@@ -36,16 +49,19 @@ public class GameInitializer {
                 input = scanner.next();
                 inputChar = Character.toUpperCase(input.charAt(0));
                 if (inputChar != 'O' && inputChar != 'T' && inputChar != 'S') throw new IllegalArgumentException();
+                this.scanner.nextLine(); // the rest of the line, so the game's first question reads a fresh line
                 break;
+            } catch (NoSuchElementException e) {
+                throw e; // the input was closed, so no valid input will ever come
             } catch (Exception e) {
-                System.out.print("Invalid input. Please enter game to play (T/O): \t");
+                this.out.print("Invalid input. Please enter game to play (T/O): \t");
             }
         }
 
-        if (inputChar == 'T') return new TicTacToe();
+        if (inputChar == 'T') return new TicTacToe(this.moveSource);
         
-        else if (inputChar == 'O') return new OrderAndChaos();
+        else if (inputChar == 'O') return new OrderAndChaos(this.moveSource);
         
-        return new SuperTicTacToe();
+        return new SuperTicTacToe(this.moveSource);
     }
 }
\ No newline at end of file
@@ -0,0 +1,244 @@
+/*
+    Description:
+    Random access reader for files written by GameRecordWriter. The data file is memory mapped read only in pieces of
+    1 GB which overlap by the largest record, so every record lies inside one piece however large the file grows, and
+    the offset index is mapped as well: finding game N is one read of the index and decoding one record, with nothing
+    loaded onto the heap but the games asked for. Decoded games are rebuilt as BoardGameHistory objects, so they print
+    in the data.txt format. The files are only ever opened read only, so a reader can be opened while a GameRecordWriter
+    is appending: it sees the games whose offset and whole record were written when it was opened and ignores anything
+    after them. Repairing a file (rebuilding the index, cutting off a partly written record) is left to the writer.
+
+    Usage:
+    java GameRecordReader file=PATH [game=N] [count=N]
+    - prints the number of games in the file, then count games (default 1) starting at game N (default 0) as text.
+
+    Class Level Constants:
+    - PIECE_BYTES: the size of each mapped piece of the data file (not counting the overlap).
+
+    Fields:
+    - path: the data file.
+    - pieces: the mapped pieces of the data file, piece i starts at i * PIECE_BYTES.
+    - index: the mapped offset index.
+    - strings: the string table records refer to names by.
+    - gameCount: the number of games in the file.
+
+    Constructors:
+    - GameRecordReader(Path path): maps the data and index files read only and loads the string table.
+
+    Important Methods:
+    - getGameCount(): the number of games in the file.
+    - getOffset(long game): where a game's record starts in the data file.
+    - getGame(long game): decodes a game (numbered from 0 in the order they were written).
+*/
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameRecordReader {
+    private static final long PIECE_BYTES = 1L << 30;
+
+    private final Path path;
+    private final MappedByteBuffer[] pieces;
+    private final MappedByteBuffer index;
+    private final String[] strings;
+    private final long gameCount;
+
+    // CONSTRUCTOR
+    // opens the files read only, so an archive can be read while a GameRecordWriter is still appending to it
+    public GameRecordReader(Path path) throws IOException {
+        if (!Files.exists(path)) throw new IOException(path + " does not exist");
+        this.path = path;
+
+        try (FileChannel indexFile = FileChannel.open(GameRecordWriter.getIndexPath(path), StandardOpenOption.READ);
+             FileChannel data = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the index size is read before the data size: records are written before their offsets, so every
+            // complete offset in the index points at a record which is already in the data
+            long indexSize = indexFile.size();
+            if (indexSize < GameRecordWriter.INDEX_HEADER_SIZE) throw new IOException(path + " has no index, append to it with a GameRecordWriter to rebuild it");
+            long count = (indexSize - GameRecordWriter.INDEX_HEADER_SIZE) / 8; // a partly written last offset is left out
+            if (count > (Integer.MAX_VALUE - GameRecordWriter.INDEX_HEADER_SIZE) / 8) throw new IOException(path + " has too many games to index");
+            this.index = indexFile.map(FileChannel.MapMode.READ_ONLY, 0, GameRecordWriter.INDEX_HEADER_SIZE + count * 8); // the mappings outlive the channels
+            if (this.index.getInt(0) != GameRecordWriter.INDEX_MAGIC) throw new IOException(path + " has an invalid index");
+
+            long size = data.size();
+            ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_SIZE);
+            if (size < GameRecordWriter.HEADER_SIZE) throw new IOException(path + " is not a game record file");
+            readFully(data, header, 0);
+            if (header.getInt(0) != GameRecordWriter.MAGIC) throw new IOException(path + " is not a game record file");
+            if (header.get(4) != GameRecordWriter.VERSION) throw new IOException(path + " has unsupported version " + header.get(4));
+
+            // only games whose whole record is in the data are read, anything after them is still being written
+            while (count > 0 && !isComplete(data, size, this.index.getLong((int) (GameRecordWriter.INDEX_HEADER_SIZE + (count - 1) * 8)))) count--;
+            this.gameCount = count;
+
+            int pieceCount = (int) ((size + PIECE_BYTES - 1) / PIECE_BYTES);
+            this.pieces = new MappedByteBuffer[pieceCount];
+            for (int i = 0; i < pieceCount; i++) {
+                long start = i * PIECE_BYTES;
+                long length = Math.min(size - start, PIECE_BYTES + GameRecordWriter.MAX_RECORD_BYTES + 8);
+                this.pieces[i] = data.map(FileChannel.MapMode.READ_ONLY, start, length);
+            }
+        }
+
+        // read last, so it holds every string the records above refer to
+        this.strings = readStrings(GameRecordWriter.getStringsPath(path)).toArray(new String[0]);
+    }
+
+    // GETTER methods
+    public Path getPath() {
+        return this.path;
+    }
+
+    public long getGameCount() {
+        return this.gameCount;
+    }
+
+    public long getOffset(long game) {
+        if (game < 0 || game >= this.gameCount) throw new IllegalArgumentException("No game " + game + " in " + this.path);
+        return this.index.getLong((int) (GameRecordWriter.INDEX_HEADER_SIZE + game * 8));
+    }
+
+    // decodes one game, reading only its own record
+    public BoardGameHistory getGame(long game) {
+        long offset = this.getOffset(game);
+        ByteBuffer record = this.pieces[(int) (offset / PIECE_BYTES)].duplicate(); // own position, so readers can share the mapping
+        record.position((int) (offset % PIECE_BYTES));
+        getVarint(record); // the length is only needed to skip records
+
+        int flags = record.get();
+        int gameNumber = getVarint(record);
+        String gameType = this.strings[getVarint(record)];
+        String gameID = (flags & GameRecordWriter.FLAG_GAME_ID) != 0 ? this.strings[getVarint(record)] : null;
+        int rows = getVarint(record), columns = getVarint(record);
+        int winLength = getVarint(record), totalTurns = getVarint(record);
+
+        Team[] teams = new Team[getVarint(record)];
+        int playerCount = 0;
+        for (int t = 0; t < teams.length; t++) {
+            int number = getVarint(record);
+            String name = this.strings[getVarint(record)];
+            Player[] players = new Player[getVarint(record)];
+            for (int p = 0; p < players.length; p++) players[p] = new Player(this.strings[getVarint(record)]);
+            teams[t] = new Team(players, number, name);
+            playerCount += players.length;
+        }
+        Team winner = (flags & GameRecordWriter.FLAG_WINNER) != 0 ? teams[getVarint(record)] : null;
+
+        char[] symbols = new char[getVarint(record)];
+        for (int i = 0; i < symbols.length; i++) symbols[i] = (char) getVarint(record);
+
+        // player ids count the players of every team in order
+        Team[] playerTeams = new Team[playerCount];
+        Player[] players = new Player[playerCount];
+        for (int t = 0, id = 0; t < teams.length; t++) {
+            for (Player player : teams[t].getTeam()) {
+                playerTeams[id] = teams[t];
+                players[id++] = player;
+            }
+        }
+
+        MoveLog log = new MoveLog(rows, columns);
+        boolean consecutive = (flags & GameRecordWriter.FLAG_CONSECUTIVE_TURNS) != 0;
+        int moveCount = getVarint(record), turn = -1;
+        for (int i = 0; i < moveCount; i++) {
+            turn += consecutive ? 1 : getVarint(record) + 1;
+            int cell = getVarint(record);
+            int symbolAndPlayer = getVarint(record), id = symbolAndPlayer % playerCount;
+            log.add(turn, cell / columns, cell % columns, symbols[symbolAndPlayer / playerCount], playerTeams[id], players[id]);
+        }
+
+        return new BoardGameHistory(winner, gameType, log, totalTurns, gameNumber, gameID, (flags & GameRecordWriter.FLAG_ENDED_EARLY) != 0, winLength, teams);
+    }
+
+    // HELPER methods
+    // whether the record at the offset ends inside the data
+    private static boolean isComplete(FileChannel data, long size, long offset) throws IOException {
+        if (offset < GameRecordWriter.HEADER_SIZE || offset >= size) return false;
+
+        ByteBuffer length = ByteBuffer.allocate((int) Math.min(5, size - offset));
+        readFully(data, length, offset);
+        length.flip();
+        long recordLength = 0;
+        for (int shift = 0; length.hasRemaining(); shift += 7) {
+            byte b = length.get();
+            recordLength |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return offset + length.position() + recordLength <= size;
+        }
+        return false; // the length itself was cut off
+    }
+
+    // reads every complete string of a string table, leaving out a partly written last string
+    private static List<String> readStrings(Path path) throws IOException {
+        List<String> strings = new ArrayList<>();
+
+        try (FileChannel table = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer contents = ByteBuffer.allocate((int) table.size());
+            readFully(table, contents, 0);
+            contents.flip();
+            if (contents.remaining() < 4 || contents.getInt() != GameRecordWriter.STRINGS_MAGIC) throw new IOException(path + " is not a game record string table");
+
+            try {
+                while (contents.hasRemaining()) strings.add(getString(contents));
+            } catch (RuntimeException e) {
+                // the last string is still being written
+            }
+        }
+        return strings;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException();
+            position += read;
+        }
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getVarint(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = null;
+        long first = 0, count = 1;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "file": file = value; break;
+                case "game": first = Long.parseLong(value); break;
+                case "count": count = Long.parseLong(value); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("Usage: java GameRecordReader file=PATH [game=N] [count=N]");
+
+        GameRecordReader reader = new GameRecordReader(Paths.get(file));
+        System.out.println(reader.getGameCount() + " games in " + file);
+        for (long game = first; game < Math.min(first + count, reader.getGameCount()); game++) System.out.println(reader.getGame(game));
+    }
+}
@@ -0,0 +1,510 @@
+/*
+    Description:
+    Writes finished board games to a compact, versioned binary file (the game record format) together with an offset
+    index, so archives of millions of games take a fraction of the space of data.txt and any game can be found again
+    without reading the ones before it (see GameRecordReader). Names (game types, game IDs, teams, and players) are
+    written once to a string table and records refer to them by number, and a typical TicTacToe move takes 2 bytes.
+    Records are collected in a buffer and appended to the file through a FileChannel a batch at a time, after any new
+    strings and before their offsets, so nothing ever refers to data which is not in the files yet. Opening an existing
+    file appends to it; if the last run stopped in the middle of a batch, the index is rebuilt from the records and a
+    partly written record is cut off first.
+
+    File Format (all numbers are unsigned LEB128 varints unless noted, "string" is the number of a string in the table):
+    - data file: MAGIC (4 byte int), VERSION (1 byte), 3 reserved bytes, then one record after another.
+    - record: its length, flags (1 byte: FLAG_WINNER, FLAG_ENDED_EARLY, FLAG_GAME_ID, FLAG_CONSECUTIVE_TURNS),
+    game number, game type string, [game ID string], rows, columns, win length, turns taken, team count, per team
+    (number, name string, player count, player name strings), [index of the winning team], symbol count, symbols,
+    move count, per move ([turns since the last move], packed cell, symbol index * player count + player id).
+    A player id numbers the players of all teams in order, so the team of a move follows from its player. The turns
+    since the last move are left out when the moves were played on turns 0, 1, 2, ... (FLAG_CONSECUTIVE_TURNS).
+    - index file (<data file>.idx): INDEX_MAGIC (4 byte int), 4 reserved bytes, then the 8 byte offset of every record.
+    - string table (<data file>.str): STRINGS_MAGIC (4 byte int), then every string as a varint length and UTF-8 bytes.
+
+    Class Level Constants:
+    - MAGIC/VERSION/HEADER_SIZE: identify the data file and where the first record starts.
+    - INDEX_MAGIC/INDEX_HEADER_SIZE: identify the index file and where the first offset starts.
+    - STRINGS_MAGIC: identifies the string table.
+    - FLAG_WINNER/FLAG_ENDED_EARLY/FLAG_GAME_ID/FLAG_CONSECUTIVE_TURNS: the bits of a record's flags.
+    - MAX_RECORD_BYTES: the largest record allowed, which lets the reader map large files in overlapping pieces.
+    - DEFAULT_BATCH_SIZE: the number of games collected before they are written.
+
+    Fields:
+    - path/indexPath/stringsPath: the data, index, and string table files.
+    - data/index/stringTable: the open files.
+    - strings: the number of every string in the table.
+    - newStrings: strings added to the table which have not been written yet.
+    - batchSize: the number of games collected before they are written.
+    - buffer/indexBuffer: the records and offsets which have not been written yet.
+    - record: the record being encoded.
+    - offset: where the next record will start in the data file.
+    - pendingGames/gamesWritten: the games in the buffer and the games in the file.
+    - recoveredBytes: the bytes of a partly written record cut off when the file was opened.
+
+    Constructors:
+    - GameRecordWriter(Path path): appends to the file with the default batch size.
+    - GameRecordWriter(Path path, int batchSize): appends, writing every batchSize games.
+
+    Interface Method Implementations:
+    - append(GameHistory history): encodes a BoardGameHistory, writing the batch once it is full.
+    - flush(): writes every collected record and offset.
+    - close(): flushes and closes both files.
+
+    Important Methods:
+    - getIndexPath(Path path)/getStringsPath(Path path): the index and string table files of a data file.
+    - getRecoveredBytes(): how much of a partly written last record was cut off when the file was opened (0 if none),
+    for the caller to report.
+    - recover(Path path): creates the files if needed, checks the header, and makes the index match the records,
+    cutting off a partly written last record. Returns the number of games. Only the writer changes the files, readers
+    open them read only.
+    - loadStrings(Path path): reads a string table, creating it if needed and cutting off a partly written last string.
+*/
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GameRecordWriter implements HistoryWriter {
+    public static final int MAGIC = 0x47524331; // "GRC1"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int INDEX_MAGIC = 0x47524931; // "GRI1"
+    public static final int INDEX_HEADER_SIZE = 8;
+    public static final int STRINGS_MAGIC = 0x47525331; // "GRS1"
+    public static final int FLAG_WINNER = 1, FLAG_ENDED_EARLY = 2, FLAG_GAME_ID = 4, FLAG_CONSECUTIVE_TURNS = 8;
+    public static final int MAX_RECORD_BYTES = 1 << 20;
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final Path path;
+    private final Path indexPath;
+    private final Path stringsPath;
+    private FileChannel data;
+    private FileChannel index;
+    private FileChannel stringTable;
+    private final Map<String, Integer> strings;
+    private final RecordBuffer newStrings;
+    private final int batchSize;
+    private ByteBuffer buffer;
+    private final ByteBuffer indexBuffer;
+    private final RecordBuffer record;
+    private long offset;
+    private int pendingGames;
+    private long gamesWritten;
+    private long recoveredBytes;
+
+    // CONSTRUCTORS
+    public GameRecordWriter(Path path) throws IOException {
+        this(path, DEFAULT_BATCH_SIZE);
+    }
+
+    public GameRecordWriter(Path path, int batchSize) throws IOException {
+        if (batchSize < 1) throw new IllegalArgumentException("The batch size must be positive");
+        this.path = path;
+        this.indexPath = getIndexPath(path);
+        this.stringsPath = getStringsPath(path);
+        this.batchSize = batchSize;
+        this.buffer = ByteBuffer.allocate(1 << 16);
+        this.indexBuffer = ByteBuffer.allocate(batchSize * 8);
+        this.record = new RecordBuffer();
+        this.newStrings = new RecordBuffer();
+
+        this.gamesWritten = this.recover(path); // checks the header and makes the index match the records
+        this.strings = new HashMap<>();
+        for (String value : loadStrings(this.stringsPath)) this.strings.put(value, this.strings.size());
+
+        this.data = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.index = FileChannel.open(this.indexPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.stringTable = FileChannel.open(this.stringsPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.offset = this.data.size();
+    }
+
+    // GETTER methods
+    public Path getPath() {
+        return this.path;
+    }
+
+    public synchronized long getGamesWritten() {
+        return this.gamesWritten;
+    }
+
+    public long getRecoveredBytes() {
+        return this.recoveredBytes;
+    }
+
+    public static Path getIndexPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".idx");
+    }
+
+    public static Path getStringsPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".str");
+    }
+
+    // encodes a game into the current batch, writing the batch once it is full
+    public synchronized void append(GameHistory history) throws IOException {
+        if (this.data == null) throw new IllegalStateException("The game record writer is closed");
+        if (!(history instanceof BoardGameHistory)) throw new IllegalArgumentException("Only board games can be written as game records");
+
+        this.record.reset();
+        this.encode((BoardGameHistory) history);
+        int length = this.record.size;
+        if (length > MAX_RECORD_BYTES) throw new IllegalArgumentException("Game record of " + length + " bytes is too large");
+
+        int needed = varintSize(length) + length;
+        if (needed > this.buffer.remaining()) {
+            this.writeBuffer();
+            if (needed > this.buffer.capacity()) this.buffer = ByteBuffer.allocate(Integer.highestOneBit(needed) << 1);
+        }
+
+        putVarint(this.buffer, length);
+        this.buffer.put(this.record.bytes, 0, length);
+        this.indexBuffer.putLong(this.offset);
+        this.offset += needed;
+
+        this.pendingGames++;
+        if (this.pendingGames >= this.batchSize) this.flush();
+    }
+
+    // the records are written before their offsets, so the index never points past the end of the data
+    public synchronized void flush() throws IOException {
+        if (this.data == null) return;
+        this.writeBuffer();
+
+        this.indexBuffer.flip();
+        while (this.indexBuffer.hasRemaining()) this.index.write(this.indexBuffer);
+        this.indexBuffer.clear();
+
+        this.gamesWritten += this.pendingGames;
+        this.pendingGames = 0;
+    }
+
+    public synchronized void close() throws IOException {
+        if (this.data == null) return;
+        this.flush();
+        this.data.close();
+        this.index.close();
+        this.stringTable.close();
+        this.data = null;
+        this.index = null;
+        this.stringTable = null;
+    }
+
+    // creates the files if needed, checks the data header, and rebuilds the index if it does not match the records
+    private long recover(Path path) throws IOException {
+        Path indexPath = GameRecordWriter.getIndexPath(path);
+
+        try (FileChannel data = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (data.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_SIZE);
+                header.putInt(GameRecordWriter.MAGIC).put((byte) GameRecordWriter.VERSION).rewind(); // the reserved bytes stay 0
+                writeFully(data, header, 0);
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(GameRecordWriter.HEADER_SIZE);
+            readFully(data, header, 0);
+            if (header.getInt(0) != GameRecordWriter.MAGIC) throw new IOException(path + " is not a game record file");
+            if (header.get(4) != GameRecordWriter.VERSION) throw new IOException(path + " has unsupported version " + header.get(4));
+
+            if (isIndexValid(data, index)) return (index.size() - GameRecordWriter.INDEX_HEADER_SIZE) / 8;
+            return this.rebuildIndex(data, index);
+        }
+    }
+
+    // reads every string of a string table, creating it if needed and cutting off a partly written last string
+    private static List<String> loadStrings(Path path) throws IOException {
+        List<String> strings = new ArrayList<>();
+
+        try (FileChannel table = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            if (table.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(4);
+                header.putInt(GameRecordWriter.STRINGS_MAGIC).flip();
+                writeFully(table, header, 0);
+            }
+
+            ByteBuffer contents = ByteBuffer.allocate((int) table.size());
+            readFully(table, contents, 0);
+            contents.flip();
+            if (contents.getInt() != GameRecordWriter.STRINGS_MAGIC) throw new IOException(path + " is not a game record string table");
+
+            int end = contents.position();
+            try {
+                while (contents.hasRemaining()) {
+                    strings.add(getString(contents));
+                    end = contents.position();
+                }
+            } catch (RuntimeException e) {
+                table.truncate(end); // the last string was only partly written
+            }
+        }
+        return strings;
+    }
+
+    // HELPER methods
+    private void encode(BoardGameHistory history) {
+        MoveLog log = history.getMoveLog();
+        List<Team> teams = getTeams(history);
+        List<List<Player>> players = new ArrayList<>();
+        for (Team team : teams) players.add(new ArrayList<>(Arrays.asList(team.getTeam())));
+
+        // look the players up first, any player not listed on its team is added to it
+        int count = log.size();
+        int[] playerIds = new int[count];
+        for (int i = 0; i < count; i++) playerIds[i] = findPlayer(teams, players, log.getTeam(i), log.getPlayer(i));
+
+        // the distinct symbols, so a move's symbol and player fit in one number
+        StringBuilder symbols = new StringBuilder();
+        boolean consecutive = true;
+        for (int i = 0; i < count; i++) {
+            if (symbols.indexOf(String.valueOf(log.getSymbol(i))) < 0) symbols.append(log.getSymbol(i));
+            if (log.getTurn(i) != i) consecutive = false;
+        }
+        int playerCount = 0;
+        for (List<Player> teamPlayers : players) playerCount += teamPlayers.size();
+
+        int flags = (history.getWinner() != null ? FLAG_WINNER : 0) | (history.getEndedEarly() ? FLAG_ENDED_EARLY : 0)
+            | (history.getGameID() != null ? FLAG_GAME_ID : 0) | (consecutive ? FLAG_CONSECUTIVE_TURNS : 0);
+        this.record.put(flags);
+        this.record.putVarint(history.getGameNumber());
+        this.record.putVarint(this.getStringNumber(history.getGameType()));
+        if (history.getGameID() != null) this.record.putVarint(this.getStringNumber(history.getGameID()));
+        this.record.putVarint(log.getRows());
+        this.record.putVarint(log.getColumns());
+        this.record.putVarint(history.getWinLength());
+        this.record.putVarint(history.getTotalTurns());
+
+        this.record.putVarint(teams.size());
+        for (int t = 0; t < teams.size(); t++) {
+            this.record.putVarint(teams.get(t).getNumber());
+            this.record.putVarint(this.getStringNumber(teams.get(t).getName()));
+            this.record.putVarint(players.get(t).size());
+            for (Player player : players.get(t)) this.record.putVarint(this.getStringNumber(player.getName()));
+        }
+        if (history.getWinner() != null) this.record.putVarint(teams.indexOf(history.getWinner()));
+
+        this.record.putVarint(symbols.length());
+        for (int i = 0; i < symbols.length(); i++) this.record.putVarint(symbols.charAt(i));
+
+        this.record.putVarint(count);
+        int lastTurn = -1;
+        for (int i = 0; i < count; i++) {
+            if (!consecutive) this.record.putVarint(log.getTurn(i) - lastTurn - 1);
+            this.record.putVarint(log.getCell(i));
+            int symbol = symbols.indexOf(String.valueOf(log.getSymbol(i)));
+            this.record.putVarint(symbol * playerCount + playerIds[i]);
+            lastTurn = log.getTurn(i);
+        }
+    }
+
+    // the number of a string in the table, adding it if it is new
+    private int getStringNumber(String value) {
+        Integer number = this.strings.get(value);
+        if (number != null) return number;
+
+        number = this.strings.size();
+        this.strings.put(value, number);
+        this.newStrings.putString(value);
+        return number;
+    }
+
+    // the teams of the game, taken from the moves and the winner if the history does not list them
+    private static List<Team> getTeams(BoardGameHistory history) {
+        List<Team> teams = new ArrayList<>();
+        if (history.getTeams() != null) teams.addAll(Arrays.asList(history.getTeams()));
+
+        for (Team team : history.getMoveLog().getTeams()) if (!teams.contains(team)) teams.add(team);
+        if (history.getWinner() != null && !teams.contains(history.getWinner())) teams.add(history.getWinner());
+        return teams;
+    }
+
+    // the id of a player counting the players of every team in order
+    private static int findPlayer(List<Team> teams, List<List<Player>> players, Team team, Player player) {
+        int teamIndex = teams.indexOf(team);
+        List<Player> teamPlayers = players.get(teamIndex);
+        int position = teamPlayers.indexOf(player);
+        if (position < 0) {
+            teamPlayers.add(player);
+            position = teamPlayers.size() - 1;
+        }
+
+        int id = position;
+        for (int t = 0; t < teamIndex; t++) id += players.get(t).size();
+        return id;
+    }
+
+    // new strings are always written before the records which use them
+    private void writeBuffer() throws IOException {
+        ByteBuffer pending = ByteBuffer.wrap(this.newStrings.bytes, 0, this.newStrings.size);
+        while (pending.hasRemaining()) this.stringTable.write(pending);
+        this.newStrings.reset();
+
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) this.data.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    // the index is valid if its last offset is the start of a record which ends exactly at the end of the data
+    private static boolean isIndexValid(FileChannel data, FileChannel index) throws IOException {
+        long size = index.size();
+        if (size < GameRecordWriter.INDEX_HEADER_SIZE || (size - GameRecordWriter.INDEX_HEADER_SIZE) % 8 != 0) return false;
+
+        ByteBuffer header = ByteBuffer.allocate(4);
+        readFully(index, header, 0);
+        if (header.getInt(0) != GameRecordWriter.INDEX_MAGIC) return false;
+        if (size == GameRecordWriter.INDEX_HEADER_SIZE) return data.size() == GameRecordWriter.HEADER_SIZE;
+
+        ByteBuffer last = ByteBuffer.allocate(8);
+        readFully(index, last, size - 8);
+        long offset = last.getLong(0);
+        if (offset < GameRecordWriter.HEADER_SIZE || offset >= data.size()) return false;
+
+        ByteBuffer length = ByteBuffer.allocate((int) Math.min(5, data.size() - offset));
+        readFully(data, length, offset);
+        length.flip();
+        try {
+            long end = offset + getVarintSize(length) + getVarint(length);
+            return end == data.size();
+        } catch (RuntimeException e) {
+            return false; // the length itself was cut off
+        }
+    }
+
+    // scans the record lengths into a new index and cuts off a partly written last record, keeping its size for getRecoveredBytes
+    private long rebuildIndex(FileChannel data, FileChannel index) throws IOException {
+        index.truncate(0);
+        ByteBuffer offsets = ByteBuffer.allocate(1 << 16);
+        offsets.putInt(GameRecordWriter.INDEX_MAGIC).putInt(0);
+
+        long offset = GameRecordWriter.HEADER_SIZE, count = 0, indexPosition = 0;
+        data.position(offset);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(data), 1 << 16));
+
+        while (true) {
+            long length;
+            int lengthSize;
+            try {
+                int first = in.read();
+                if (first < 0) break;
+                length = first & 0x7F;
+                lengthSize = 1;
+                for (int b = first; (b & 0x80) != 0; lengthSize++) {
+                    b = in.readUnsignedByte();
+                    length |= (long) (b & 0x7F) << (7 * lengthSize);
+                }
+                in.skipNBytes(length);
+            } catch (EOFException e) {
+                break; // partly written record
+            }
+
+            if (offsets.remaining() < 8) indexPosition += flushOffsets(index, offsets, indexPosition);
+            offsets.putLong(offset);
+            offset += lengthSize + length;
+            count++;
+        }
+        flushOffsets(index, offsets, indexPosition);
+
+        if (offset < data.size()) {
+            this.recoveredBytes = data.size() - offset;
+            data.truncate(offset);
+        }
+        return count;
+    }
+
+    private static long flushOffsets(FileChannel index, ByteBuffer offsets, long position) throws IOException {
+        offsets.flip();
+        long written = offsets.remaining();
+        writeFully(index, offsets, position);
+        offsets.clear();
+        return written;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException();
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) position += channel.write(buffer, position);
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    private static int getVarintSize(ByteBuffer buffer) {
+        int size = 1;
+        while (buffer.get(size - 1) < 0) size++;
+        return size;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getVarint(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    // growable byte array a record is encoded into before its length is known
+    private static class RecordBuffer {
+        private byte[] bytes = new byte[256];
+        private int size;
+
+        void reset() {
+            this.size = 0;
+        }
+
+        void put(int value) {
+            if (this.size == this.bytes.length) this.bytes = Arrays.copyOf(this.bytes, this.bytes.length * 2);
+            this.bytes[this.size++] = (byte) value;
+        }
+
+        void putVarint(int value) {
+            if (value < 0) throw new IllegalArgumentException("Game records cannot hold negative numbers");
+            while ((value & ~0x7F) != 0) {
+                this.put((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            this.put(value);
+        }
+
+        void putString(String value) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            this.putVarint(encoded.length);
+            for (byte b : encoded) this.put(b);
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+    Description:
+    Command line entry point (next to Main) which hosts many games at once over a local TCP line protocol. Every
+    connection is a session playing one TicTacToe, OrderAndChaos, or SuperTicTacToe game, with the same questions and
+    output as Main at the console: the session reads the lines sent by the client through a ConsoleMoveSource over the
+    socket, and the game prints its boards and messages to the socket (BoardGame.setOutput). A session starts by
+    sending "SESSION <id>", and ends when the players are done ("GOODBYE"), the client disconnects, or nothing is sent
+    for the idle timeout. A session whose game fails is sent "ERROR <message>" and logged by the server before it is
+    closed. Any client which sends and reads lines works, e.g. nc localhost 4000.
+
+    Each session runs on its own thread and blocks on its socket as the console game blocks on System.in. When the JVM
+    has virtual threads (Java 21 and later) every session gets a virtual thread, so thousands of waiting sessions cost
+    little more than their games; on older JVMs the sessions run on a cached pool of platform threads instead. The
+    running sessions are kept in a registry keyed by their game id, which is also the id of every game they record (a
+    Super Tic Tac Toe board is recorded as <id>/<board>, e.g. 12/E).
+    Finished games are appended to one shared history file and their results to one shared player stats store, both
+    of which are safe to use from many sessions at once.
+
+    Usage:
+    java GameServer [port=N] [max=N] [timeout=SECONDS] [history=PATH] [format=text|binary] [stats=PATH]
+    - max: the most sessions played at once, further connections are told the server is full and closed.
+    - timeout: how long a session waits for a line before it is ended.
+    - history/format: where finished games are appended, as data.txt text or binary game records (none by default).
+    - stats: the player stats store every result is added to.
+
+    Class Level Constants:
+    - DEFAULT_PORT/DEFAULT_MAX_SESSIONS/DEFAULT_TIMEOUT_SECONDS/DEFAULT_STATS_FILE: the defaults of the arguments above.
+
+    Fields:
+    - port/maxSessions/timeoutMillis: the settings of the server.
+    - historyWriter/playerStats: the history file and player stats store shared by every session (or null).
+    - sessions: the running sessions by game id.
+    - nextSessionID: the number of the next session.
+    - executor: runs the sessions, on virtual threads when the JVM has them.
+    - serverSocket: the socket connections are accepted on, null until the server is started.
+
+    Constructors:
+    - GameServer(int port, int maxSessions, int timeoutMillis, HistoryWriter historyWriter, PlayerStatsStore playerStats): a server
+    which is not listening yet.
+
+    Important Methods:
+    - serve(): accepts connections and starts a session for each, until the server is closed.
+    - getSession(String id)/getSessionCount(): the running session with a game id, and how many are running.
+    - isVirtualThreads(): whether the sessions run on virtual threads.
+    - close(): stops accepting connections, ends every session, and closes the history file and stats store.
+    - main(String[] args): parses the arguments and serves until the process is stopped.
+*/
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 4000;
+    public static final int DEFAULT_MAX_SESSIONS = 10000;
+    public static final int DEFAULT_TIMEOUT_SECONDS = 600;
+    public static final String DEFAULT_STATS_FILE = "players.dat";
+
+    private final int port;
+    private final int maxSessions;
+    private final int timeoutMillis;
+    private final HistoryWriter historyWriter;
+    private final PlayerStatsStore playerStats;
+    private final ConcurrentHashMap<String, Session> sessions;
+    private final AtomicLong nextSessionID;
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private volatile ServerSocket serverSocket;
+
+    // CONSTRUCTOR
+    public GameServer(int port, int maxSessions, int timeoutMillis, HistoryWriter historyWriter, PlayerStatsStore playerStats) {
+        if (port < 0 || port > 65535) throw new IllegalArgumentException("Invalid port " + port);
+        if (maxSessions < 1 || timeoutMillis < 0) throw new IllegalArgumentException("Invalid server settings");
+        this.port = port;
+        this.maxSessions = maxSessions;
+        this.timeoutMillis = timeoutMillis;
+        this.historyWriter = historyWriter;
+        this.playerStats = playerStats;
+        this.sessions = new ConcurrentHashMap<>();
+        this.nextSessionID = new AtomicLong(1);
+
+        ExecutorService virtual = createVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "session");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // GETTER methods
+    public int getPort() {
+        ServerSocket socket = this.serverSocket;
+        return socket != null ? socket.getLocalPort() : this.port;
+    }
+
+    public Session getSession(String id) {
+        return this.sessions.get(id);
+    }
+
+    public int getSessionCount() {
+        return this.sessions.size();
+    }
+
+    public boolean isVirtualThreads() {
+        return this.virtualThreads;
+    }
+
+    // SERVER LOOP: every connection becomes a session on its own thread, the loop only accepts
+    public void serve() throws IOException {
+        this.serverSocket = new ServerSocket(this.port, 1024, InetAddress.getLoopbackAddress()); // local clients only
+        System.out.println("Serving games on port " + this.getPort() + (this.virtualThreads ? " (virtual threads)" : " (platform threads)"));
+
+        while (!this.serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (SocketException e) {
+                if (this.serverSocket.isClosed()) break; // closed by close()
+                throw e;
+            }
+            this.startSession(socket);
+        }
+    }
+
+    public void close() throws IOException {
+        if (this.serverSocket != null) this.serverSocket.close();
+        for (Session session : this.sessions.values()) session.end(); // a session blocked reading its socket wakes up and finishes
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (this.historyWriter != null) this.historyWriter.close();
+        if (this.playerStats != null) this.playerStats.close();
+    }
+
+    // HELPER methods
+    private void startSession(Socket socket) throws IOException {
+        if (this.sessions.size() >= this.maxSessions) {
+            try (socket) {
+                socket.getOutputStream().write("SERVER FULL\n".getBytes(StandardCharsets.UTF_8));
+            }
+            return;
+        }
+
+        Session session = new Session(Long.toString(this.nextSessionID.getAndIncrement()), socket);
+        this.sessions.put(session.id, session);
+        try {
+            this.executor.execute(session);
+        } catch (RejectedExecutionException e) {
+            this.sessions.remove(session.id); // the server is closing
+            socket.close();
+        }
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() when the JVM has it, looked up by name so the server also builds on Java 17
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // not there, or a preview feature which is not enabled
+        }
+    }
+
+    // one connection playing one game, reading its answers and moves from the socket and printing the game to it
+    public class Session implements Runnable {
+        private final String id;
+        private final Socket socket;
+        private volatile BoardGame game;
+        private volatile boolean ended;
+
+        private Session(String id, Socket socket) {
+            this.id = id;
+            this.socket = socket;
+        }
+
+        public String getID() {
+            return this.id;
+        }
+
+        public BoardGame getGame() {
+            return this.game;
+        }
+
+        public void run() {
+            PrintStream out = null;
+            try {
+                this.socket.setSoTimeout(timeoutMillis);
+                this.socket.setTcpNoDelay(true); // prompts are small and the client waits for each one
+                Scanner in = new Scanner(this.socket.getInputStream(), StandardCharsets.UTF_8);
+                out = new PrintStream(this.socket.getOutputStream(), true, StandardCharsets.UTF_8);
+                out.println("SESSION " + this.id);
+
+                BoardGame game = new GameInitializer(in, out).initializeBoardGame();
+                game.setGameID(this.id);
+                game.setOutput(out);
+                if (historyWriter != null) game.setHistoryWriter(historyWriter);
+                if (playerStats != null) game.setPlayerStatsStore(playerStats);
+                this.game = game;
+
+                game.playGame(); // the shared history file and stats store stay open, so exitGame is not called
+                out.println("GOODBYE");
+            } catch (NoSuchElementException e) {
+                // the client disconnected or timed out, the input a Scanner reads ends either way
+            } catch (IOException | RuntimeException e) {
+                if (!this.ended) { // not just the server closing the connection under it
+                    System.out.println("Session " + this.id + " failed: " + e);
+                    if (out != null) out.println("ERROR " + e.getMessage()); // the client learns why before the connection drops
+                }
+            } finally {
+                this.closeSocket();
+                sessions.remove(this.id);
+                if (this.game != null && this.game.getGameHistory() instanceof SpillingHistoryList) {
+                    ((SpillingHistoryList) this.game.getGameHistory()).close(); // deletes the spill file, if the games were kept
+                }
+            }
+        }
+
+        // closes the connection, so the session stops at its next read
+        private void end() {
+            this.ended = true;
+            this.closeSocket();
+        }
+
+        private void closeSocket() {
+            try {
+                this.socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT, maxSessions = DEFAULT_MAX_SESSIONS, timeoutSeconds = DEFAULT_TIMEOUT_SECONDS;
+        String historyFile = null, statsFile = DEFAULT_STATS_FILE;
+        boolean binaryHistory = false;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "port": port = Integer.parseInt(value); break;
+                case "max": maxSessions = Integer.parseInt(value); break;
+                case "timeout": timeoutSeconds = Integer.parseInt(value); break;
+                case "history": historyFile = value; break;
+                case "format":
+                    if (!value.equalsIgnoreCase("text") && !value.equalsIgnoreCase("binary")) throw new IllegalArgumentException("format must be text or binary");
+                    binaryHistory = value.equalsIgnoreCase("binary");
+                    break;
+                case "stats": statsFile = value; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+
+        HistoryWriter historyWriter = null;
+        if (historyFile != null) {
+            if (binaryHistory) {
+                GameRecordWriter writer = new GameRecordWriter(Paths.get(historyFile));
+                if (writer.getRecoveredBytes() > 0) System.out.println("Cut off a partly written game record (" + writer.getRecoveredBytes() + " bytes) at the end of " + historyFile);
+                historyWriter = writer;
+            } else {
+                historyWriter = new GameHistoryWriter(historyFile);
+            }
+        }
+        GameServer server = new GameServer(port, maxSessions, timeoutSeconds * 1000, historyWriter, new PlayerStatsStore(Paths.get(statsFile)));
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close(); // the games played so far are saved when the server is stopped (e.g. ctrl-c)
+            } catch (IOException e) {
+                System.out.println("Error closing the server: " + e.getMessage());
+            }
+        }));
+        server.serve();
+    }
+}
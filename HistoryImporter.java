@@ -0,0 +1,401 @@
+/*
+    Description:
+    Imports data.txt files (the text written by BoardGame.exitGame and GameHistoryWriter) back into BoardGameHistory
+    objects, e.g. to move an existing archive into the binary game record format. The file is split into chunks of
+    about chunkBytes which start at "GAME NUMBER:" lines, and the chunks are parsed in parallel, each straight from
+    its own read only memory map of the file: numbers are parsed from the bytes in place and names are only turned into
+    Strings the first time they are seen in a chunk. Parsed chunks are handed on in the order of the file while later
+    chunks are still being parsed, with only a few chunks in flight at once, so the games come out in their original
+    order and memory use does not grow with the size of the file.
+
+    The text does not hold the win length (it is imported as 0) or the team numbers, which are given to the teams in
+    the order they first appear in a game. Optional lines (GAME ID, ENDED EARLY) and Windows line endings are accepted.
+
+    Usage:
+    java HistoryImporter file=PATH out=PATH [format=binary|text] [threads=N] [chunk=MB]
+
+    Class Level Constants:
+    - DEFAULT_CHUNK_BYTES: the default size of a chunk.
+    - GAME_START: the line every game starts with.
+
+    Fields:
+    - threads: the number of chunks parsed at once.
+    - chunkBytes: the size a chunk is split at (rounded up to the next game).
+
+    Constructors:
+    - HistoryImporter(int threads, int chunkBytes): an importer using the given parallelism and chunk size.
+
+    Important Methods:
+    - importFile(Path file, Consumer<BoardGameHistory> consumer): parses every game, giving them to the consumer in the
+    order of the file on the calling thread, and returns the number of games.
+    - importFile(Path file, HistoryWriter writer): the same, appending every game to a writer.
+*/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class HistoryImporter {
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    private static final byte[] GAME_START = "GAME NUMBER:".getBytes(StandardCharsets.US_ASCII);
+
+    private final int threads;
+    private final int chunkBytes;
+
+    // CONSTRUCTOR
+    public HistoryImporter(int threads, int chunkBytes) {
+        if (threads < 1 || chunkBytes < 1) throw new IllegalArgumentException("threads and the chunk size must be positive");
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+    }
+
+    public long importFile(Path file, HistoryWriter writer) throws IOException {
+        IOException[] failure = new IOException[1];
+        long count = this.importFile(file, history -> {
+            if (failure[0] != null) return;
+            try {
+                writer.append(history);
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) throw failure[0];
+        return count;
+    }
+
+    // parses the chunks on a pool while the calling thread hands the finished ones to the consumer in order
+    public long importFile(Path file, Consumer<BoardGameHistory> consumer) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "history-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size(), start = findGameStart(channel, 0), count = 0;
+            ArrayDeque<Future<List<BoardGameHistory>>> inFlight = new ArrayDeque<>();
+
+            while (start < size || !inFlight.isEmpty()) {
+                // keep a few chunks per thread queued so nobody waits, without reading far ahead of the consumer
+                while (start < size && inFlight.size() < this.threads * 2) {
+                    long end = findGameStart(channel, Math.min(size, start + this.chunkBytes));
+                    if (end - start > Integer.MAX_VALUE) throw new IOException("A game in " + file + " is too large to import");
+                    MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+                    long chunkStart = start;
+                    inFlight.add(pool.submit(() -> parseChunk(chunk, file, chunkStart)));
+                    start = end;
+                }
+
+                for (BoardGameHistory history : inFlight.poll().get()) {
+                    consumer.accept(history);
+                    count++;
+                }
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing " + file, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException("Could not import " + file, e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // HELPER methods
+    // the offset of the first "GAME NUMBER:" line at or after the position, or the end of the file
+    private static long findGameStart(FileChannel channel, long position) throws IOException {
+        long size = channel.size();
+        ByteBuffer window = ByteBuffer.allocate(1 << 16);
+        boolean lineStart = position == 0;
+
+        if (!lineStart) {
+            ByteBuffer previous = ByteBuffer.allocate(1);
+            channel.read(previous, position - 1);
+            lineStart = previous.get(0) == '\n';
+        }
+
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (lineStart && startsWith(channel, window, i, read, position + i, GAME_START)) return position + i;
+                lineStart = window.get(i) == '\n';
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static boolean startsWith(FileChannel channel, ByteBuffer window, int index, int read, long position, byte[] prefix) throws IOException {
+        if (index + prefix.length <= read) {
+            for (int j = 0; j < prefix.length; j++) if (window.get(index + j) != prefix[j]) return false;
+            return true;
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(prefix.length); // the prefix crosses the end of the window
+        if (channel.read(bytes, position) < prefix.length) return false;
+        return Arrays.equals(bytes.array(), prefix);
+    }
+
+    // parses every game of a chunk, which starts at a "GAME NUMBER:" line and ends before the next chunk's
+    private static List<BoardGameHistory> parseChunk(ByteBuffer chunk, Path file, long chunkStart) {
+        return new ChunkParser(chunk, file, chunkStart).parse();
+    }
+
+    private static class ChunkParser {
+        private final ByteBuffer chunk;
+        private final Path file;
+        private final long chunkStart;
+        private final List<byte[]> nameBytes = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private int position;
+        private int lineEnd;
+
+        ChunkParser(ByteBuffer chunk, Path file, long chunkStart) {
+            this.chunk = chunk;
+            this.file = file;
+            this.chunkStart = chunkStart;
+        }
+
+        List<BoardGameHistory> parse() {
+            List<BoardGameHistory> histories = new ArrayList<>();
+            while (this.nextLine()) {
+                if (this.isBlank()) {
+                    this.position = this.lineEnd; // blank line between games
+                    continue;
+                }
+                if (!this.lineStartsWith("GAME NUMBER:")) throw this.error("expected GAME NUMBER");
+                histories.add(this.parseGame());
+            }
+            return histories;
+        }
+
+        // the current line is "GAME NUMBER:", the game ends at its first blank line or at the next game
+        private BoardGameHistory parseGame() {
+            int gameNumber = this.parseIntAfter("GAME NUMBER:");
+            String gameID = null, gameType = null, winnerName = null;
+            boolean endedEarly = false;
+            int totalTurns = 0, rows = 0, columns = 0;
+
+            while (true) {
+                if (!this.nextLine()) throw this.error("game " + gameNumber + " has no moves");
+                if (this.lineStartsWith("GAME ID:")) gameID = this.nameAfter("GAME ID:");
+                else if (this.lineStartsWith("GAME NAME:")) gameType = this.nameAfter("GAME NAME:");
+                else if (this.lineStartsWith("WINNER TEAM:")) winnerName = this.nameAfter("WINNER TEAM:\tTeam ");
+                else if (this.lineStartsWith("GAME TIED")) winnerName = null;
+                else if (this.lineStartsWith("ENDED EARLY:")) endedEarly = true;
+                else if (this.lineStartsWith("TURNS TAKEN:")) totalTurns = this.parseIntAfter("TURNS TAKEN:");
+                else if (this.lineStartsWith("BOARD SIZE:")) {
+                    this.position += "BOARD SIZE:".length();
+                    rows = this.parseInt();
+                    this.expect('x');
+                    columns = this.parseInt();
+                } else if (!this.lineStartsWith("MOVES")) throw this.error("unexpected line");
+
+                boolean moves = this.lineStartsWith("MOVES");
+                this.position = this.lineEnd;
+                if (moves) break;
+            }
+            if (gameType == null || rows < 1 || columns < 1) throw this.error("game " + gameNumber + " has no name or board size");
+
+            // the moves, up to a blank line or the next game
+            MoveLog log = new MoveLog(rows, columns);
+            List<Team> teams = new ArrayList<>();
+            List<List<Player>> players = new ArrayList<>();
+            while (this.nextLine()) {
+                if (this.lineStartsWith("GAME NUMBER:")) break; // left for parse() to read as the next game
+                if (this.isBlank()) {
+                    this.position = this.lineEnd;
+                    break;
+                }
+
+                int turn = this.parseInt();
+                this.expect(',');
+                this.expect('(');
+                int row = this.parseInt();
+                this.expect(',');
+                int column = this.parseInt();
+                this.expect(')');
+                this.expect(',');
+                int pieceStart = this.indexOf(",Piece ");
+                String playerName = this.name(this.position, pieceStart);
+                this.position = pieceStart + ",Piece ".length();
+                char symbol = (char) (this.chunk.get(this.position++) & 0xFF);
+                if (!this.lineStartsWith(",Team ")) throw this.error("expected ,Team");
+                String teamName = this.name(this.position + ",Team ".length(), this.trimmedLineEnd());
+
+                int teamIndex = this.findTeam(teams, players, teamName);
+                Player player = findPlayer(players.get(teamIndex), playerName);
+                log.add(turn, row, column, symbol, teams.get(teamIndex), player);
+                this.position = this.lineEnd;
+            }
+
+            Team winner = winnerName == null ? null : teams.get(this.findTeam(teams, players, winnerName));
+            Team[] teamArray = new Team[teams.size()];
+            for (int t = 0; t < teams.size(); t++) {
+                teams.get(t).setTeam(players.get(t).toArray(new Player[0]));
+                teamArray[t] = teams.get(t);
+            }
+            return new BoardGameHistory(winner, gameType, log, totalTurns, gameNumber, gameID, endedEarly, 0, teamArray);
+        }
+
+        private int findTeam(List<Team> teams, List<List<Player>> players, String name) {
+            for (int t = 0; t < teams.size(); t++) if (teams.get(t).getName().equals(name)) return t;
+            teams.add(new Team(new Player[0], teams.size(), name));
+            players.add(new ArrayList<>());
+            return teams.size() - 1;
+        }
+
+        private static Player findPlayer(List<Player> players, String name) {
+            for (Player player : players) if (player.getName().equals(name)) return player;
+            Player player = new Player(name);
+            players.add(player);
+            return player;
+        }
+
+        // moves from the end of the current line (or the start of a line) to the start of the next, setting lineEnd
+        // to the end of it (before the '\n'), callers set position to lineEnd once they are done with the line
+        private boolean nextLine() {
+            if (this.position < this.chunk.limit() && this.chunk.get(this.position) == '\n') this.position++;
+            if (this.position >= this.chunk.limit()) return false;
+
+            int end = this.position;
+            while (end < this.chunk.limit() && this.chunk.get(end) != '\n') end++;
+            this.lineEnd = end;
+            return true;
+        }
+
+        private boolean isBlank() {
+            return this.trimmedLineEnd() == this.position;
+        }
+
+        private int trimmedLineEnd() {
+            return this.lineEnd > this.position && this.chunk.get(this.lineEnd - 1) == '\r' ? this.lineEnd - 1 : this.lineEnd;
+        }
+
+        private boolean lineStartsWith(String prefix) {
+            if (this.position + prefix.length() > this.lineEnd) return false;
+            for (int i = 0; i < prefix.length(); i++) if (this.chunk.get(this.position + i) != prefix.charAt(i)) return false;
+            return true;
+        }
+
+        private int parseIntAfter(String label) {
+            this.position += label.length();
+            return this.parseInt();
+        }
+
+        private int parseInt() {
+            while (this.position < this.lineEnd && (this.chunk.get(this.position) == '\t' || this.chunk.get(this.position) == ' ')) this.position++;
+            int value = 0, digits = 0;
+            while (this.position < this.lineEnd) {
+                int digit = this.chunk.get(this.position) - '0';
+                if (digit < 0 || digit > 9) break;
+                value = value * 10 + digit;
+                this.position++;
+                digits++;
+            }
+            if (digits == 0) throw this.error("expected a number");
+            return value;
+        }
+
+        private void expect(char expected) {
+            if (this.position >= this.lineEnd || this.chunk.get(this.position) != expected) throw this.error("expected '" + expected + "'");
+            this.position++;
+        }
+
+        private int indexOf(String text) {
+            for (int i = this.position; i + text.length() <= this.lineEnd; i++) {
+                boolean match = true;
+                for (int j = 0; j < text.length() && match; j++) match = this.chunk.get(i + j) == text.charAt(j);
+                if (match) return i;
+            }
+            throw this.error("expected " + text.trim());
+        }
+
+        private String nameAfter(String label) {
+            if (!this.lineStartsWith(label)) throw this.error("expected " + label.trim());
+            int start = this.position + label.length();
+            while (start < this.lineEnd && this.chunk.get(start) == '\t') start++;
+            return this.name(start, this.trimmedLineEnd());
+        }
+
+        // the String of the bytes, reusing the String made the last time the same bytes were seen in this chunk
+        private String name(int start, int end) {
+            int length = end - start;
+            for (int n = 0; n < this.nameBytes.size(); n++) {
+                byte[] bytes = this.nameBytes.get(n);
+                if (bytes.length != length) continue;
+                boolean match = true;
+                for (int i = 0; i < length && match; i++) match = this.chunk.get(start + i) == bytes[i];
+                if (match) return this.names.get(n);
+            }
+
+            byte[] bytes = new byte[length];
+            this.chunk.get(start, bytes);
+            String name = new String(bytes, StandardCharsets.UTF_8);
+            if (this.names.size() < 1024) { // only a few names repeat, a long tail (e.g. unique game IDs) is not kept
+                this.nameBytes.add(bytes);
+                this.names.add(name);
+            }
+            return name;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(this.file + " at byte " + (this.chunkStart + this.position) + ": " + message);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = null, out = null;
+        boolean binary = true;
+        int threads = Runtime.getRuntime().availableProcessors(), chunkBytes = DEFAULT_CHUNK_BYTES;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "file": file = value; break;
+                case "out": out = value; break;
+                case "format":
+                    if (!value.equalsIgnoreCase("text") && !value.equalsIgnoreCase("binary")) throw new IllegalArgumentException("format must be text or binary");
+                    binary = value.equalsIgnoreCase("binary");
+                    break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "chunk": chunkBytes = Integer.parseInt(value) << 20; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+        if (file == null || out == null) throw new IllegalArgumentException("Usage: java HistoryImporter file=PATH out=PATH [format=binary|text] [threads=N] [chunk=MB]");
+
+        long begin = System.nanoTime();
+        long count;
+        try (HistoryWriter writer = binary ? new GameRecordWriter(Paths.get(out))
+                : new GameHistoryWriter(out)) {
+            if (writer instanceof GameRecordWriter && ((GameRecordWriter) writer).getRecoveredBytes() > 0) {
+                System.out.println("Cut off a partly written game record (" + ((GameRecordWriter) writer).getRecoveredBytes() + " bytes) at the end of " + out);
+            }
+            count = new HistoryImporter(threads, chunkBytes).importFile(Paths.get(file), writer);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("Imported %,d games from %s into %s in %.3f s (%,.0f games/sec)%n", count, file, out, seconds, count / seconds);
+    }
+}
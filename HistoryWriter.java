@@ -0,0 +1,24 @@
+/*
+    Description:
+    Interface for anything a board game can stream its finished games to, so the text (GameHistoryWriter) and binary
+    (GameRecordWriter) formats can be attached to a game the same way with BoardGame.setHistoryWriter.
+
+    Abstract Methods:
+    - append(GameHistory history): adds a finished game.
+    - flush(): writes every game added so far to the file.
+    - close(): flushes and closes the file.
+    - getPath(): the file the games are written to.
+*/
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface HistoryWriter extends AutoCloseable {
+    void append(GameHistory history) throws IOException;
+
+    void flush() throws IOException;
+
+    void close() throws IOException;
+
+    Path getPath();
+}
@@ -2,15 +2,54 @@
     Description:
     Main class that serves as the entry point for running the board game.
 
+    Class Level Constants:
+    - PLAYER_STATS_FILE: the store every player's wins, losses, and draws are kept in across sessions.
+
+    Usage:
+    java Main [render=full|diff] [async=true] [events=<file>]
+    - render=diff keeps the board at the top of the terminal and only redraws the cells which changed (ANSI terminals).
+    - async=true draws on a separate output thread, which skips frames when bots move faster than the terminal draws.
+    - events=<file> writes every move, win, tie, and new board to the file from a listener thread of a MoveEventBus.
+
     Important Methods:
-    - main(String[] args): Initializes the game using GameInitializer, starts the game loop, and exits the game after completion.
+    - main(String[] args): Initializes the game using GameInitializer, asks whether to save data.txt, starts the game loop, and exits the
+    game after completion.
 */
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class Main {
-    public static void main(String[] args) {
+    private static final String PLAYER_STATS_FILE = "players.dat";
+
+    public static void main(String[] args) throws IOException {
+        boolean diff = false, async = false;
+        String events = null;
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "render": diff = value.equalsIgnoreCase("diff"); break;
+                case "async": async = Boolean.parseBoolean(value); break;
+                case "events": events = value; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+
         GameInitializer initializer = new GameInitializer();
         BoardGame game = initializer.initializeBoardGame();
+        game.setRenderer(new BoardRenderer(diff));
+        if (async) game.setRenderThread(new RenderThread(System.out)); // closed by exitGame
+        if (events != null) {
+            MoveEventBus eventBus = new MoveEventBus(); // closed by exitGame
+            eventBus.addListener(new MoveEventLog(Paths.get(events)));
+            game.setMoveEventBus(eventBus);
+        }
+        game.setPlayerStatsStore(new PlayerStatsStore(Paths.get(PLAYER_STATS_FILE)));
+        game.askToSaveHistory(); // the games are streamed to data.txt as they finish, not held until exit
         game.playGame();
         game.exitGame();
     }
-}
\ No newline at end of file
+}
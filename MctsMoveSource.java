@@ -0,0 +1,392 @@
+/*
+    Description:
+    MoveSource for a SuperTicTacToe bot which uses Monte Carlo Tree Search (UCT). The branching factor of the grid of
+    games is too large for exhaustive search, so the bot instead plays many random games (playouts) from the current
+    position and grows a search tree towards the moves that win most often. The search uses root parallelisation:
+    every thread grows its own tree from the same position with its own random numbers, and when the budget (time
+    and/or total playouts) is spent the visit counts of the root moves are added up over all trees and the most
+    visited move is played. Trees are stored in preallocated primitive arrays and the game is simulated on a packed
+    copy of the grid (two 9-bit masks per TicTacToe board), so no objects are created while searching.
+
+    Moves are only considered in TicTacToe games that are not finished yet. Playing in a finished game never changes
+    its result, and an extra piece never hurts the team that places it, so this never hides a better move.
+
+    Since SuperTicTacToe asks for the game ID and then the cell separately, the whole move is chosen when the game ID
+    is asked for and the cell is remembered until it is asked for next.
+
+    Class Level Constants:
+    - DEFAULT_TIME_LIMIT_MILLIS: the default time budget of a move.
+    - DEFAULT_TREE_NODES: the number of nodes preallocated for every thread's tree.
+    - EXPLORATION: the UCT exploration constant.
+    - LINES: the 9-bit masks of the 8 lines of a 3x3 board.
+    - SEARCH_THREADS: daemon threads shared by every MCTS bot to grow their trees on, idle threads exit after a while.
+
+    Fields:
+    - threads/timeLimitNanos/playoutLimit/treeNodes: the search budget and size (a playout limit of 0 means no limit).
+    - trees: one search tree per thread, kept between moves to reuse their arrays.
+    - seed: changes every search so each thread gets a different random sequence.
+    - pendingGame/pendingCell: the TicTacToe game and cell chosen by the last search, until the cell is asked for.
+    - lastPlayouts/lastNanos/lastWinRate: statistics of the last search.
+
+    Constructors:
+    - MctsMoveSource(): a bot which searches on every core for the default time.
+    - MctsMoveSource(int threads, long timeLimitMillis, long playoutLimit): a bot with the given budget.
+
+    Interface Method Implementations:
+    - getNextGameID(...): searches the position and returns the ID of the game holding the chosen move.
+    - getNextCell(...): returns the cell chosen by the last search.
+
+    Important Methods:
+    - search(SuperTicTacToe game, Team team): runs the parallel search and returns the chosen move as board * 9 + cell.
+    - getLastPlayouts()/getLastPlayoutsPerSecond(): report on the last search.
+*/
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class MctsMoveSource implements MoveSource {
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+    public static final int DEFAULT_TREE_NODES = 1 << 18;
+    private static final double EXPLORATION = 1.0;
+    private static final int[] LINES = { 0x007, 0x038, 0x1C0, 0x049, 0x092, 0x124, 0x111, 0x054 };
+    private static final int ALL = 0x1FF;
+    private static final int ONGOING = -1, DRAW = 2; // otherwise a result is the number of the winning team
+    private static final ExecutorService SEARCH_THREADS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "mcts-search");
+        thread.setDaemon(true); // never keeps the program running after the game ends
+        return thread;
+    });
+
+    private final int threads;
+    private final long timeLimitNanos;
+    private final long playoutLimit;
+    private final int treeNodes;
+    private SearchTree[] trees;
+    private long seed;
+
+    private TicTacToe pendingGame;
+    private int[] pendingCell;
+    private long lastPlayouts;
+    private long lastNanos;
+    private double lastWinRate;
+
+    // CONSTRUCTORS
+    public MctsMoveSource() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_TIME_LIMIT_MILLIS, 0);
+    }
+
+    public MctsMoveSource(int threads, long timeLimitMillis, long playoutLimit) {
+        if (threads < 1 || timeLimitMillis < 1 || playoutLimit < 0) throw new IllegalArgumentException("Invalid search settings");
+        this.threads = threads;
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+        this.playoutLimit = playoutLimit;
+        this.treeNodes = DEFAULT_TREE_NODES;
+        this.seed = System.nanoTime();
+    }
+
+    // GETTER methods
+    public long getLastPlayouts() {
+        return this.lastPlayouts;
+    }
+
+    public long getLastPlayoutsPerSecond() {
+        return this.lastNanos == 0 ? 0 : this.lastPlayouts * 1_000_000_000L / this.lastNanos;
+    }
+
+    public double getLastWinRate() {
+        return this.lastWinRate;
+    }
+
+    // MOVE INPUT METHODS
+    public String getNextGameID(SuperTicTacToe game, Team team, Player player) {
+        int move = this.search(game, team);
+        int board = move / 9, cell = move % 9;
+
+        this.pendingGame = game.getGames()[board / 3][board % 3];
+        this.pendingCell = new int[] {cell / 3, cell % 3};
+
+        // shown as a game message, so nothing is printed when the display is off (e.g. BatchSimulator)
+        game.displayMessage(String.format("[%s] %d playouts on %d threads, %d playouts/sec, win rate %.1f%%", player.getName(),
+            this.lastPlayouts, this.threads, this.getLastPlayoutsPerSecond(), 100 * this.lastWinRate));
+        return this.pendingGame.getGameID();
+    }
+
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        if (this.pendingGame == null || this.pendingGame != game) throw new IllegalArgumentException("The MCTS bot only plays SuperTicTacToe");
+
+        int[] cell = this.pendingCell;
+        this.pendingGame = null;
+        this.pendingCell = null;
+        return cell;
+    }
+
+    // searches the position for the given team on every thread and returns the most visited move (board * 9 + cell)
+    public int search(SuperTicTacToe game, Team team) {
+        long start = System.nanoTime();
+        SuperState root = SuperState.of(game, team.getNumber());
+        int[] legal = new int[81];
+        int count = root.legalMoves(legal);
+        if (count == 0) throw new IllegalStateException("There are no moves left");
+        if (count == 1) return legal[0];
+
+        if (this.trees == null) {
+            this.trees = new SearchTree[this.threads];
+            for (int i = 0; i < this.threads; i++) this.trees[i] = new SearchTree(this.treeNodes);
+        }
+
+        long deadline = start + this.timeLimitNanos;
+        AtomicLong playouts = new AtomicLong();
+        this.seed += 0x9E3779B97F4A7C15L;
+        this.runTrees(root, deadline, playouts);
+
+        // every tree expands the root moves in the same order, so their statistics can be added up by index
+        long[] visits = new long[count];
+        double[] scores = new double[count];
+        for (SearchTree tree : this.trees) tree.addRootStatistics(visits, scores);
+
+        int best = 0;
+        for (int i = 1; i < count; i++) if (visits[i] > visits[best]) best = i;
+
+        this.lastPlayouts = playouts.get();
+        this.lastNanos = System.nanoTime() - start;
+        this.lastWinRate = visits[best] == 0 ? 0 : scores[best] / visits[best];
+        return legal[best];
+    }
+
+    // HELPER methods
+    private void runTrees(SuperState root, long deadline, AtomicLong playouts) {
+        if (this.threads == 1) {
+            this.trees[0].search(root, deadline, playouts, this.playoutLimit, this.seed);
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(this.threads);
+        for (int i = 0; i < this.threads; i++) {
+            SearchTree tree = this.trees[i];
+            long treeSeed = this.seed + i * 0xBF58476D1CE4E5B9L;
+            tasks.add(() -> {
+                tree.search(root, deadline, playouts, this.playoutLimit, treeSeed);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : SEARCH_THREADS.invokeAll(tasks)) result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed", e.getCause());
+        }
+    }
+
+    // one thread's search tree, children of a node are stored next to each other in the order legalMoves lists them
+    private static class SearchTree {
+        private final byte[] moves;
+        private final int[] firstChild;
+        private final byte[] childCount;
+        private final int[] visits;
+        private final double[] scores;
+        private int size;
+
+        private final SuperState state = new SuperState();
+        private final int[] path = new int[82];
+        private final int[] legal = new int[81];
+
+        SearchTree(int capacity) {
+            this.moves = new byte[capacity];
+            this.firstChild = new int[capacity];
+            this.childCount = new byte[capacity];
+            this.visits = new int[capacity];
+            this.scores = new double[capacity];
+        }
+
+        void search(SuperState root, long deadline, AtomicLong playouts, long playoutLimit, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            this.size = 1;
+            this.firstChild[0] = -1;
+            this.visits[0] = 0;
+            this.scores[0] = 0;
+
+            for (long done = 0; ; done++) {
+                if ((done & 63) == 0 && System.nanoTime() > deadline) break;
+                if (playoutLimit > 0 && playouts.incrementAndGet() > playoutLimit) {
+                    playouts.decrementAndGet();
+                    break;
+                }
+
+                this.state.copyFrom(root);
+                int node = 0, depth = 0, result = ONGOING;
+                this.path[depth++] = 0;
+
+                // selection: follow the best UCT child down to a node that has not been expanded
+                while (this.firstChild[node] >= 0 && result == ONGOING) {
+                    node = this.selectChild(node);
+                    result = this.state.play(this.moves[node]);
+                    this.path[depth++] = node;
+                }
+
+                // expansion: add the children of the node and visit the first of them
+                if (result == ONGOING && this.visits[node] > 0) {
+                    int count = this.state.legalMoves(this.legal);
+                    if (this.size + count <= this.moves.length) {
+                        this.firstChild[node] = this.size;
+                        this.childCount[node] = (byte) count;
+                        for (int i = 0; i < count; i++) {
+                            int child = this.size++;
+                            this.moves[child] = (byte) this.legal[i];
+                            this.firstChild[child] = -1;
+                            this.visits[child] = 0;
+                            this.scores[child] = 0;
+                        }
+                        node = this.firstChild[node];
+                        result = this.state.play(this.moves[node]);
+                        this.path[depth++] = node;
+                    }
+                }
+
+                // simulation: random moves until the game ends
+                while (result == ONGOING) {
+                    int count = this.state.legalMoves(this.legal);
+                    result = this.state.play(this.legal[random.nextInt(count)]);
+                }
+
+                // backpropagation: each node is scored for the team that made the move leading to it
+                int mover = root.side;
+                for (int i = 0; i < depth; i++) {
+                    int visited = this.path[i];
+                    this.visits[visited]++;
+                    if (i > 0) {
+                        if (result == DRAW) this.scores[visited] += 0.5;
+                        else if (result == mover) this.scores[visited] += 1;
+                        mover = 1 - mover;
+                    }
+                }
+                if (playoutLimit == 0) playouts.incrementAndGet();
+            }
+        }
+
+        private int selectChild(int node) {
+            int first = this.firstChild[node], best = first;
+            double logVisits = Math.log(this.visits[node]), bestValue = Double.NEGATIVE_INFINITY;
+
+            for (int child = first; child < first + this.childCount[node]; child++) {
+                if (this.visits[child] == 0) return child;
+                double value = this.scores[child] / this.visits[child] + EXPLORATION * Math.sqrt(logVisits / this.visits[child]);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        void addRootStatistics(long[] visits, double[] scores) {
+            if (this.size == 0 || this.firstChild[0] < 0) return;
+            for (int i = 0; i < this.childCount[0]; i++) {
+                visits[i] += this.visits[this.firstChild[0] + i];
+                scores[i] += this.scores[this.firstChild[0] + i];
+            }
+        }
+    }
+
+    // packed copy of a SuperTicTacToe position: a 9-bit mask of each team's pieces on every board, and 9-bit masks of
+    // the boards each team has won and the boards that are finished (won or no longer winnable)
+    private static class SuperState {
+        private final int[][] pieces = new int[2][9];
+        private final int[] won = new int[2];
+        private int finished;
+        private int side;
+
+        static SuperState of(SuperTicTacToe game, int side) {
+            TicTacToe[][] games = game.getGames();
+            if (games.length != 3 || games[0].length != 3) throw new IllegalArgumentException("The MCTS bot only plays a 3x3 grid of games");
+
+            SuperState state = new SuperState();
+            state.side = side;
+            for (int b = 0; b < 9; b++) {
+                TicTacToe subGame = games[b / 3][b % 3];
+                Board board = subGame.getBoard();
+                if (board.getRows() != 3 || board.getColumns() != 3 || subGame.getWinLength() != 3) {
+                    throw new IllegalArgumentException("The MCTS bot only plays 3x3 TicTacToe games");
+                }
+
+                for (int cell = 0; cell < 9; cell++) {
+                    char symbol = board.getPieceSymbol(cell / 3, cell % 3);
+                    if (symbol == TicTacToe.TEAM_0_SYMBOL) state.pieces[0][b] |= 1 << cell;
+                    else if (symbol == TicTacToe.TEAM_1_SYMBOL) state.pieces[1][b] |= 1 << cell;
+                }
+
+                if (subGame.getWinner() != null) state.won[subGame.getWinner().getNumber()] |= 1 << b;
+                if (subGame.isFinished()) state.finished |= 1 << b;
+            }
+            return state;
+        }
+
+        void copyFrom(SuperState other) {
+            System.arraycopy(other.pieces[0], 0, this.pieces[0], 0, 9);
+            System.arraycopy(other.pieces[1], 0, this.pieces[1], 0, 9);
+            this.won[0] = other.won[0];
+            this.won[1] = other.won[1];
+            this.finished = other.finished;
+            this.side = other.side;
+        }
+
+        // every empty cell of every unfinished board, as board * 9 + cell
+        int legalMoves(int[] out) {
+            int count = 0;
+            for (int b = 0; b < 9; b++) {
+                if ((this.finished & (1 << b)) != 0) continue;
+                int empty = ~(this.pieces[0][b] | this.pieces[1][b]) & ALL;
+                while (empty != 0) {
+                    out[count++] = b * 9 + Integer.numberOfTrailingZeros(empty);
+                    empty &= empty - 1;
+                }
+            }
+            return count;
+        }
+
+        // plays a move for the side to move and returns the result of the game
+        int play(int move) {
+            int b = move / 9, mover = this.side;
+            int mine = this.pieces[mover][b] |= 1 << (move % 9);
+            int theirs = this.pieces[1 - mover][b];
+            this.side = 1 - mover;
+
+            boolean open = false;
+            for (int line : LINES) {
+                if ((mine & line) == line) {
+                    this.won[mover] |= 1 << b;
+                    this.finished |= 1 << b;
+                    return hasLine(this.won[mover]) ? mover : this.resultIfStuck();
+                }
+                if ((mine & line) == 0 || (theirs & line) == 0) open = true;
+            }
+
+            if (!open) this.finished |= 1 << b; // every line holds both teams' pieces
+            return this.resultIfStuck();
+        }
+
+        // the game is drawn once every board is finished or no team can still win a line of boards
+        private int resultIfStuck() {
+            if (this.finished == ALL) return DRAW;
+            for (int team = 0; team < 2; team++) {
+                int usable = this.won[team] | (~this.finished & ALL);
+                if (hasLine(usable)) return ONGOING;
+            }
+            return DRAW;
+        }
+
+        private static boolean hasLine(int mask) {
+            for (int line : LINES) if ((mask & line) == line) return true;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+    Description:
+    One event of a board game, as passed to a MoveListener. Events are preallocated slots of a MoveEventBus ring buffer
+    which the game overwrites in place, so publishing an event allocates nothing. Fields which do not apply to an event
+    type are left at -1 / null (e.g. the cell of a win).
+
+    Fields:
+    - type: MOVE, WIN, TIE, or RESET.
+    - sequence: the position of the event in the bus, counting from 0.
+    - gameID/gameNumber: the game the event belongs to.
+    - turn: the turn of a move, or the number of turns a finished game took.
+    - row/column/symbol: the cell and piece of a move.
+    - team/player: who moved, or the winning team.
+    - endedEarly: whether a finished game ended before the board was full.
+
+    Constructors:
+    - MoveEvent(): an empty event.
+
+    Important Methods:
+    - copyFrom(MoveEvent event): copies every field of another event, e.g. to keep it after a listener returns.
+*/
+
+public class MoveEvent {
+    public enum Type { MOVE, WIN, TIE, RESET }
+
+    private Type type;
+    private long sequence;
+    private String gameID;
+    private int gameNumber;
+    private int turn;
+    private int row;
+    private int column;
+    private char symbol;
+    private Team team;
+    private Player player;
+    private boolean endedEarly;
+
+    // CONSTRUCTOR
+    public MoveEvent() {
+        this.sequence = -1;
+    }
+
+    // GETTER methods
+    public Type getType() {
+        return this.type;
+    }
+
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    public String getGameID() {
+        return this.gameID;
+    }
+
+    public int getGameNumber() {
+        return this.gameNumber;
+    }
+
+    public int getTurn() {
+        return this.turn;
+    }
+
+    public int getRow() {
+        return this.row;
+    }
+
+    public int getColumn() {
+        return this.column;
+    }
+
+    public char getSymbol() {
+        return this.symbol;
+    }
+
+    public Team getTeam() {
+        return this.team;
+    }
+
+    public Player getPlayer() {
+        return this.player;
+    }
+
+    public boolean getEndedEarly() {
+        return this.endedEarly;
+    }
+
+    public String toString() {
+        String game = "game " + this.gameNumber + (this.gameID != null ? " board " + this.gameID : "");
+        switch (this.type) {
+            case MOVE: return game + " turn " + this.turn + ": " + this.player.getName() + " (" + this.team.getName() + ") placed " + this.symbol
+                + " at (" + this.row + "," + this.column + ")";
+            case WIN: return game + ": team " + this.team.getName() + " won after " + this.turn + " turns";
+            case TIE: return game + ": tie after " + this.turn + " turns" + (this.endedEarly ? " (ended early)" : "");
+            default: return game + ": new board";
+        }
+    }
+
+    // SETTER methods
+    public void copyFrom(MoveEvent event) {
+        this.set(event.type, event.sequence, event.gameID, event.gameNumber, event.turn, event.row, event.column, event.symbol, event.team,
+            event.player, event.endedEarly);
+    }
+
+    void set(Type type, long sequence, String gameID, int gameNumber, int turn, int row, int column, char symbol, Team team, Player player,
+            boolean endedEarly) {
+        this.type = type;
+        this.sequence = sequence;
+        this.gameID = gameID;
+        this.gameNumber = gameNumber;
+        this.turn = turn;
+        this.row = row;
+        this.column = column;
+        this.symbol = symbol;
+        this.team = team;
+        this.player = player;
+        this.endedEarly = endedEarly;
+    }
+}
@@ -0,0 +1,246 @@
+/*
+    Description:
+    Dispatches the events of one game (moves, wins, ties, and resets) to any number of MoveListeners through a
+    preallocated ring buffer. The game thread is the only producer: publishing an event fills the next slot in place
+    and advances the published sequence, which costs the same however many listeners there are and never waits for
+    them. Each listener runs on its own thread with its own sequence, reading the slots behind the producer, so a slow
+    listener only delays itself.
+
+    The producer does not wait for slow listeners either: once a listener is a whole ring behind, the slots it has not
+    read yet are overwritten. The listener notices this (its sequence is more than the capacity behind, or the slot it
+    just copied was claimed again while it copied it), skips to the oldest event still in the ring, and is told how
+    many events it lost through onOverrun. The bus is therefore only for observers which can live with a gap (logging,
+    metrics, spectators). The game's own history and drawing do not go through it: a lost game could not be saved,
+    and a board must be drawn before the prompt that asks about it, so BoardGame records history and updates the
+    display itself (the display on a RenderThread with async=true) and only publishes the events here.
+
+    Class Level Constants:
+    - DEFAULT_CAPACITY: the default number of slots in the ring.
+
+    Fields:
+    - ring/mask: the slots, and capacity - 1 to find the slot of a sequence.
+    - claimed: the last sequence the producer started writing.
+    - published: the last sequence the producer finished writing.
+    - next: the sequence of the next event (only used by the producer).
+    - consumers: the threads dispatching to each listener.
+    - closed: whether the bus is shutting down (listeners finish the published events, are closed, and stop).
+
+    Constructors:
+    - MoveEventBus(): a bus with the default capacity.
+    - MoveEventBus(int capacity): a bus whose ring holds capacity events (a power of 2).
+
+    Important Methods:
+    - addListener(MoveListener listener): starts a thread delivering every event published from now on to the listener.
+    - publishMove/publishWin/publishTie/publishReset(...): publish an event, called by the game thread only.
+    - getPublished(): the number of events published.
+    - getDelivered(MoveListener listener)/getMissed(MoveListener listener): how many events a listener was given and lost.
+    - awaitDelivered(): waits until every listener has caught up with the events published so far.
+    - close(): delivers the published events, calls every listener's onClose, and stops the listener threads.
+*/
+
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class MoveEventBus implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 1 << 12;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final MoveEvent[] ring;
+    private final int mask;
+    private final AtomicLong claimed;
+    private final AtomicLong published;
+    private long next;
+    private final List<Consumer> consumers;
+    private volatile boolean closed;
+
+    // CONSTRUCTORS
+    public MoveEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MoveEventBus(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("The capacity must be a power of 2");
+        this.ring = new MoveEvent[capacity];
+        for (int i = 0; i < capacity; i++) this.ring[i] = new MoveEvent();
+        this.mask = capacity - 1;
+        this.claimed = new AtomicLong(-1);
+        this.published = new AtomicLong(-1);
+        this.consumers = new CopyOnWriteArrayList<>();
+    }
+
+    // GETTER methods
+    public int getCapacity() {
+        return this.ring.length;
+    }
+
+    public long getPublished() {
+        return this.published.get() + 1;
+    }
+
+    public long getDelivered(MoveListener listener) {
+        return this.getConsumer(listener).delivered;
+    }
+
+    public long getMissed(MoveListener listener) {
+        return this.getConsumer(listener).missed;
+    }
+
+    // SETTER methods
+    public void addListener(MoveListener listener) {
+        if (this.closed) throw new IllegalStateException("The event bus is closed");
+        Consumer consumer = new Consumer(listener, this.published.get() + 1);
+        this.consumers.add(consumer);
+        consumer.thread.start();
+    }
+
+    public void publishMove(String gameID, int gameNumber, int turn, int row, int column, char symbol, Team team, Player player) {
+        this.publish(MoveEvent.Type.MOVE, gameID, gameNumber, turn, row, column, symbol, team, player, false);
+    }
+
+    public void publishWin(String gameID, int gameNumber, int turns, Team winner) {
+        this.publish(MoveEvent.Type.WIN, gameID, gameNumber, turns, -1, -1, ' ', winner, null, false);
+    }
+
+    public void publishTie(String gameID, int gameNumber, int turns, boolean endedEarly) {
+        this.publish(MoveEvent.Type.TIE, gameID, gameNumber, turns, -1, -1, ' ', null, null, endedEarly);
+    }
+
+    public void publishReset(String gameID, int gameNumber) {
+        this.publish(MoveEvent.Type.RESET, gameID, gameNumber, -1, -1, -1, ' ', null, null, false);
+    }
+
+    // waits until every listener has been given (or lost) every event published so far
+    public void awaitDelivered() {
+        long target = this.published.get();
+        for (Consumer consumer : this.consumers) {
+            long parkNanos = 1000;
+            while (consumer.sequence.get() < target && consumer.thread.isAlive()) {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(MAX_PARK_NANOS, parkNanos * 2);
+            }
+        }
+        this.checkFailures();
+    }
+
+    public void close() {
+        this.closed = true;
+        boolean interrupted = false;
+        for (Consumer consumer : this.consumers) {
+            LockSupport.unpark(consumer.thread);
+            while (consumer.thread.isAlive()) {
+                try {
+                    consumer.thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        this.checkFailures();
+    }
+
+    // HELPER methods
+    // the slot is claimed before it is written and published after, so a listener copying it can tell if it changed
+    private void publish(MoveEvent.Type type, String gameID, int gameNumber, int turn, int row, int column, char symbol, Team team, Player player,
+            boolean endedEarly) {
+        long sequence = this.next++;
+        this.claimed.setRelease(sequence);
+        VarHandle.storeStoreFence(); // the slot is not written before the claim is visible
+        this.ring[(int) sequence & this.mask].set(type, sequence, gameID, gameNumber, turn, row, column, symbol, team, player, endedEarly);
+        this.published.setRelease(sequence);
+    }
+
+    private Consumer getConsumer(MoveListener listener) {
+        for (Consumer consumer : this.consumers) if (consumer.listener == listener) return consumer;
+        throw new IllegalArgumentException("The listener was not added to this event bus");
+    }
+
+    private void checkFailures() {
+        for (Consumer consumer : this.consumers) {
+            if (consumer.failure != null) throw new IllegalStateException("Move listener failed", consumer.failure);
+        }
+    }
+
+    // the thread delivering the events to one listener, following the producer at its own pace
+    private class Consumer {
+        private final MoveListener listener;
+        private final AtomicLong sequence; // the last event delivered (or lost)
+        private final MoveEvent event;
+        private final Thread thread;
+        private volatile long delivered;
+        private volatile long missed;
+        private volatile RuntimeException failure;
+
+        Consumer(MoveListener listener, long start) {
+            this.listener = listener;
+            this.sequence = new AtomicLong(start - 1);
+            this.event = new MoveEvent();
+            this.thread = new Thread(this::run, "move-listener");
+            this.thread.setDaemon(true);
+        }
+
+        private void run() {
+            long nextSequence = this.sequence.get() + 1;
+            int idle = 0;
+
+            try {
+                while (true) {
+                    long available = published.getAcquire();
+                    if (available < nextSequence) {
+                        if (closed && published.get() < nextSequence) {
+                            this.listener.onClose();
+                            return;
+                        }
+                        idle = this.idle(idle);
+                        continue;
+                    }
+                    idle = 0;
+
+                    while (nextSequence <= available) {
+                        long oldest = claimed.getAcquire() - mask; // slots before this one may already be overwritten
+                        if (nextSequence < oldest) {
+                            this.lose(oldest - nextSequence);
+                            nextSequence = oldest;
+                            continue;
+                        }
+
+                        this.event.copyFrom(ring[(int) nextSequence & mask]);
+                        VarHandle.loadLoadFence(); // the copy is read before the claim is checked again
+                        if (claimed.getAcquire() - nextSequence > mask) continue; // overwritten while copying, skip ahead
+
+                        this.dispatch();
+                        this.delivered++;
+                        this.sequence.setRelease(nextSequence++);
+                    }
+                }
+            } catch (RuntimeException e) {
+                this.failure = e;
+            }
+        }
+
+        private void dispatch() {
+            switch (this.event.getType()) {
+                case MOVE: this.listener.onMove(this.event); break;
+                case WIN: this.listener.onWin(this.event); break;
+                case TIE: this.listener.onTie(this.event); break;
+                case RESET: this.listener.onReset(this.event); break;
+            }
+        }
+
+        private void lose(long count) {
+            this.missed += count;
+            this.sequence.setRelease(this.sequence.get() + count);
+            this.listener.onOverrun(count);
+        }
+
+        // spins briefly, then parks for longer and longer (up to a millisecond) until events arrive
+        private int idle(int idle) {
+            if (idle < 64) Thread.onSpinWait();
+            else LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1000L << Math.min(10, (idle - 64) / 8)));
+            return idle + 1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+    Description:
+    MoveListener which writes every event of a game as a line of text to a file (e.g. "game 3 turn 2: Ann (X) placed
+    X at (1,1)"). It runs on the event bus's listener thread, so writing the file never holds up the game; the file is
+    flushed at the end of every game and closed when the bus is. Events lost to an overrun are noted in the file.
+
+    Fields:
+    - path: the file written to.
+    - writer: the buffered writer of the file.
+
+    Constructors:
+    - MoveEventLog(Path path): opens (and empties) the file.
+
+    Interface Method Implementations:
+    - onMove/onWin/onTie/onReset(MoveEvent event): writes the event.
+    - onOverrun(long missed): writes how many events were lost.
+    - onClose(): closes the file.
+*/
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MoveEventLog implements MoveListener {
+    private final Path path;
+    private final BufferedWriter writer;
+
+    // CONSTRUCTOR
+    public MoveEventLog(Path path) throws IOException {
+        this.path = path;
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+    }
+
+    // GETTER methods
+    public Path getPath() {
+        return this.path;
+    }
+
+    // INTERFACE METHOD IMPLEMENTATIONS
+    public void onMove(MoveEvent event) {
+        this.write(event.toString());
+    }
+
+    public void onWin(MoveEvent event) {
+        this.write(event.toString());
+    }
+
+    public void onTie(MoveEvent event) {
+        this.write(event.toString());
+    }
+
+    // a game just ended, so what was written so far is saved even if the program is stopped
+    public void onReset(MoveEvent event) {
+        this.write(event.toString());
+        try {
+            this.writer.flush();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing move events to " + this.path, e);
+        }
+    }
+
+    public void onOverrun(long missed) {
+        this.write(missed + " events were lost");
+    }
+
+    public void onClose() {
+        try {
+            this.writer.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing move events to " + this.path, e);
+        }
+    }
+
+    // HELPER methods
+    private void write(String line) {
+        try {
+            this.writer.write(line);
+            this.writer.newLine();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing move events to " + this.path, e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+    Description:
+    Interface for anything that follows the events of a board game (metrics, logging, spectators, ...). Listeners are
+    added to a MoveEventBus, which calls each one on its own thread, so a listener may take its time without slowing
+    the game down. The event passed in is only valid during the call and must be copied to be kept. A listener which
+    falls too far behind loses events (see onOverrun), so nothing the game depends on is a listener.
+
+    Default Methods (a listener only implements the events it needs):
+    - onMove(MoveEvent event): a piece was placed.
+    - onWin(MoveEvent event): a game was won, the event's team is the winner.
+    - onTie(MoveEvent event): a game ended in a tie.
+    - onReset(MoveEvent event): the board was cleared for the next game, the event's game number is the new game's.
+    - onOverrun(long missed): the listener fell a whole ring buffer behind the game, and this many events were lost.
+    - onClose(): the bus was closed and the listener was given every event published before, e.g. to close its files.
+*/
+
+public interface MoveListener {
+    default void onMove(MoveEvent event) {}
+
+    default void onWin(MoveEvent event) {}
+
+    default void onTie(MoveEvent event) {}
+
+    default void onReset(MoveEvent event) {}
+
+    default void onOverrun(long missed) {}
+
+    default void onClose() {}
+}
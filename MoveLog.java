@@ -0,0 +1,173 @@
+/*
+    Description:
+    Ordered log of the moves of one game, appended as every piece is placed. Each move is two ints in one flat array:
+    the turn it was played on, and its packed cell, symbol, and player (cell << 12 | symbol << 8 | player), where the
+    symbol and player are positions in small tables of the distinct symbols and players seen. A finished game's
+    history keeps a trimmed copy of the log instead of the Board, so it takes O(moves) ints instead of a grid of Cell
+    objects, and the moves are already in the order they were played.
+
+    Class Level Constants:
+    - MAX_SYMBOLS/MAX_PLAYERS/MAX_CELLS: the most distinct symbols, players, and cells a log can hold.
+
+    Fields:
+    - rows/columns: the size of the board the moves were played on.
+    - moves: two ints (turn, packed move) per move.
+    - size: the number of moves.
+    - symbols: the distinct symbols played, in the order they first appeared.
+    - players/teams: the distinct players who moved and the team each moved for.
+
+    Constructors:
+    - MoveLog(int rows, int columns): an empty log for a board of the given size.
+
+    Important Methods:
+    - add(int turn, int row, int column, char symbol, Team team, Player player): appends a move.
+    - getTurn/getCell/getRow/getColumn/getSymbol/getTeam/getPlayer(int move): the parts of a move.
+    - copy(): a copy holding exactly its moves, which is what a finished game's history keeps.
+    - clear(): forgets every move, symbol, and player so the log can be reused for the next game.
+    - appendMoves(StringBuilder data): appends every move in the data.txt format.
+*/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MoveLog {
+    private static final int MAX_SYMBOLS = 16;
+    private static final int MAX_PLAYERS = 256;
+    private static final int MAX_CELLS = 1 << 20;
+
+    private final int rows;
+    private final int columns;
+    private int[] moves;
+    private int size;
+    private char[] symbols;
+    private int symbolCount;
+    private final List<Player> players;
+    private final List<Team> teams;
+
+    // CONSTRUCTORS
+    public MoveLog(int rows, int columns) {
+        if (rows * columns > MAX_CELLS) throw new IllegalArgumentException("Boards with more than " + MAX_CELLS + " cells cannot be logged");
+        this.rows = rows;
+        this.columns = columns;
+        this.moves = new int[16];
+        this.symbols = new char[2];
+        this.players = new ArrayList<>();
+        this.teams = new ArrayList<>();
+    }
+
+    private MoveLog(MoveLog log) {
+        this.rows = log.rows;
+        this.columns = log.columns;
+        this.moves = Arrays.copyOf(log.moves, Math.max(2, log.size * 2));
+        this.size = log.size;
+        this.symbols = Arrays.copyOf(log.symbols, Math.max(1, log.symbolCount));
+        this.symbolCount = log.symbolCount;
+        this.players = new ArrayList<>(log.players);
+        this.teams = new ArrayList<>(log.teams);
+    }
+
+    // GETTER methods
+    public int getRows() {
+        return this.rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int getTurn(int move) {
+        return this.moves[this.checkMove(move) * 2];
+    }
+
+    public int getCell(int move) {
+        return this.moves[this.checkMove(move) * 2 + 1] >>> 12;
+    }
+
+    public int getRow(int move) {
+        return this.getCell(move) / this.columns;
+    }
+
+    public int getColumn(int move) {
+        return this.getCell(move) % this.columns;
+    }
+
+    public char getSymbol(int move) {
+        return this.symbols[(this.moves[this.checkMove(move) * 2 + 1] >>> 8) & 0xF];
+    }
+
+    public Player getPlayer(int move) {
+        return this.players.get(this.moves[this.checkMove(move) * 2 + 1] & 0xFF);
+    }
+
+    public Team getTeam(int move) {
+        return this.teams.get(this.moves[this.checkMove(move) * 2 + 1] & 0xFF);
+    }
+
+    // the distinct teams which moved, in the order they first moved
+    public List<Team> getTeams() {
+        List<Team> distinct = new ArrayList<>();
+        for (Team team : this.teams) if (!distinct.contains(team)) distinct.add(team);
+        return distinct;
+    }
+
+    // SETTER methods
+    public void add(int turn, int row, int column, char symbol, Team team, Player player) {
+        if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) throw new IllegalArgumentException("Move (" + row + "," + column + ") is off the board");
+        if (this.size * 2 == this.moves.length) this.moves = Arrays.copyOf(this.moves, this.moves.length * 2);
+
+        this.moves[this.size * 2] = turn;
+        this.moves[this.size * 2 + 1] = ((row * this.columns + column) << 12) | (this.getSymbolIndex(symbol) << 8) | this.getPlayerIndex(team, player);
+        this.size++;
+    }
+
+    public void clear() {
+        this.size = 0;
+        this.symbolCount = 0;
+        this.players.clear();
+        this.teams.clear();
+    }
+
+    public MoveLog copy() {
+        return new MoveLog(this);
+    }
+
+    // appends every move as "turn,(row,column),player,Piece symbol,Team team" lines, the same as Cell.toString
+    public void appendMoves(StringBuilder data) {
+        for (int i = 0; i < this.size; i++) {
+            data.append(this.getTurn(i)).append(",(").append(this.getRow(i)).append(",").append(this.getColumn(i)).append("),")
+                .append(this.getPlayer(i).getName()).append(",Piece ").append(this.getSymbol(i)).append(",Team ").append(this.getTeam(i).getName()).append("\n");
+        }
+    }
+
+    // HELPER methods
+    private int checkMove(int move) {
+        if (move < 0 || move >= this.size) throw new IndexOutOfBoundsException("No move " + move + " in a log of " + this.size);
+        return move;
+    }
+
+    private int getSymbolIndex(char symbol) {
+        for (int i = 0; i < this.symbolCount; i++) if (this.symbols[i] == symbol) return i;
+
+        if (this.symbolCount == MAX_SYMBOLS) throw new IllegalStateException("A move log can hold at most " + MAX_SYMBOLS + " symbols");
+        if (this.symbolCount == this.symbols.length) this.symbols = Arrays.copyOf(this.symbols, this.symbols.length * 2);
+        this.symbols[this.symbolCount] = symbol;
+        return this.symbolCount++;
+    }
+
+    // players are told apart by the team they moved for, so a player on two teams gets two entries
+    private int getPlayerIndex(Team team, Player player) {
+        for (int i = 0; i < this.players.size(); i++) {
+            if (this.players.get(i) == player && this.teams.get(i) == team) return i;
+        }
+
+        if (this.players.size() == MAX_PLAYERS) throw new IllegalStateException("A move log can hold at most " + MAX_PLAYERS + " players");
+        this.players.add(player);
+        this.teams.add(team);
+        return this.players.size() - 1;
+    }
+}
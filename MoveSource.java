@@ -0,0 +1,90 @@
+/*
+    Description:
+    Interface for anything that can decide moves for a board game: a human at the console, a scripted list of moves,
+    or a programmatic bot. A MoveSource can be given to a BoardGame (used for setup questions and every player that
+    has no source of its own) or to an individual Player, so console I/O is just one implementation and games can be
+    driven at machine speed without a terminal.
+
+    Abstract Methods:
+    - getNextCell(BoardGame game, Team team, Player player): returns the {row, column} of the next move, which must be valid.
+
+    Default Methods (answers used when nobody is asked, e.g. by bots):
+    - getNextPiece(BoardGame game, Team team, Player player): returns the piece symbol to place (Order and Chaos), the team's own symbol by default.
+    - getNextGameID(SuperTicTacToe game, Team team, Player player): returns the ID of the sub game to move in, the first unfinished one by default.
+    - getTeamPlayerNames(String teamName): returns the names of the players on a team, null for a single default player.
+    - getBoardSize(int maxRows, int maxColumns): returns the {rows, columns} of the board, null for the default size.
+    - getWinLength(int rows, int columns): returns the number of pieces in a row needed to win.
+    - isDone(): returns if no more games should be played.
+    - shouldSaveHistory(String filename): returns if the game histories should be saved to the file.
+    - isInteractive(): returns if the source waits on a person at a terminal.
+
+    Static Methods:
+    - createBot(String policy, long seed): returns the move source of a bot policy by name (random, negamax, mcts, tablebase), null if
+    unknown. The search bots take an optional time budget in milliseconds, e.g. negamax:500 or mcts:2000.
+    - createBot(String policy, long seed, int searchThreads): same, with an MCTS bot searching on searchThreads threads instead of
+    every core (e.g. 1 when many games are already played at once).
+*/
+
+public interface MoveSource {
+    int[] getNextCell(BoardGame game, Team team, Player player);
+
+    static MoveSource createBot(String policy, long seed) {
+        return createBot(policy, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    static MoveSource createBot(String policy, long seed, int searchThreads) {
+        String[] parts = policy.toLowerCase().split(":", 2);
+        long millis;
+        try {
+            millis = parts.length > 1 ? Long.parseLong(parts[1]) : -1;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (parts.length > 1 && millis < 1) return null;
+
+        switch (parts[0]) {
+            case "random": return new RandomMoveSource(seed);
+            case "negamax": return millis < 0 ? new NegamaxMoveSource() : new NegamaxMoveSource(millis);
+            case "tablebase": return new TablebaseMoveSource();
+            case "mcts": return new MctsMoveSource(searchThreads, millis < 0 ? MctsMoveSource.DEFAULT_TIME_LIMIT_MILLIS : millis, 0);
+            default: return null;
+        }
+    }
+
+    default char getNextPiece(BoardGame game, Team team, Player player) {
+        return team.getNumber() == 0 ? TicTacToe.TEAM_0_SYMBOL : TicTacToe.TEAM_1_SYMBOL;
+    }
+
+    default String getNextGameID(SuperTicTacToe game, Team team, Player player) {
+        for (TicTacToe[] gameRow : game.getGames()) {
+            for (TicTacToe subGame : gameRow) {
+                if (!subGame.isFinished()) return subGame.getGameID();
+            }
+        }
+        return game.getGames()[0][0].getGameID();
+    }
+
+    default String[] getTeamPlayerNames(String teamName) {
+        return null;
+    }
+
+    default int[] getBoardSize(int maxRows, int maxColumns) {
+        return null;
+    }
+
+    default int getWinLength(int rows, int columns) {
+        return Math.min(rows, columns);
+    }
+
+    default boolean isDone() {
+        return true;
+    }
+
+    default boolean shouldSaveHistory(String filename) {
+        return false;
+    }
+
+    default boolean isInteractive() {
+        return false;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+    Description:
+    Draws a grid of boards side by side (the layout of Board.boardsToString, used by SuperTicTacToe) into one char
+    buffer which is kept between frames. The separators and cell borders are written when the grid is first drawn,
+    and every sub-board's cells sit at fixed offsets in the buffer, so a frame only rewrites the cells of the boards
+    which changed since the last one: each board is remembered with its version (Board.getVersion, which changes with
+    every piece placed or removed), and a board which is the same object at the same version is skipped. The frame is
+    then written with a single print of the buffer. Any grid of equally sized boards can be drawn, not just 3x3.
+    A frame can also be drawn from a snapshot taken earlier (e.g. by the game thread for RenderThread), which copies
+    the symbols of the boards whose version changed since the last snapshot and shares the rest with it.
+
+    Fields:
+    - gridRows/gridColumns/boardRows/boardColumns: the layout of the buffer.
+    - lineLength: the length of every line of the buffer (they are all the same length, with the '\n').
+    - output: the text of the last frame.
+    - drawnBoards/drawnVersions: the board drawn in each slot of the grid and its version at the time.
+    - lastSnapshot: the last snapshot taken, whose copies of unchanged boards the next one reuses.
+
+    Constructors:
+    - MultiBoardRenderer(): a renderer which has not drawn anything yet.
+
+    Important Methods:
+    - render(Board[][] boards): the grid of boards as a String, the same as Board.boardsToString.
+    - display(Board[][] boards, PrintStream out): draws the grid with one write, redrawing only the boards which changed.
+    - snapshot(Board[][] boards)/display(Snapshot snapshot, PrintStream out): the same in two steps, which may run on different threads.
+*/
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+public class MultiBoardRenderer {
+    private int gridRows;
+    private int gridColumns;
+    private int boardRows;
+    private int boardColumns;
+    private int lineLength;
+    private char[] output;
+    private Board[] drawnBoards;
+    private int[] drawnVersions;
+    private Snapshot lastSnapshot;
+
+    // CONSTRUCTOR
+    public MultiBoardRenderer() {
+        this.output = new char[0];
+        this.drawnBoards = new Board[0];
+        this.drawnVersions = new int[0];
+    }
+
+    // GETTER methods
+    public static String render(Board[][] boards) {
+        MultiBoardRenderer renderer = new MultiBoardRenderer();
+        char[] text = renderer.update(renderer.snapshot(boards));
+        return new String(text, 0, text.length - 1); // without the newline display prints after the grid
+    }
+
+    // copies the symbols of the boards which changed since the last snapshot, sharing the copies of the others
+    public Snapshot snapshot(Board[][] boards) {
+        if (boards.length == 0 || boards[0].length == 0) throw new IllegalArgumentException("There are no boards to draw");
+        int rows = boards[0][0].getRows(), columns = boards[0][0].getColumns();
+        Snapshot last = this.lastSnapshot;
+        Snapshot snapshot = new Snapshot(boards.length, boards[0].length, rows, columns);
+        boolean sameLayout = last != null && last.gridRows == snapshot.gridRows && last.gridColumns == snapshot.gridColumns
+            && last.boardRows == rows && last.boardColumns == columns;
+
+        for (int gr = 0; gr < boards.length; gr++) {
+            if (boards[gr].length != snapshot.gridColumns) throw new IllegalArgumentException("Every row of the grid must hold the same number of boards");
+            for (int gc = 0; gc < snapshot.gridColumns; gc++) {
+                Board board = boards[gr][gc];
+                if (board.getRows() != rows || board.getColumns() != columns) throw new IllegalArgumentException("Every board in the grid must be the same size");
+
+                int slot = gr * snapshot.gridColumns + gc;
+                snapshot.boards[slot] = board;
+                snapshot.versions[slot] = board.getVersion();
+                if (sameLayout && last.boards[slot] == board && last.versions[slot] == board.getVersion()) {
+                    snapshot.symbols[slot] = last.symbols[slot];
+                    continue;
+                }
+
+                char[] symbols = new char[rows * columns];
+                for (int cell = 0; cell < symbols.length; cell++) symbols[cell] = board.getPieceSymbol(cell / columns, cell % columns);
+                snapshot.symbols[slot] = symbols;
+            }
+        }
+        this.lastSnapshot = snapshot;
+        return snapshot;
+    }
+
+    // DISPLAY methods
+    public void display(Board[][] boards, PrintStream out) {
+        this.display(this.snapshot(boards), out);
+    }
+
+    public void display(Snapshot snapshot, PrintStream out) {
+        out.print(this.update(snapshot));
+        out.flush();
+    }
+
+    // HELPER methods
+    // brings the buffer up to date with the snapshot and returns it
+    private char[] update(Snapshot snapshot) {
+        if (snapshot.gridRows != this.gridRows || snapshot.gridColumns != this.gridColumns || snapshot.boardRows != this.boardRows
+                || snapshot.boardColumns != this.boardColumns) {
+            this.layOut(snapshot.gridRows, snapshot.gridColumns, snapshot.boardRows, snapshot.boardColumns);
+        }
+
+        for (int gr = 0; gr < this.gridRows; gr++) {
+            for (int gc = 0; gc < this.gridColumns; gc++) {
+                int slot = gr * this.gridColumns + gc;
+                if (this.drawnBoards[slot] == snapshot.boards[slot] && this.drawnVersions[slot] == snapshot.versions[slot]) continue;
+
+                this.drawBoard(snapshot.symbols[slot], gr, gc);
+                this.drawnBoards[slot] = snapshot.boards[slot];
+                this.drawnVersions[slot] = snapshot.versions[slot];
+            }
+        }
+        return this.output;
+    }
+
+    // writes the separators and borders of a new layout, every board is drawn again afterwards
+    private void layOut(int gridRows, int gridColumns, int boardRows, int boardColumns) {
+        this.gridRows = gridRows;
+        this.gridColumns = gridColumns;
+        this.boardRows = boardRows;
+        this.boardColumns = boardColumns;
+        this.lineLength = gridColumns * (4 * boardColumns + 2) + 1;
+
+        StringBuilder separator = new StringBuilder(this.lineLength), border = new StringBuilder(this.lineLength);
+        for (int gc = 0; gc < gridColumns; gc++) {
+            for (int c = 0; c < boardColumns; c++) separator.append("+---");
+            separator.append("+ ");
+            border.append("| ");
+            for (int c = 0; c < boardColumns; c++) border.append("  | ");
+        }
+        separator.append('\n');
+        border.append('\n');
+
+        // a separator above and below every row of the boards, and a second one between rows of boards
+        StringBuilder text = new StringBuilder(separator);
+        for (int gr = 0; gr < gridRows; gr++) {
+            for (int br = 0; br < boardRows; br++) text.append(border).append(separator);
+            if (gr < gridRows - 1) text.append(separator);
+        }
+        text.append('\n'); // what println added after the grid
+
+        this.output = new char[text.length()];
+        text.getChars(0, text.length(), this.output, 0);
+        this.drawnBoards = new Board[gridRows * gridColumns];
+        this.drawnVersions = new int[gridRows * gridColumns];
+        Arrays.fill(this.drawnVersions, -1);
+    }
+
+    private void drawBoard(char[] symbols, int gridRow, int gridColumn) {
+        for (int r = 0; r < this.boardRows; r++) {
+            int line = 1 + gridRow * (2 * this.boardRows + 1) + 2 * r;
+            int offset = line * this.lineLength + gridColumn * (4 * this.boardColumns + 2) + 2;
+            for (int c = 0; c < this.boardColumns; c++) this.output[offset + 4 * c] = symbols[r * this.boardColumns + c];
+        }
+    }
+
+    // the boards of a grid at one moment: each board with its version and a copy of its symbols
+    public static class Snapshot {
+        private final int gridRows;
+        private final int gridColumns;
+        private final int boardRows;
+        private final int boardColumns;
+        private final Board[] boards;
+        private final int[] versions;
+        private final char[][] symbols;
+
+        private Snapshot(int gridRows, int gridColumns, int boardRows, int boardColumns) {
+            this.gridRows = gridRows;
+            this.gridColumns = gridColumns;
+            this.boardRows = boardRows;
+            this.boardColumns = boardColumns;
+            this.boards = new Board[gridRows * gridColumns];
+            this.versions = new int[gridRows * gridColumns];
+            this.symbols = new char[gridRows * gridColumns][];
+        }
+    }
+}
@@ -0,0 +1,432 @@
+/*
+    Description:
+    MoveSource for a TicTacToe bot which searches the game tree with negamax and alpha-beta pruning. It works on any
+    board size and win length by reusing the game's WinLines and per-line piece counts: the search keeps its own copy
+    of the counts, updating only the lines through each cell it places or removes, which makes move generation, the
+    win check and the static evaluation cheap. Moves are searched with iterative deepening until the time budget runs
+    out, best moves first (transposition table move, then immediate wins, blocks and threats). Positions are keyed with
+    their Zobrist hash (the same keys Board uses) into a fixed size transposition table that is kept between moves. On boards too large to search
+    completely only the cells near existing pieces are considered, and at most branchLimit of them per position.
+
+    Class Level Constants:
+    - DEFAULT_TIME_LIMIT_MILLIS: the time budget of a move unless another one is given.
+    - DEFAULT_TABLE_BITS: log2 of the default number of transposition table entries.
+    - WIN: the score of a win on the next move, wins further away score one less per ply.
+    - EXACT/LOWER/UPPER: the kind of bound a transposition table score is.
+
+    Fields:
+    - timeLimitNanos/branchLimit: how long a move may take and how many moves are searched per position.
+    - tableKeys/tableData: the transposition table, tableData packs the score, depth, bound kind and best move.
+    - lines/rows/columns/length/cellCount: the geometry of the board being searched.
+    - cellKeys/sideKey: the Zobrist keys of every (cell, side) pair and of the side to move, copied from Zobrist.
+    - counts: pieces of each side in every line, cells: the side in every cell (-1 for empty).
+    - hash/evaluation/emptyCount: the state of the searched position.
+    - lineWeights: the value of a line holding n pieces of one side and none of the other.
+    - moveBuffers/scoreBuffers/nearStamps: preallocated scratch space for move generation.
+    - lastDepth/lastNodes/lastNanos/lastScore: statistics of the last search.
+
+    Constructors:
+    - NegamaxMoveSource(): a bot with the default time budget.
+    - NegamaxMoveSource(long timeLimitMillis): a bot which spends up to the given time on each move.
+    - NegamaxMoveSource(long timeLimitMillis, int branchLimit, int tableBits): a bot with every setting given.
+
+    Interface Method Implementations:
+    - getNextCell(...): searches the current TicTacToe position and returns the best move found in time.
+
+    Important Methods:
+    - search(TicTacToe game, Team team): runs the iterative deepening search and returns the packed cell of the best move.
+    - getLastDepth()/getLastNodes()/getLastNodesPerSecond(): report on the last search.
+*/
+
+import java.util.Arrays;
+
+public class NegamaxMoveSource implements MoveSource {
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 100;
+    public static final int DEFAULT_TABLE_BITS = 18;
+    private static final int DEFAULT_BRANCH_LIMIT = 20;
+    private static final int WIN = 1 << 28;
+    private static final int MAX_PLY = 1 << 12;
+    private static final int INFINITY = WIN + 1;
+    private static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    private static final int NEAR_DISTANCE = 2; // how close to a piece a cell must be to be searched on large boards
+    private static final int FULL_WIDTH_CELLS = 25; // boards up to this size consider every empty cell
+
+    private final long timeLimitNanos;
+    private final int branchLimit;
+    private final long[] tableKeys;
+    private final long[] tableData;
+    private final int tableMask;
+
+    private WinLines lines;
+    private int rows, columns, length, cellCount;
+    private long[] cellKeys;
+    private long sideKey;
+    private int[][] counts;
+    private int[] cells;
+    private int[] occupiedCells;
+    private int occupiedCount;
+    private long hash;
+    private int evaluation;
+    private int emptyCount;
+    private int[] lineWeights;
+    private int[][] moveBuffers;
+    private int[][] scoreBuffers;
+    private int[] nearStamps;
+    private int stamp;
+
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int lastDepth;
+    private long lastNodes;
+    private long lastNanos;
+    private int lastScore;
+
+    // CONSTRUCTORS
+    public NegamaxMoveSource() {
+        this(DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    public NegamaxMoveSource(long timeLimitMillis) {
+        this(timeLimitMillis, DEFAULT_BRANCH_LIMIT, DEFAULT_TABLE_BITS);
+    }
+
+    public NegamaxMoveSource(long timeLimitMillis, int branchLimit, int tableBits) {
+        if (timeLimitMillis < 1 || branchLimit < 1 || tableBits < 1 || tableBits > 28) throw new IllegalArgumentException("Invalid search settings");
+        this.timeLimitNanos = timeLimitMillis * 1_000_000L;
+        this.branchLimit = branchLimit;
+        this.tableKeys = new long[1 << tableBits];
+        this.tableData = new long[1 << tableBits];
+        this.tableMask = (1 << tableBits) - 1;
+    }
+
+    // GETTER methods
+    public int getLastDepth() {
+        return this.lastDepth;
+    }
+
+    public long getLastNodes() {
+        return this.lastNodes;
+    }
+
+    public long getLastNodesPerSecond() {
+        return this.lastNanos == 0 ? 0 : this.lastNodes * 1_000_000_000L / this.lastNanos;
+    }
+
+    public int getLastScore() {
+        return this.lastScore;
+    }
+
+    // MOVE INPUT METHODS
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        if (!(game instanceof TicTacToe)) throw new IllegalArgumentException("The negamax bot only plays TicTacToe");
+
+        int cell = this.search((TicTacToe) game, team);
+        // the search stats go through the game, so they reach its output (a terminal or a GameServer socket) in order with the boards
+        game.displayMessage("[" + player.getName() + "] depth " + this.lastDepth + ", " + this.lastNodes + " nodes, "
+            + this.getLastNodesPerSecond() + " nodes/sec, score " + this.lastScore);
+        return new int[] {cell / this.columns, cell % this.columns};
+    }
+
+    // searches the game's position for the given team with iterative deepening and returns the best packed cell
+    public int search(TicTacToe game, Team team) {
+        long start = System.nanoTime();
+        this.load(game);
+        int side = team.getNumber();
+        if (this.emptyCount == 0) throw new IllegalStateException("The board is full");
+
+        this.nodes = 0;
+        this.aborted = false;
+        this.deadline = start + this.timeLimitNanos;
+
+        int bestCell = this.generateMoves(0, side, -1) > 0 ? this.moveBuffers[0][0] : -1; // fallback if depth 1 runs out of time
+        int bestScore = 0, depth = 0;
+
+        for (int d = 1; d <= this.emptyCount && d < MAX_PLY; d++) {
+            int score = this.negamax(d, -INFINITY, INFINITY, 0, side);
+            if (this.aborted) break;
+
+            depth = d;
+            bestScore = score;
+            int move = this.getTableMove(this.hash ^ (side == 1 ? this.sideKey : 0));
+            if (move >= 0) bestCell = move;
+
+            if (Math.abs(score) >= WIN - MAX_PLY) break; // the result is proven
+            if (System.nanoTime() - start > this.timeLimitNanos / 2) break; // the next depth would not finish in time
+        }
+
+        this.lastDepth = depth;
+        this.lastNodes = this.nodes;
+        this.lastNanos = System.nanoTime() - start;
+        this.lastScore = bestScore;
+        return bestCell;
+    }
+
+    // SEARCH methods
+    private int negamax(int depth, int alpha, int beta, int ply, int side) {
+        if ((++this.nodes & 1023) == 0 && System.nanoTime() > this.deadline) this.aborted = true;
+        if (this.aborted) return 0;
+
+        long key = this.hash ^ (side == 1 ? this.sideKey : 0);
+        int slot = (int) key & this.tableMask;
+        int tableMove = -1;
+        int alphaOriginal = alpha;
+
+        if (this.tableKeys[slot] == key) {
+            long data = this.tableData[slot];
+            tableMove = unpackMove(data);
+            if (unpackDepth(data) >= depth) {
+                int score = fromTableScore(unpackScore(data), ply);
+                int bound = unpackBound(data);
+                if (bound == EXACT) return score;
+                if (bound == LOWER) alpha = Math.max(alpha, score);
+                else beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+        }
+
+        if (depth == 0) return side == 0 ? this.evaluation : -this.evaluation;
+
+        int moveCount = this.generateMoves(ply, side, tableMove);
+        int[] moves = this.moveBuffers[ply];
+        int best = -INFINITY, bestMove = -1;
+
+        for (int i = 0; i < moveCount; i++) {
+            int cell = moves[i];
+            int score;
+            if (this.place(cell, side)) score = WIN - ply - 1;
+            else if (this.emptyCount == 0) score = 0;
+            else score = -this.negamax(depth - 1, -beta, -alpha, ply + 1, 1 - side);
+            this.remove(cell, side);
+            if (this.aborted) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = cell;
+                if (score > alpha) alpha = score;
+                if (alpha >= beta) break;
+            }
+        }
+
+        int bound = best <= alphaOriginal ? UPPER : (best >= beta ? LOWER : EXACT);
+        this.tableKeys[slot] = key;
+        this.tableData[slot] = pack(toTableScore(best, ply), depth, bound, bestMove);
+        return best;
+    }
+
+    // fills moveBuffers[ply] with the moves of a position, best first, and returns how many there are
+    private int generateMoves(int ply, int side, int tableMove) {
+        int[] moves = this.moveBuffers[ply];
+        int[] scores = this.scoreBuffers[ply];
+        int count = 0;
+
+        if (this.cellCount <= FULL_WIDTH_CELLS || this.occupiedCount == 0) {
+            for (int cell = 0; cell < this.cellCount; cell++) {
+                if (this.cells[cell] < 0) count = this.addMove(moves, scores, count, cell, side, tableMove);
+            }
+        } else {
+            // only the empty cells close to a piece, each one visited once thanks to the stamp
+            this.stamp++;
+            for (int o = 0; o < this.occupiedCount; o++) {
+                int occupied = this.occupiedCells[o];
+                int row = occupied / this.columns, column = occupied % this.columns;
+                for (int r = Math.max(0, row - NEAR_DISTANCE); r <= Math.min(this.rows - 1, row + NEAR_DISTANCE); r++) {
+                    for (int c = Math.max(0, column - NEAR_DISTANCE); c <= Math.min(this.columns - 1, column + NEAR_DISTANCE); c++) {
+                        int cell = r * this.columns + c;
+                        if (this.cells[cell] >= 0 || this.nearStamps[cell] == this.stamp) continue;
+                        this.nearStamps[cell] = this.stamp;
+                        count = this.addMove(moves, scores, count, cell, side, tableMove);
+                    }
+                }
+            }
+        }
+
+        // partial selection sort, only as far as the moves that will be searched
+        int limit = Math.min(count, this.branchLimit);
+        for (int i = 0; i < limit; i++) {
+            int best = i;
+            for (int j = i + 1; j < count; j++) if (scores[j] > scores[best]) best = j;
+            int move = moves[i]; moves[i] = moves[best]; moves[best] = move;
+            int score = scores[i]; scores[i] = scores[best]; scores[best] = score;
+        }
+        return limit;
+    }
+
+    private int addMove(int[] moves, int[] scores, int count, int cell, int side, int tableMove) {
+        moves[count] = cell;
+        scores[count] = cell == tableMove ? Integer.MAX_VALUE : this.scoreMove(cell, side);
+        return count + 1;
+    }
+
+    // how much placing a piece in the cell helps: completing a line first, then blocking one, then building threats
+    private int scoreMove(int cell, int side) {
+        int score = 0;
+        int[] mine = this.counts[side], theirs = this.counts[1 - side];
+
+        for (int i = this.lines.getLinesThroughCellStart(cell); i < this.lines.getLinesThroughCellEnd(cell); i++) {
+            int line = this.lines.getCellLine(i);
+            if (theirs[line] == 0) {
+                if (mine[line] == this.length - 1) score += WIN;
+                else score += this.lineWeights[mine[line] + 1] - this.lineWeights[mine[line]] + 1;
+            }
+            if (mine[line] == 0) {
+                if (theirs[line] == this.length - 1) score += WIN >> 1;
+                else score += this.lineWeights[theirs[line]];
+            }
+        }
+
+        return Math.min(score, Integer.MAX_VALUE - 1);
+    }
+
+    // places a piece for the side, returning if it completes a line
+    private boolean place(int cell, int side) {
+        boolean won = false;
+        int[] mine = this.counts[side], theirs = this.counts[1 - side];
+
+        for (int i = this.lines.getLinesThroughCellStart(cell); i < this.lines.getLinesThroughCellEnd(cell); i++) {
+            int line = this.lines.getCellLine(i);
+            this.evaluation -= this.lineValue(line);
+            if (++mine[line] == this.length && theirs[line] == 0) won = true;
+            this.evaluation += this.lineValue(line);
+        }
+
+        this.cells[cell] = side;
+        this.occupiedCells[this.occupiedCount++] = cell;
+        this.hash ^= this.cellKeys[cell * 2 + side];
+        this.emptyCount--;
+        return won;
+    }
+
+    private void remove(int cell, int side) {
+        int[] mine = this.counts[side];
+
+        for (int i = this.lines.getLinesThroughCellStart(cell); i < this.lines.getLinesThroughCellEnd(cell); i++) {
+            int line = this.lines.getCellLine(i);
+            this.evaluation -= this.lineValue(line);
+            mine[line]--;
+            this.evaluation += this.lineValue(line);
+        }
+
+        this.cells[cell] = -1;
+        this.occupiedCount--; // moves are always removed in the reverse order they were placed
+        this.hash ^= this.cellKeys[cell * 2 + side];
+        this.emptyCount++;
+    }
+
+    // value of a line for side 0: positive while only side 0 can still complete it, negative for side 1
+    private int lineValue(int line) {
+        int x = this.counts[0][line], o = this.counts[1][line];
+        if (x > 0 && o == 0) return this.lineWeights[x];
+        if (o > 0 && x == 0) return -this.lineWeights[o];
+        return 0;
+    }
+
+    // HELPER methods
+    // copies the game's position into the search state, rebuilding the tables when the board geometry changes
+    private void load(TicTacToe game) {
+        WinLines winLines = game.getWinLines();
+        if (this.lines == null || winLines.getRows() != this.rows || winLines.getColumns() != this.columns || winLines.getLength() != this.length) {
+            this.allocate(winLines);
+        }
+        this.lines = winLines; // same geometry, so the cached tables still apply
+
+        Board board = game.getBoard();
+        this.occupiedCount = 0;
+        this.emptyCount = this.cellCount;
+        this.evaluation = 0;
+
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            char symbol = board.getPieceSymbol(cell / this.columns, cell % this.columns);
+            int side = symbol == TicTacToe.TEAM_0_SYMBOL ? 0 : (symbol == TicTacToe.TEAM_1_SYMBOL ? 1 : -1);
+            this.cells[cell] = side;
+            if (side < 0) continue;
+
+            this.occupiedCells[this.occupiedCount++] = cell;
+            this.emptyCount--;
+        }
+
+        // a standalone board already knows its hash, sub boards of a super game use keys of their own
+        if (board.getHashBoardIndex() == 0) {
+            this.hash = board.getHash();
+        } else {
+            this.hash = 0;
+            for (int o = 0; o < this.occupiedCount; o++) {
+                int cell = this.occupiedCells[o];
+                this.hash ^= this.cellKeys[cell * 2 + this.cells[cell]];
+            }
+        }
+
+        for (int line = 0; line < this.lines.getLineCount(); line++) {
+            this.counts[0][line] = game.getLinePieceCount(line, 0);
+            this.counts[1][line] = game.getLinePieceCount(line, 1);
+            this.evaluation += this.lineValue(line);
+        }
+    }
+
+    private void allocate(WinLines winLines) {
+        this.lines = winLines;
+        this.rows = winLines.getRows();
+        this.columns = winLines.getColumns();
+        this.length = winLines.getLength();
+        this.cellCount = this.rows * this.columns;
+
+        // the keys only depend on the cell and side so the table stays valid for every game on a board of this size
+        this.cellKeys = new long[this.cellCount * 2];
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            this.cellKeys[cell * 2] = Zobrist.getPieceKey(0, cell, TicTacToe.TEAM_0_SYMBOL);
+            this.cellKeys[cell * 2 + 1] = Zobrist.getPieceKey(0, cell, TicTacToe.TEAM_1_SYMBOL);
+        }
+        this.sideKey = Zobrist.getSideKey(1);
+        Arrays.fill(this.tableKeys, 0);
+
+        this.counts = new int[2][winLines.getLineCount()];
+        this.cells = new int[this.cellCount];
+        this.occupiedCells = new int[this.cellCount];
+        this.nearStamps = new int[this.cellCount];
+        this.lineWeights = new int[this.length + 1];
+        for (int n = 1; n <= this.length; n++) this.lineWeights[n] = Math.min(1 << Math.min(2 * n, 20), WIN >> 8);
+
+        int plies = Math.min(this.cellCount, MAX_PLY) + 1;
+        this.moveBuffers = new int[plies][this.cellCount];
+        this.scoreBuffers = new int[plies][this.cellCount];
+    }
+
+    private int getTableMove(long key) {
+        int slot = (int) key & this.tableMask;
+        return this.tableKeys[slot] == key ? unpackMove(this.tableData[slot]) : -1;
+    }
+
+    // win scores are stored relative to the position they were found in, so they stay correct at any ply
+    private static int toTableScore(int score, int ply) {
+        if (score >= WIN - MAX_PLY) return score + ply;
+        if (score <= -WIN + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTableScore(int score, int ply) {
+        if (score >= WIN - MAX_PLY) return score - ply;
+        if (score <= -WIN + MAX_PLY) return score + ply;
+        return score;
+    }
+
+    // table data layout: score (32 bits) | depth (12 bits) | bound (2 bits) | move + 1 (18 bits)
+    private static long pack(int score, int depth, int bound, int move) {
+        return ((long) score << 32) | ((long) depth << 20) | ((long) bound << 18) | (move + 1);
+    }
+
+    private static int unpackScore(long data) {
+        return (int) (data >> 32);
+    }
+
+    private static int unpackDepth(long data) {
+        return (int) (data >>> 20) & 0xFFF;
+    }
+
+    private static int unpackBound(long data) {
+        return (int) (data >>> 18) & 0x3;
+    }
+
+    private static int unpackMove(long data) {
+        return (int) (data & 0x3FFFF) - 1;
+    }
+}
@@ -14,15 +14,17 @@
 
     Constructors:  
     - OrderAndChaos(): Initializes the board, generates winning positions from win length, assigns teams, and sets the game type.  
+    - OrderAndChaos(MoveSource moveSource): Same as above, asking the given move source instead of the console.  
+    - OrderAndChaos(int rows, int columns, int winLength, Team[] teams): Initializes a game with the given settings without user input.  
 
     Abstract Method Implementations:  
-    - playGame(): Controls the game loop, alternating turns between ORDER and CHAOS, checking for a winner, and handling game resets.  
-    - makeNextMove(): Handles player input for placing a piece (X or O) and updates the board.  
-    - isWinner(): Checks if any winning condition has been met for the ORDER team only.
+    - playRound(): Controls the game loop, alternating turns between ORDER and CHAOS, checking for a winner, and handling game resets.  
+    - makeNextMove(): Gets the player's cell and piece (X or O) from their move source and updates the board.  
+    - isChaosWinForced(): Checks if every winning position already holds both symbols, so ORDER can no longer win.
+    - isWinner(): Checks if any winning condition has been met for the ORDER team only (by default from the per symbol line counters).
+    - getPieceOwner(GamePiece piece, Team team): Counts pieces in the line counters by symbol rather than by team.
 */
 
-import java.util.List;
-
 public class OrderAndChaos extends ConsecutivePiecesGame {
     // CLASS LEVEL CONSTANTS
     private static final int DEFAULT_WIN_LENGTH = 5; // need 5 in a row to win
@@ -34,56 +36,60 @@ public class OrderAndChaos extends ConsecutivePiecesGame {
 
     // CONSTRUCTORS
     public OrderAndChaos() {
+        this(new ConsoleMoveSource());
+    }
+
+    // Order and Chaos game set up without any user input, e.g. for simulations (teams must be named ORDER and CHAOS)
+    public OrderAndChaos(int rows, int columns, int winLength, Team[] teams) {
+        super(rows, columns, GAME_NAME);
+        this.setWinLength(winLength);
+        this.getBoard().setGameType(GAME_NAME);
+        this.setTeams(teams);
+    }
+
+    // Order and Chaos game whose setup answers and moves come from the given move source
+    public OrderAndChaos(MoveSource moveSource) {
         super(ROWS, COLS, GAME_NAME);
+        this.setMoveSource(moveSource);
         this.setWinLength(DEFAULT_WIN_LENGTH);
         this.getBoard().setGameType(GAME_NAME);
         this.setTeamsFromUserInput(TEAM_0_NAME, TEAM_1_NAME);
     }
 
     // ABSTRACT METHOD IMPLEMENTATIONS
-    public void playGame() {
-        Board board = this.getBoard();
-        board.displayBoard();
+    // plays a single game until ORDER gets winLength in a row or CHAOS stops them, then resets the board for the next game
+    public Team playRound() {
+        this.updateDisplay();
         Team orderTeam = this.getTeamByName(TEAM_0_NAME);
         Team chaosTeam = this.getTeamByName(TEAM_1_NAME);
 
         while (true) {
             this.makeNextMove();
-            board.displayBoard();
+            this.updateDisplay();
 
             boolean orderWon = this.isWinner();
 
             if (orderWon) {
                 this.setWinner(orderTeam);
-                System.out.println("Congratulations team ORDER! You won the game!");
+                this.displayMessage("Congratulations team ORDER! You won the game!");
                 orderTeam.incrementPlayerwinCounts();
 
                 this.reset(GAME_NAME);
-                board = this.getBoard();
-
-                if (this.isUserDone()) {
-                    break;
-                } else {
-                    board.displayBoard();
-                }
-            } else if (this.getIsBoardFull()) {
+                return orderTeam;
+            } else if (this.getIsBoardFull() || this.isChaosWinForced()) {
+                boolean endedEarly = !this.getIsBoardFull();
                 this.setWinner(chaosTeam);
-                System.out.println("Congratulations team CHAOS! You won the game!"); // if board full w/o 5 in a row, CHAOS wins
+                if (endedEarly) this.displayMessage("ORDER can no longer complete a line.");
+                this.displayMessage("Congratulations team CHAOS! You won the game!"); // if board full w/o 5 in a row, CHAOS wins
                 chaosTeam.incrementPlayerwinCounts();
 
-                this.reset(GAME_NAME);
-                board = this.getBoard();
-
-                if (this.isUserDone()) {
-                    break;
-                } else {
-                    board.displayBoard();
-                }
+                this.reset(GAME_NAME, endedEarly);
+                return chaosTeam;
             } else {
                 this.incrementTurnNumber();
             }
         }
-    };
+    }
 
     public void makeNextMove() {
         Team currentTeam = this.getCurrentTeam(); // the team whose turn it is currently
@@ -91,48 +97,58 @@ public class OrderAndChaos extends ConsecutivePiecesGame {
         Cell inputCell = this.getNextPlayerInputCell(currentTeam, currentPlayer);
 
         // Order and chaos allows either player to play either game piece
-        System.out.print("[TEAM " + currentTeam.getName() + "] " + currentPlayer.getName() + " enter your game piece (X/O):\t");
-        String input;
-        GamePiece piece;
-
-        while (true) {
-            try {
-                input = this.getScanner().next();
-                char symbol = Character.toUpperCase(input.charAt(0));
+        char symbol = this.getMoveSource(currentPlayer).getNextPiece(this, currentTeam, currentPlayer);
+        if (symbol != 'X' && symbol != 'O') throw new IllegalStateException("Invalid game piece " + symbol + " from " + currentPlayer.getName());
+        GamePiece piece = new GamePiece(symbol);
 
-                if (symbol != 'X' && symbol != 'O') throw new IllegalArgumentException();
+        this.placePiece(piece, currentTeam, this.getTurnNumber(), currentPlayer, inputCell.getRow(), inputCell.getColumn());
+    };
 
-                piece = new GamePiece(symbol);
-                break;
-            } catch (Exception e) {
-                System.out.print("Invalid game piece. Please enter a valid piece (X/O):\t");
-            }
-        }
+    // CHAOS has won as soon as every winning position holds both an X and an O
+    public boolean isChaosWinForced() {
+        return this.getLiveLineCount() == 0;
+    }
 
-        inputCell.setAllFields(piece, currentTeam, this.getTurnNumber(), currentPlayer);
-    };
+    // the line counters are kept per symbol rather than per team since either team may place either piece
+    protected int getPieceOwner(GamePiece piece, Team team) {
+        if (piece == null) return -1;
+        if (piece.getSymbol() == 'X') return 0;
+        if (piece.getSymbol() == 'O') return 1;
+        return -1;
+    }
 
     public boolean isWinner() {
         Board board = this.getBoard();
 
-        for (List<int[]> position : this.getWinPositions()) {
-            GamePiece[] pieces = new GamePiece[position.size()];
+        // the line counters already know if either symbol filled a line
+        if (this.getWinCheckMode() == WinCheckMode.LINE_COUNTERS) return this.hasCompletedLine(0) || this.hasCompletedLine(1);
 
-            for (int i = 0; i < position.size(); i++) {
-                int[] coordinate = position.get(i);
-                int x = coordinate[0], y = coordinate[1];
-                GamePiece piece = board.getCell(x, y).getValue();
-                pieces[i] = piece;
-            }
+        // only the lines through the last move can hold a new win, for whichever symbol was placed there
+        if (this.getWinCheckMode() == WinCheckMode.LAST_MOVE) {
+            if (!this.hasLastMove()) return false;
+            int row = this.getLastMoveRow(), column = this.getLastMoveColumn();
+            return this.isWinningMove(row, column, board.getPieceSymbol(row, column));
+        }
+
+        // bitboards can check every winning position at once with word level bit operations
+        if (board instanceof BitBoard) {
+            BitBoard bitBoard = (BitBoard) board;
+            return bitBoard.hasConsecutiveSymbols('X', this.getWinLength()) || bitBoard.hasConsecutiveSymbols('O', this.getWinLength());
+        }
+
+        WinLines lines = this.getWinLines();
+        int columns = lines.getColumns();
 
-            // check if all pieces are equal
-            GamePiece firstPiece = pieces[0];
-            if (firstPiece == null) continue;
-            char firstSymbol = firstPiece.getSymbol();
+        for (int line = 0; line < lines.getLineCount(); line++) {
+            // check if all pieces are equal to the first piece in the line
+            int firstCell = lines.getLineCell(line, 0);
+            char firstSymbol = board.getPieceSymbol(firstCell / columns, firstCell % columns);
+            if (firstSymbol == ' ') continue;
 
-            for (int i = 0; i < pieces.length; i++) {
-                if (pieces[i] == null || pieces[i].getSymbol() != firstSymbol) break;
-                if (i == pieces.length - 1) return true; // order wins if 6 in a row in a winning position
+            for (int i = 0; i < lines.getLength(); i++) {
+                int cell = lines.getLineCell(line, i);
+                if (board.getPieceSymbol(cell / columns, cell % columns) != firstSymbol) break;
+                if (i == lines.getLength() - 1) return true; // order wins if winLength in a row in a winning position
             }
         }
 
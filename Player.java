@@ -6,35 +6,48 @@
     - DEFAULT_PLAYER_NAME: A class level constant string representing default player name.  
     - name: The name of the player, defaults to "Anonymous Player" if not provided.  
     - winCount: The number of wins the player has accumulated.  
+    - moveSource: Where the player's moves come from, or null to use the game's move source (the console by default).  
 
     Constructors:  
     - Player(): Initializes a player with the default name and a win count of 0.  
     - Player(String name): Initializes a player with a given name and a win count of 0.  
+    - Player(String name, MoveSource moveSource): Initializes a player whose moves come from the given source (e.g. a bot).  
 
     Getter Methods:  
     - getName(): Returns the name of the player.  
     - getWinCount(): Returns the number of wins the player has.  
+    - getMoveSource(): Returns the player's move source.  
 
     Setter Methods:  
     - setName(String name): Updates the player's name.  
     - setWinCount(int winCount): Sets the player's win count to a specified value.  
     - incrementWinCount(): Increases the player's win count by 1.  
+    - setMoveSource(MoveSource moveSource): Sets where the player's moves come from.  
 */
 
 public class Player {
     private String name;
     private int winCount;
+    private MoveSource moveSource;
     private static final String DEFAULT_PLAYER_NAME = "Anonymous Player";
 
     // CONSTRUCTORS
     public Player() {
         this.name = DEFAULT_PLAYER_NAME;
         this.winCount = 0;
+        this.moveSource = null;
     }
     
     public Player(String name) {
         this.name = name;
         this.winCount = 0;
+        this.moveSource = null;
+    }
+
+    public Player(String name, MoveSource moveSource) {
+        this.name = name;
+        this.winCount = 0;
+        this.moveSource = moveSource;
     }
 
     // GETTER METHODS
@@ -46,6 +59,10 @@ public class Player {
         return this.winCount;
     }
 
+    public MoveSource getMoveSource() {
+        return this.moveSource;
+    }
+
     // SETTER METHODS
     public void setName(String name) {
         this.name = name;
@@ -58,4 +75,8 @@ public class Player {
     public void incrementWinCount() {
         this.winCount += 1;
     }
+
+    public void setMoveSource(MoveSource moveSource) {
+        this.moveSource = moveSource;
+    }
 }
@@ -0,0 +1,639 @@
+/*
+    Description:
+    Persistent store of every player's wins, losses, and draws per game type, keyed by player name, so results survive
+    the end of a session. The store is two files:
+    - the snapshot (PATH): every player's record plus an open addressing hash table of (name hash, record offset)
+    slots. It is memory mapped read only, so opening the store does not read it, and looking a player up costs a
+    probe or two of the table and decoding one record whatever the number of players.
+    - the log (PATH.log): the result of every game recorded since the snapshot was written, appended as games end.
+    Opening the store replays the log into a small map of changed players, which is all it holds on the heap.
+    Once the log holds compactThreshold results the snapshot is compacted: the changed records replace their old
+    versions in a new snapshot, which is written beside the old one, moved over it, and followed by an empty log.
+    Both files carry a generation number, so a log left over from a compaction that stopped before the log was
+    emptied is recognised as already compacted and not counted twice. A partly written last result (e.g. the program
+    was killed) is cut off when the log is replayed. The snapshot is mapped in one piece, so it is limited to 2 GB.
+
+    Usage:
+    java PlayerStatsStore file=PATH [player=NAME] [compact=true]
+    - prints the number of players, then the named player's record, compacting first if asked to.
+
+    Class Level Constants:
+    - SNAPSHOT_MAGIC/LOG_MAGIC/VERSION: the first bytes of the files.
+    - SNAPSHOT_HEADER_SIZE/LOG_HEADER_SIZE: the size of the headers.
+    - DEFAULT_COMPACT_THRESHOLD: the default number of logged results which triggers a compaction.
+    - WIN/LOSS/DRAW: the results a player can be given.
+
+    Fields:
+    - path/logPath: the snapshot and log files.
+    - compactThreshold: the number of logged results which triggers a compaction.
+    - generation: the generation of the snapshot, which the log must match.
+    - snapshot: the mapped snapshot, or null before the first compaction.
+    - snapshotPlayers/slotCount/slotsOffset: the number of players in the snapshot and where its hash table is.
+    - gameTypes/gameTypeIds: every game type in the snapshot and log, the snapshot refers to them by position.
+    - changed: the players whose results were logged since the snapshot, with their full records.
+    - newPlayers: how many players in changed are not in the snapshot.
+    - log/logBuffer/loggedResults: the open log, its unwritten results, and the number of results in it.
+
+    Constructors:
+    - PlayerStatsStore(Path path): opens (or creates) a store with the default compaction threshold.
+    - PlayerStatsStore(Path path, int compactThreshold): the same with the given threshold.
+
+    Important Methods:
+    - get(String name): the player's record, or null if they have never played.
+    - getPlayerCount(): the number of players in the store.
+    - record(String name, String gameType, int result): counts one result for a player.
+    - recordGame(String gameType, Team[] teams, Team winner): counts a finished game for every player (null winner for a tie).
+    - flush(): writes the logged results to disk.
+    - compact(): writes a new snapshot holding every result and empties the log.
+    - close(): flushes and closes the log.
+*/
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PlayerStatsStore implements AutoCloseable {
+    private static final int SNAPSHOT_MAGIC = 0x50535331; // "PSS1"
+    private static final int LOG_MAGIC = 0x50534c31; // "PSL1"
+    private static final int VERSION = 1;
+    private static final int SNAPSHOT_HEADER_SIZE = 32;
+    private static final int LOG_HEADER_SIZE = 16;
+    private static final int LOG_BUFFER_BYTES = 1 << 16;
+    public static final int DEFAULT_COMPACT_THRESHOLD = 1 << 14;
+    public static final int WIN = 0;
+    public static final int LOSS = 1;
+    public static final int DRAW = 2;
+
+    private final Path path;
+    private final Path logPath;
+    private final int compactThreshold;
+    private long generation;
+    private MappedByteBuffer snapshot;
+    private int snapshotPlayers;
+    private int slotCount;
+    private int slotsOffset;
+    private final List<String> gameTypes;
+    private final Map<String, Integer> gameTypeIds;
+    private final Map<String, Stats> changed;
+    private int newPlayers;
+    private FileChannel log;
+    private final ByteBuffer logBuffer;
+    private int loggedResults;
+
+    // CONSTRUCTORS
+    public PlayerStatsStore(Path path) throws IOException {
+        this(path, DEFAULT_COMPACT_THRESHOLD);
+    }
+
+    public PlayerStatsStore(Path path, int compactThreshold) throws IOException {
+        if (compactThreshold < 1) throw new IllegalArgumentException("The compaction threshold must be positive");
+        this.path = path;
+        this.logPath = Paths.get(path + ".log");
+        this.compactThreshold = compactThreshold;
+        this.gameTypes = new ArrayList<>();
+        this.gameTypeIds = new HashMap<>();
+        this.changed = new HashMap<>();
+        this.logBuffer = ByteBuffer.allocate(LOG_BUFFER_BYTES);
+
+        if (Files.exists(path)) this.mapSnapshot();
+        this.openLog();
+    }
+
+    // GETTER methods
+    public Path getPath() {
+        return this.path;
+    }
+
+    public synchronized int getPlayerCount() {
+        return this.snapshotPlayers + this.newPlayers;
+    }
+
+    public synchronized int getLoggedResults() {
+        return this.loggedResults;
+    }
+
+    // a copy of the player's record, so it can be kept and read while the store changes
+    public synchronized Stats get(String name) {
+        Stats stats = this.changed.get(name);
+        if (stats == null) stats = this.readSnapshot(name);
+        return stats == null ? null : new Stats(stats);
+    }
+
+    // SETTER methods
+    public synchronized void record(String name, String gameType, int result) throws IOException {
+        if (result < WIN || result > DRAW) throw new IllegalArgumentException("Unknown result " + result);
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8), typeBytes = gameType.getBytes(StandardCharsets.UTF_8);
+        int length = varintSize(nameBytes.length) + nameBytes.length + varintSize(typeBytes.length) + typeBytes.length + 1;
+        if (varintSize(length) + length > this.logBuffer.capacity()) throw new IllegalArgumentException("Player name " + name + " is too long");
+        if (this.logBuffer.remaining() < varintSize(length) + length) this.writeLogBuffer();
+        this.apply(name, gameType, result);
+
+        putVarint(this.logBuffer, length);
+        putString(this.logBuffer, nameBytes);
+        putString(this.logBuffer, typeBytes);
+        this.logBuffer.put((byte) result);
+
+        if (++this.loggedResults >= this.compactThreshold) this.compact();
+    }
+
+    // every player on the winning team wins and every other player loses, or all of them draw
+    public synchronized void recordGame(String gameType, Team[] teams, Team winner) throws IOException {
+        for (Team team : teams) {
+            int result = winner == null ? DRAW : (team == winner ? WIN : LOSS);
+            for (Player player : team.getTeam()) this.record(player.getName(), gameType, result);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        this.writeLogBuffer();
+    }
+
+    // writes every record into a new snapshot next to the old one, moves it over the old one, then empties the log
+    public synchronized void compact() throws IOException {
+        this.writeLogBuffer();
+        int players = this.getPlayerCount();
+        int slots = Integer.highestOneBit(Math.max(4, players * 2 - 1)) << 1; // at most half full
+        long[] table = new long[slots];
+
+        ByteBuffer types = ByteBuffer.allocate(64);
+        types.putInt(this.gameTypes.size());
+        for (String type : this.gameTypes) {
+            byte[] bytes = type.getBytes(StandardCharsets.UTF_8);
+            if (types.remaining() < 5 + bytes.length) types = grow(types, 5 + bytes.length);
+            putString(types, bytes);
+        }
+        types.flip();
+        int typesLength = types.remaining();
+        long recordsOffset = SNAPSHOT_HEADER_SIZE + typesLength + slots * 8L;
+
+        Path temporary = Paths.get(this.path + ".tmp");
+        try (FileChannel out = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(LOG_BUFFER_BYTES), record = ByteBuffer.allocate(256);
+            long position = recordsOffset;
+
+            // the players of the old snapshot in their order, taking the changed record where there is one
+            if (this.snapshot != null) {
+                ByteBuffer records = this.snapshot.duplicate();
+                records.position(this.slotsOffset + this.slotCount * 8);
+                for (int p = 0; p < this.snapshotPlayers; p++) {
+                    int start = records.position();
+                    Stats stats = this.changed.get(this.decodeName(records, start));
+                    if (stats == null) stats = this.decodeStats(records, start);
+                    records.position(start);
+                    this.skipRecord(records);
+                    position = this.writeRecord(out, buffer, record, position, stats, table);
+                }
+            }
+
+            for (Stats stats : this.changed.values()) {
+                if (!stats.inSnapshot) position = this.writeRecord(out, buffer, record, position, stats, table);
+            }
+            buffer.flip();
+            writeFully(out, buffer, position);
+
+            ByteBuffer head = ByteBuffer.allocate(SNAPSHOT_HEADER_SIZE);
+            head.putInt(SNAPSHOT_MAGIC).putInt(VERSION).putLong(this.generation + 1).putInt(players).putInt(slots).putInt(typesLength).putInt(0);
+            head.flip();
+            writeFully(out, head, 0);
+            writeFully(out, types, SNAPSHOT_HEADER_SIZE);
+
+            ByteBuffer slotBuffer = ByteBuffer.allocate(LOG_BUFFER_BYTES);
+            long slotPosition = SNAPSHOT_HEADER_SIZE + typesLength;
+            for (long slot : table) {
+                if (!slotBuffer.hasRemaining()) {
+                    slotBuffer.flip();
+                    slotPosition += writeFully(out, slotBuffer, slotPosition);
+                    slotBuffer.clear();
+                }
+                slotBuffer.putLong(slot);
+            }
+            slotBuffer.flip();
+            writeFully(out, slotBuffer, slotPosition);
+            out.force(true);
+        }
+
+        // the new snapshot replaces the old one before the log is emptied, a crash in between leaves a stale log
+        // whose generation no longer matches, so it is dropped instead of being counted again
+        Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.mapSnapshot();
+        this.changed.clear();
+        this.newPlayers = 0;
+        this.log.close();
+        Files.delete(this.logPath);
+        this.openLog();
+    }
+
+    public synchronized void close() throws IOException {
+        if (this.log == null) return;
+        try {
+            this.writeLogBuffer();
+            this.log.force(false);
+        } finally {
+            this.log.close();
+            this.log = null;
+        }
+    }
+
+    // HELPER methods
+    private void apply(String name, String gameType, int result) {
+        Stats stats = this.changed.get(name);
+        if (stats == null) {
+            stats = this.readSnapshot(name);
+            if (stats == null) {
+                stats = new Stats(name);
+                this.newPlayers++;
+            }
+            this.changed.put(name, stats);
+        }
+        stats.add(this.getGameType(gameType), result);
+    }
+
+    private String getGameType(String gameType) {
+        Integer id = this.gameTypeIds.get(gameType);
+        if (id != null) return this.gameTypes.get(id);
+        this.gameTypeIds.put(gameType, this.gameTypes.size());
+        this.gameTypes.add(gameType);
+        return gameType;
+    }
+
+    private void mapSnapshot() throws IOException {
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException(this.path + " is larger than 2 GB");
+            if (channel.size() < SNAPSHOT_HEADER_SIZE) throw new IOException(this.path + " is not a player stats snapshot");
+            this.snapshot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (this.snapshot.getInt(0) != SNAPSHOT_MAGIC) throw new IOException(this.path + " is not a player stats snapshot");
+        if (this.snapshot.getInt(4) != VERSION) throw new IOException(this.path + " has unsupported version " + this.snapshot.getInt(4));
+        this.generation = this.snapshot.getLong(8);
+        this.snapshotPlayers = this.snapshot.getInt(16);
+        this.slotCount = this.snapshot.getInt(20);
+        this.slotsOffset = SNAPSHOT_HEADER_SIZE + this.snapshot.getInt(24);
+
+        // records refer to game types by their position in this table, a compaction writes the types in the same order
+        ByteBuffer types = this.snapshot.duplicate();
+        types.position(SNAPSHOT_HEADER_SIZE);
+        int count = types.getInt();
+        this.gameTypes.clear();
+        this.gameTypeIds.clear();
+        for (int t = 0; t < count; t++) this.getGameType(getString(types));
+    }
+
+    // replays the log into the changed players, cutting off a partly written last result
+    private void openLog() throws IOException {
+        this.log = FileChannel.open(this.logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.logBuffer.clear();
+        this.loggedResults = 0;
+
+        long size = this.log.size();
+        if (size >= LOG_HEADER_SIZE) {
+            ByteBuffer head = ByteBuffer.allocate(LOG_HEADER_SIZE);
+            readFully(this.log, head, 0);
+            if (head.getInt(0) != LOG_MAGIC) throw new IOException(this.logPath + " is not a player stats log");
+            if (head.getLong(8) != this.generation) size = 0; // already compacted into the snapshot
+        }
+        if (size < LOG_HEADER_SIZE) {
+            ByteBuffer head = ByteBuffer.allocate(LOG_HEADER_SIZE);
+            head.putInt(LOG_MAGIC).putInt(VERSION).putLong(this.generation);
+            head.flip();
+            this.log.truncate(0);
+            writeFully(this.log, head, 0);
+            this.log.force(false);
+            this.log.position(LOG_HEADER_SIZE);
+            return;
+        }
+
+        MappedByteBuffer entries = this.log.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        entries.position(LOG_HEADER_SIZE);
+        long end = LOG_HEADER_SIZE;
+        while (entries.hasRemaining()) {
+            int start = entries.position();
+            int length = getVarintOrNegative(entries);
+            if (length < 0 || length > entries.remaining()) break; // torn last result
+            int bodyEnd = entries.position() + length;
+            String name = getString(entries), gameType = getString(entries);
+            int result = entries.get();
+            if (entries.position() != bodyEnd || result < WIN || result > DRAW) throw new IOException(this.logPath + " is corrupt at byte " + start);
+
+            this.apply(name, gameType, result);
+            this.loggedResults++;
+            end = bodyEnd;
+        }
+        if (end < size) this.log.truncate(end);
+        this.log.position(end);
+    }
+
+    private void writeLogBuffer() throws IOException {
+        if (this.log == null) throw new IllegalStateException("The player stats store " + this.path + " is closed");
+        this.logBuffer.flip();
+        while (this.logBuffer.hasRemaining()) this.log.write(this.logBuffer);
+        this.logBuffer.clear();
+    }
+
+    // the record of a name in the snapshot: a probe of the hash table from the name's slot, comparing hashes first
+    private Stats readSnapshot(String name) {
+        if (this.snapshot == null) return null;
+        int hash = hash(name);
+        byte[] nameBytes = null;
+
+        for (int slot = hash & (this.slotCount - 1); ; slot = (slot + 1) & (this.slotCount - 1)) {
+            long entry = this.snapshot.getLong(this.slotsOffset + slot * 8);
+            if (entry == 0) return null;
+            if ((int) (entry >>> 32) != hash) continue;
+
+            int offset = (int) entry;
+            if (nameBytes == null) nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            if (this.nameEquals(offset, nameBytes)) return this.decodeStats(this.snapshot.duplicate(), offset);
+        }
+    }
+
+    private boolean nameEquals(int offset, byte[] nameBytes) {
+        ByteBuffer record = this.snapshot.duplicate();
+        record.position(offset);
+        if (getVarint(record) != nameBytes.length) return false;
+        for (byte b : nameBytes) if (record.get() != b) return false;
+        return true;
+    }
+
+    private String decodeName(ByteBuffer records, int offset) {
+        records.position(offset);
+        return getString(records);
+    }
+
+    // a record is the name, then (type, wins, losses, draws) for each game type played
+    private Stats decodeStats(ByteBuffer records, int offset) {
+        records.position(offset);
+        Stats stats = new Stats(getString(records));
+        stats.inSnapshot = true;
+        int types = getVarint(records);
+        for (int t = 0; t < types; t++) {
+            String type = this.gameTypes.get(getVarint(records));
+            stats.set(type, getVarint(records), getVarint(records), getVarint(records));
+        }
+        return stats;
+    }
+
+    private void skipRecord(ByteBuffer records) {
+        int nameLength = getVarint(records);
+        records.position(records.position() + nameLength);
+        int types = getVarint(records);
+        for (int i = 0; i < types * 4; i++) getVarint(records);
+    }
+
+    // appends a record to the buffer (writing the buffer out first if it is full) and adds its slot to the table,
+    // returns the file position the buffer will be written at
+    private long writeRecord(FileChannel out, ByteBuffer buffer, ByteBuffer record, long position, Stats stats, long[] table) throws IOException {
+        byte[] name = stats.name.getBytes(StandardCharsets.UTF_8);
+        int size = 5 + name.length + 5 + stats.typeCount * 20;
+        if (record.capacity() < size) record = ByteBuffer.allocate(size);
+        record.clear();
+        putString(record, name);
+        putVarint(record, stats.typeCount);
+        for (int t = 0; t < stats.typeCount; t++) {
+            putVarint(record, this.gameTypeIds.get(stats.types[t]));
+            for (int r = WIN; r <= DRAW; r++) putVarint(record, stats.counts[t * 3 + r]);
+        }
+        record.flip();
+
+        if (buffer.remaining() < record.remaining()) {
+            buffer.flip();
+            position += writeFully(out, buffer, position);
+            buffer.clear();
+        }
+        long offset = position + buffer.position();
+        if (offset + record.remaining() > Integer.MAX_VALUE) throw new IOException(this.path + " would grow larger than 2 GB");
+        if (buffer.remaining() < record.remaining()) position += writeFully(out, record, position); // larger than the buffer
+        else buffer.put(record);
+
+        int hash = hash(stats.name);
+        int slot = hash & (table.length - 1);
+        while (table[slot] != 0) slot = (slot + 1) & (table.length - 1);
+        table[slot] = ((long) hash << 32) | offset;
+        return position;
+    }
+
+    // String.hashCode is the same in every JVM, mixed so that similar names spread over the table
+    private static int hash(String name) {
+        int hash = name.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        putVarint(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[getVarint(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int varintSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    // the same, or -1 if the buffer ends in the middle of the varint
+    private static int getVarintOrNegative(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (!buffer.hasRemaining()) return -1;
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        return -1;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) throw new IOException("Unexpected end of file");
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) written += channel.write(buffer, position + written);
+        return written;
+    }
+
+    /*
+        Description:
+        One player's wins, losses, and draws for each game type they have played.
+
+        Important Methods:
+        - getName()/getGameTypes(): the player and the game types they have played.
+        - getWins/getLosses/getDraws(String gameType): the player's results in a game type.
+        - getTotalWins/getTotalLosses/getTotalDraws(): the player's results over every game type.
+    */
+    public static class Stats {
+        private final String name;
+        private String[] types;
+        private int[] counts; // wins, losses, draws for each type
+        private int typeCount;
+        private boolean inSnapshot;
+
+        private Stats(String name) {
+            this.name = name;
+            this.types = new String[2];
+            this.counts = new int[6];
+        }
+
+        private Stats(Stats stats) {
+            this.name = stats.name;
+            this.types = Arrays.copyOf(stats.types, Math.max(1, stats.typeCount));
+            this.counts = Arrays.copyOf(stats.counts, Math.max(3, stats.typeCount * 3));
+            this.typeCount = stats.typeCount;
+            this.inSnapshot = stats.inSnapshot;
+        }
+
+        // GETTER methods
+        public String getName() {
+            return this.name;
+        }
+
+        public List<String> getGameTypes() {
+            return Arrays.asList(Arrays.copyOf(this.types, this.typeCount));
+        }
+
+        public int getWins(String gameType) {
+            return this.getCount(gameType, WIN);
+        }
+
+        public int getLosses(String gameType) {
+            return this.getCount(gameType, LOSS);
+        }
+
+        public int getDraws(String gameType) {
+            return this.getCount(gameType, DRAW);
+        }
+
+        public int getTotalWins() {
+            return this.getTotal(WIN);
+        }
+
+        public int getTotalLosses() {
+            return this.getTotal(LOSS);
+        }
+
+        public int getTotalDraws() {
+            return this.getTotal(DRAW);
+        }
+
+        public String toString() {
+            StringBuilder text = new StringBuilder(this.name);
+            for (int t = 0; t < this.typeCount; t++) {
+                text.append("\n").append(this.types[t]).append(":\t").append(this.counts[t * 3 + WIN]).append(" wins, ")
+                    .append(this.counts[t * 3 + LOSS]).append(" losses, ").append(this.counts[t * 3 + DRAW]).append(" draws");
+            }
+            return text.toString();
+        }
+
+        // HELPER methods
+        private int getCount(String gameType, int result) {
+            int t = this.indexOf(gameType);
+            return t < 0 ? 0 : this.counts[t * 3 + result];
+        }
+
+        private int getTotal(int result) {
+            int total = 0;
+            for (int t = 0; t < this.typeCount; t++) total += this.counts[t * 3 + result];
+            return total;
+        }
+
+        private int indexOf(String gameType) {
+            for (int t = 0; t < this.typeCount; t++) if (this.types[t].equals(gameType)) return t;
+            return -1;
+        }
+
+        private void add(String gameType, int result) {
+            int t = this.indexOf(gameType);
+            if (t < 0) t = this.set(gameType, 0, 0, 0);
+            this.counts[t * 3 + result]++;
+        }
+
+        private int set(String gameType, int wins, int losses, int draws) {
+            if (this.typeCount == this.types.length) {
+                this.types = Arrays.copyOf(this.types, this.types.length * 2);
+                this.counts = Arrays.copyOf(this.counts, this.types.length * 3);
+            }
+            int t = this.typeCount++;
+            this.types[t] = gameType;
+            this.counts[t * 3 + WIN] = wins;
+            this.counts[t * 3 + LOSS] = losses;
+            this.counts[t * 3 + DRAW] = draws;
+            return t;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        String file = null, player = null;
+        boolean compact = false;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "file": file = value; break;
+                case "player": player = value; break;
+                case "compact": compact = Boolean.parseBoolean(value); break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+        if (file == null) throw new IllegalArgumentException("Usage: java PlayerStatsStore file=PATH [player=NAME] [compact=true]");
+
+        long start = System.nanoTime();
+        try (PlayerStatsStore store = new PlayerStatsStore(Paths.get(file))) {
+            System.out.printf("%,d players in %s (opened in %.1f ms, %,d results in the log)%n", store.getPlayerCount(), file,
+                (System.nanoTime() - start) / 1e6, store.getLoggedResults());
+            if (compact) store.compact();
+            if (player != null) {
+                Stats stats = store.get(player);
+                System.out.println(stats == null ? player + " has not played" : stats.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+    Description:
+    MoveSource for a simple programmatic bot which plays a uniformly random legal move. It picks from the board's
+    empty cell set, so choosing a move costs O(1) no matter how large the board is.
+
+    Fields:
+    - random: Random number generator used to choose moves.
+
+    Constructors:
+    - RandomMoveSource(): creates a bot with an unseeded random number generator.
+    - RandomMoveSource(long seed): creates a bot whose moves are reproducible from the seed.
+
+    Interface Method Implementations:
+    - getNextCell(...): Picks a random empty cell of the game's board.
+    - getNextPiece(...): Picks X or O at random.
+    - getNextGameID(...): Picks a random unfinished sub game that still has empty cells.
+*/
+
+import java.util.Random;
+
+public class RandomMoveSource implements MoveSource {
+    private final Random random;
+
+    // CONSTRUCTORS
+    public RandomMoveSource() {
+        this.random = new Random();
+    }
+
+    public RandomMoveSource(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // MOVE INPUT METHODS
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        Board board = game.getBoard();
+        int cell = board.getEmptyCell(this.random.nextInt(board.getEmptyCellCount()));
+        return new int[] {cell / board.getColumns(), cell % board.getColumns()};
+    }
+
+    public char getNextPiece(BoardGame game, Team team, Player player) {
+        return this.random.nextBoolean() ? 'X' : 'O';
+    }
+
+    public String getNextGameID(SuperTicTacToe game, Team team, Player player) {
+        TicTacToe choice = null;
+        int seen = 0;
+
+        // reservoir sample a game, preferring unfinished games over finished ones that still have room
+        for (int pass = 0; pass < 2 && choice == null; pass++) {
+            for (TicTacToe[] gameRow : game.getGames()) {
+                for (TicTacToe subGame : gameRow) {
+                    if (subGame.getIsBoardFull() || (pass == 0 && subGame.isFinished())) continue;
+                    if (this.random.nextInt(++seen) == 0) choice = subGame;
+                }
+            }
+        }
+
+        if (choice == null) throw new IllegalStateException("Every game on the grid is full");
+        return choice.getGameID();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+    Description:
+    Output thread which takes board drawing and printing off the game loop. The game thread publishes frames (a
+    snapshot of the board taken on the game thread, drawn later by this thread) and messages, and carries on with the
+    next move straight away. This thread writes everything published since it last woke up with one write to the
+    terminal, in the order it was published, except that a frame which is followed by another frame before it is drawn
+    is skipped (messages are never skipped and keep the frames around them): while the terminal is busy, a burst of
+    moves (e.g. bots playing each other) becomes a single frame of the latest board. Before a person is asked for
+    input the game waits with awaitIdle(), so the board and every message are on the screen before the prompt.
+
+    Fields:
+    - out: the stream everything is written to.
+    - pending: the frames (Consumer<PrintStream>) and messages (String) published and not yet written.
+    - lock/changed: guard pending and the counters, and wake the thread and anyone waiting for it.
+    - published/written: how many items were published, and how many of them are on the screen (or skipped).
+    - framesDrawn/framesSkipped: how many frames were drawn and how many were replaced before they could be.
+    - closed: whether the thread should stop once everything pending is written.
+    - failure: an exception thrown while drawing, rethrown to the game thread.
+    - thread: the output thread.
+
+    Constructors:
+    - RenderThread(PrintStream out): starts a daemon thread writing to out.
+
+    Important Methods:
+    - publishFrame(Consumer<PrintStream> frame): queues a frame, replacing a frame queued right before it.
+    - publishMessage(String message): queues a line of text.
+    - awaitIdle(): waits until everything published so far has been written.
+    - getFramesDrawn()/getFramesSkipped(): how many frames were drawn and skipped.
+    - close(): writes everything pending and stops the thread.
+*/
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+public class RenderThread implements AutoCloseable {
+    private final PrintStream out;
+    private final ArrayDeque<Object> pending;
+    private final ReentrantLock lock;
+    private final Condition changed;
+    private long published;
+    private long written;
+    private long framesDrawn;
+    private long framesSkipped;
+    private boolean closed;
+    private RuntimeException failure;
+    private final Thread thread;
+
+    // CONSTRUCTOR
+    public RenderThread(PrintStream out) {
+        this.out = out;
+        this.pending = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        this.changed = this.lock.newCondition();
+        this.thread = new Thread(this::run, "render");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // GETTER methods
+    public long getFramesDrawn() {
+        this.lock.lock();
+        try {
+            return this.framesDrawn;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public long getFramesSkipped() {
+        this.lock.lock();
+        try {
+            return this.framesSkipped;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // SETTER methods
+    // a frame queued right after another frame replaces it, the older one would be overdrawn before anyone saw it
+    public void publishFrame(Consumer<PrintStream> frame) {
+        this.lock.lock();
+        try {
+            this.checkOpen();
+            if (this.pending.peekLast() instanceof Consumer) {
+                this.pending.pollLast();
+                this.framesSkipped++;
+                this.written++; // the replaced frame counts as done for awaitIdle
+            }
+            this.pending.addLast(frame);
+            this.published++;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void publishMessage(String message) {
+        this.lock.lock();
+        try {
+            this.checkOpen();
+            this.pending.addLast(message);
+            this.published++;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    // returns once everything published before the call is on the screen
+    public void awaitIdle() {
+        this.lock.lock();
+        try {
+            long target = this.published;
+            while (this.written < target && this.failure == null) this.changed.awaitUninterruptibly();
+            if (this.failure != null) throw new IllegalStateException("Drawing the game failed", this.failure);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public void close() {
+        this.lock.lock();
+        try {
+            if (this.closed) return;
+            this.closed = true;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+
+        boolean interrupted = false;
+        while (this.thread.isAlive()) {
+            try {
+                this.thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (this.failure != null) throw new IllegalStateException("Drawing the game failed", this.failure);
+    }
+
+    // HELPER methods
+    private void checkOpen() {
+        if (this.closed) throw new IllegalStateException("The render thread is closed");
+        if (this.failure != null) throw new IllegalStateException("Drawing the game failed", this.failure);
+    }
+
+    // takes everything pending, draws it into one buffer, and writes the buffer, until closed and drained
+    private void run() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 14);
+        PrintStream buffer = new PrintStream(bytes);
+        List<Object> batch = new ArrayList<>();
+
+        while (true) {
+            this.lock.lock();
+            try {
+                while (this.pending.isEmpty() && !this.closed) this.changed.awaitUninterruptibly();
+                if (this.pending.isEmpty()) return; // closed and everything written
+                batch.addAll(this.pending);
+                this.pending.clear();
+            } finally {
+                this.lock.unlock();
+            }
+
+            long frames = 0;
+            try {
+                bytes.reset();
+                for (Object item : batch) {
+                    if (item instanceof String) {
+                        buffer.println((String) item);
+                    } else {
+                        @SuppressWarnings("unchecked")
+                        Consumer<PrintStream> frame = (Consumer<PrintStream>) item;
+                        frame.accept(buffer);
+                        frames++;
+                    }
+                }
+                buffer.flush();
+                bytes.writeTo(this.out);
+                this.out.flush();
+            } catch (RuntimeException | IOException e) {
+                this.lock.lock();
+                try {
+                    this.failure = e instanceof RuntimeException ? (RuntimeException) e : new IllegalStateException(e);
+                    this.changed.signalAll();
+                } finally {
+                    this.lock.unlock();
+                }
+                return;
+            }
+
+            this.lock.lock();
+            try {
+                this.written += batch.size();
+                this.framesDrawn += frames;
+                this.changed.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+            batch.clear();
+        }
+    }
+}
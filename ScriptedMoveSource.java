@@ -0,0 +1,75 @@
+/*
+    Description:
+    MoveSource which plays a fixed script of moves, written the same way a user would type them at the console:
+    "row,col" for a cell, "X"/"O" for a game piece, and "A"-"I" for a Super Tic Tac Toe game ID. Used to replay games
+    and to drive games without a terminal. Setup questions get the MoveSource defaults.
+
+    Fields:
+    - moves: The remaining moves of the script.
+
+    Constructors:
+    - ScriptedMoveSource(String... moves): creates a source that plays the given moves in order.
+    - ScriptedMoveSource(List<String> moves): same as above.
+
+    Interface Method Implementations:
+    - getNextCell(...), getNextPiece(...), getNextGameID(...): Take the next move of the script, throwing an
+    IllegalStateException if the script has run out or the move is not valid.
+*/
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+public class ScriptedMoveSource implements MoveSource {
+    private final Deque<String> moves;
+
+    // CONSTRUCTORS
+    public ScriptedMoveSource(String... moves) {
+        this(Arrays.asList(moves));
+    }
+
+    public ScriptedMoveSource(List<String> moves) {
+        this.moves = new ArrayDeque<>(moves);
+    }
+
+    // GETTER METHOD
+    public int getRemainingMoves() {
+        return this.moves.size();
+    }
+
+    // MOVE INPUT METHODS
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        String move = this.nextMove();
+        String[] parts = move.split(",");
+
+        try {
+            if (parts.length != 2) throw new IllegalArgumentException();
+            int row = Integer.parseInt(parts[0].trim());
+            int column = Integer.parseInt(parts[1].trim());
+            if (!game.isValidMove(row, column)) throw new IllegalArgumentException();
+            return new int[] {row, column};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Scripted move " + move + " is not a valid move (row,col)");
+        }
+    }
+
+    public char getNextPiece(BoardGame game, Team team, Player player) {
+        String move = this.nextMove();
+        char symbol = move.length() == 1 ? Character.toUpperCase(move.charAt(0)) : ' ';
+        if (symbol != 'X' && symbol != 'O') throw new IllegalStateException("Scripted move " + move + " is not a valid piece (X/O)");
+        return symbol;
+    }
+
+    public String getNextGameID(SuperTicTacToe game, Team team, Player player) {
+        String move = this.nextMove().toUpperCase();
+        if (game.getGameByID(move) == null) throw new IllegalStateException("Scripted move " + move + " is not a valid game ID");
+        return move;
+    }
+
+    // HELPER METHOD
+    private String nextMove() {
+        if (this.moves.isEmpty()) throw new IllegalStateException("Scripted move source has run out of moves");
+        return this.moves.poll().trim();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+    Description:
+    List of game histories which keeps only the most recent games in memory. Once more than maxGames games, or games
+    estimated at more than maxBytes, are held, the oldest are spilled to a binary game record file (GameRecordWriter)
+    and read back one at a time when they are asked for (GameRecordReader), so a session of any length keeps a bounded
+    number of histories on the heap while get(i), size(), and iteration over every game still work as for any List.
+    Games read back from disk are rebuilt copies and are not cached. The spill file is a temporary file created the
+    first time a game is spilled, and it is deleted by clear() and close() (or when the program exits).
+
+    Class Level Constants:
+    - DEFAULT_MAX_GAMES/DEFAULT_MAX_BYTES: the default retention policy.
+
+    Fields:
+    - maxGames/maxBytes: how many games, and roughly how many bytes of them, are kept in memory.
+    - recent: the games kept in memory, oldest first, starting at index head.
+    - recentBytes: the estimated size of the games kept in memory.
+    - spillFile/writer/reader: the spill file and the open writer and reader (null until the first spill).
+    - spilledCount: the number of games in the spill file, which are the oldest games of the list.
+
+    Constructors:
+    - SpillingHistoryList(): keeps the default number of games in memory.
+    - SpillingHistoryList(int maxGames, long maxBytes): keeps at most maxGames games and maxBytes bytes in memory.
+
+    Important Methods:
+    - get(int index)/size()/add(GameHistory history)/clear(): the List methods, other changes are not supported.
+    - getSpilledCount()/getRetainedCount(): how many games are on disk and in memory.
+    - estimateBytes(GameHistory history): the approximate heap size of a history.
+    - close(): deletes the spill file, the list is empty afterwards.
+*/
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpillingHistoryList extends AbstractList<GameHistory> implements AutoCloseable {
+    public static final int DEFAULT_MAX_GAMES = 1000;
+    public static final long DEFAULT_MAX_BYTES = 16L << 20;
+
+    private final int maxGames;
+    private final long maxBytes;
+    private final List<GameHistory> recent;
+    private int head;
+    private long recentBytes;
+    private Path spillFile;
+    private GameRecordWriter writer;
+    private GameRecordReader reader;
+    private int spilledCount;
+
+    // CONSTRUCTORS
+    public SpillingHistoryList() {
+        this(DEFAULT_MAX_GAMES, DEFAULT_MAX_BYTES);
+    }
+
+    public SpillingHistoryList(int maxGames, long maxBytes) {
+        if (maxGames < 1 || maxBytes < 1) throw new IllegalArgumentException("The history must be allowed to keep at least one game");
+        this.maxGames = maxGames;
+        this.maxBytes = maxBytes;
+        this.recent = new ArrayList<>();
+    }
+
+    // GETTER methods
+    public int size() {
+        return this.spilledCount + this.getRetainedCount();
+    }
+
+    public int getSpilledCount() {
+        return this.spilledCount;
+    }
+
+    public int getRetainedCount() {
+        return this.recent.size() - this.head;
+    }
+
+    public GameHistory get(int index) {
+        if (index < 0 || index >= this.size()) throw new IndexOutOfBoundsException("No game history " + index + " in " + this.size());
+        if (index >= this.spilledCount) return this.recent.get(this.head + index - this.spilledCount);
+
+        try {
+            if (this.reader == null || this.reader.getGameCount() <= index) {
+                this.writer.flush(); // make every spilled game visible before mapping the file again
+                this.reader = new GameRecordReader(this.spillFile);
+            }
+            return this.reader.getGame(index);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read game history from " + this.spillFile, e);
+        }
+    }
+
+    // approximate heap size of a history: the objects themselves plus the packed move log
+    public static long estimateBytes(GameHistory history) {
+        if (!(history instanceof BoardGameHistory)) return 64;
+        return 160 + ((BoardGameHistory) history).getMoveLog().size() * 8L;
+    }
+
+    // SETTER methods
+    public boolean add(GameHistory history) {
+        this.recent.add(history);
+        this.recentBytes += estimateBytes(history);
+
+        while (this.getRetainedCount() > 1 && (this.getRetainedCount() > this.maxGames || this.recentBytes > this.maxBytes)) this.spillOldest();
+
+        // forget the spilled slots once they are half the list, so removing from the front stays O(1) on average
+        if (this.head > this.recent.size() / 2) {
+            this.recent.subList(0, this.head).clear();
+            this.head = 0;
+        }
+        this.modCount++;
+        return true;
+    }
+
+    public void clear() {
+        this.deleteSpillFile();
+        this.recent.clear();
+        this.head = 0;
+        this.recentBytes = 0;
+        this.modCount++;
+    }
+
+    public void close() {
+        this.clear();
+    }
+
+    // HELPER methods
+    private void spillOldest() {
+        GameHistory oldest = this.recent.get(this.head);
+        if (!(oldest instanceof BoardGameHistory)) throw new IllegalStateException("Only board game histories can be spilled to disk");
+
+        try {
+            if (this.writer == null) {
+                this.spillFile = Files.createTempFile("game-history", ".bin");
+                Files.delete(this.spillFile); // the writer creates it with its header
+                this.writer = new GameRecordWriter(this.spillFile);
+                this.spillFile.toFile().deleteOnExit();
+                GameRecordWriter.getIndexPath(this.spillFile).toFile().deleteOnExit();
+                GameRecordWriter.getStringsPath(this.spillFile).toFile().deleteOnExit();
+            }
+            this.writer.append(oldest);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not spill game history to disk", e);
+        }
+
+        this.recent.set(this.head++, null);
+        this.recentBytes -= estimateBytes(oldest);
+        this.spilledCount++;
+    }
+
+    private void deleteSpillFile() {
+        if (this.writer == null) return;
+        try {
+            this.writer.close();
+            Files.deleteIfExists(this.spillFile);
+            Files.deleteIfExists(GameRecordWriter.getIndexPath(this.spillFile));
+            Files.deleteIfExists(GameRecordWriter.getStringsPath(this.spillFile));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not delete " + this.spillFile, e);
+        } finally {
+            this.writer = null;
+            this.reader = null;
+            this.spillFile = null;
+            this.spilledCount = 0;
+        }
+    }
+}
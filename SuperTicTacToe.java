@@ -10,25 +10,39 @@
     Instance Variables:
     - games: 3x3 grid of TicTacToe games.
     - boards: 3x3 grid of Board objects corresponding to each TicTacToe game.
+    - boardsRenderer: Draws the grid of boards, only redrawing the boards which changed since the last frame.
 
     Constructors:
     - public SuperTicTacToe(): Initializes a Super Tic Tac Toe game, setting up individual TicTacToe instances 
     with corresponding game ids A-I and their associated boards.
+    - public SuperTicTacToe(MoveSource moveSource): Same as above, asking the given move source instead of the console.
+    - public SuperTicTacToe(Team[] teams): Initializes a Super Tic Tac Toe game with the given teams without user input.
 
     Abstract Method Implementations:
     - isWinner(): Determines if the current team has won by checking all winning positions in the Super Tic Tac Toe grid.
     - makeNextMove(): Processes the current player's move by selecting a TicTacToe game and making a move within that game.
-    - playGame(): Runs the game loop, allowing players to take turns until a winner is found or the game ends in a tie.
+    - playRound(): Runs the game loop, allowing players to take turns until a winner is found or the game ends in a tie.
 
     Other Important Methods:
     - getGameByID(String id): Retrieves a specific TicTacToe game by its ID.
-    - getGameFromUserInput(Team team, Player player): Prompts the user to select a TicTacToe game from the grid.
-    - displayGame(): Displays the current state of all TicTacToe boards.
-    - resetGameBoards(): Resets all individual TicTacToe boards while maintaining game history of each game.
-    - allGamesFinished(): Checks if all TicTacToe games are either won or tied.
+    - getGameFromUserInput(Team team, Player player): Asks the player's move source to select a TicTacToe game from the grid.
+    - setMoveSource(MoveSource moveSource): Sets the move source of the super game and every TicTacToe game.
+    - setOutput(PrintStream output): Prints the super game and the results of every TicTacToe game to the given stream.
+    - setMoveEventBus(MoveEventBus eventBus): Publishes the moves of every TicTacToe game (by its id A-I) and the results of the super game to the bus.
+    - displayGame(): Displays the current state of all TicTacToe boards with a single write.
+    - createFrame(): Snapshots the boards which changed since the last frame for the render thread.
+    - resetGameBoards(): Resets all individual TicTacToe boards, winners, and turns while maintaining game history of each game.
+    Each board's history is recorded as <super game id>/<board id> (e.g. 12/E) when the super game has an id, so boards
+    from different games sharing a history file can be told apart. The ids A-I alone are only used to pick a board.
+    - getCanonicalPositionHash(): Same hash for every rotation or reflection of the grid of games (boards and their pieces moved together).
+    - getPositionHash(): Combines the Zobrist hashes of every TicTacToe board (each keyed by its position in the grid) and the team to move.
+    - setBitBoardStorage(boolean enabled): Applies the chosen board storage to every individual TicTacToe board.
+    - allGamesFinished(): Checks if all TicTacToe games are either won or tied (including forced draws).
+    - isForcedDraw(): Checks if no team can still win a full line of TicTacToe games.
 */
 
-import java.util.List;
+import java.io.PrintStream;
+import java.util.function.Consumer;
 
 public class SuperTicTacToe extends ConsecutivePiecesGame {
     private static final int ROWS = 3;
@@ -37,18 +51,40 @@ public class SuperTicTacToe extends ConsecutivePiecesGame {
 
     private TicTacToe[][] games = new TicTacToe[ROWS][COLS]; // 3x3 board of tic tac toe games 
     private Board[][] boards = new Board[ROWS][COLS];
+    private final MultiBoardRenderer boardsRenderer = new MultiBoardRenderer();
 
     public SuperTicTacToe() {
+        this(new ConsoleMoveSource());
+    }
+
+    // Super Tic Tac Toe game whose setup answers and moves come from the given move source
+    public SuperTicTacToe(MoveSource moveSource) {
         super(ROWS, COLS, GAME_NAME);
         this.getBoard().setGameType(GAME_NAME);
+        this.setMoveSource(moveSource);
         this.setTeamsFromUserInput("" + TicTacToe.TEAM_0_SYMBOL, "" + "" + TicTacToe.TEAM_1_SYMBOL);
+        this.createGames();
+    }
+
+    // Super Tic Tac Toe game set up without any user input, e.g. for simulations
+    public SuperTicTacToe(Team[] teams) {
+        super(ROWS, COLS, GAME_NAME);
+        this.getBoard().setGameType(GAME_NAME);
+        this.setTeams(teams);
+        this.createGames();
+    }
 
+    // creates the grid of tic tac toe games with ids A-I, sharing the teams and move source of the super game
+    private void createGames() {
         char gameID = 'A';
         for (int r = 0; r < ROWS; r++) {
             for (int c = 0; c < COLS; c++) {
                 games[r][c] = new TicTacToe(gameID + "");
+                games[r][c].getBoard().setHashBoardIndex(r * COLS + c + 1, getSymmetricBoardIndices(r, c)); // sub boards hash with their own keys
                 boards[r][c] = games[r][c].getBoard();
                 games[r][c].setTeams(this.getTeams());
+                games[r][c].setMoveSource(this.getMoveSource()); // moves in the sub games come from the same place as the super game's
+                games[r][c].setDisplayEnabled(this.isDisplayEnabled());
                 gameID++;
             }
         }
@@ -85,29 +121,21 @@ public class SuperTicTacToe extends ConsecutivePiecesGame {
 
     // USER INPUT METHOD:
     public TicTacToe getGameFromUserInput(Team team, Player player) {
-        String input;
-        char inputChar;
-
-        System.out.print("[TEAM " + team.getName() + "] " + player.getName() + " enter the game grid ID to make a move (A-I):\t");
-
-        while(true) {
-            try {
-                input = this.getScanner().next();
-                inputChar = Character.toUpperCase(input.charAt(0));
-                if (inputChar < 'A' || inputChar > 'I') throw new IllegalArgumentException();
-                input = inputChar + ""; // convert it to a string since all IDs are strings
-                break;
-            } catch (Exception e) {
-                System.out.print("Invalid input. Please enter a valid game ID (A-I): \t");
-            }
-        }
+        String id = this.getMoveSource(player).getNextGameID(this, team, player);
+        TicTacToe game = this.getGameByID(id);
 
-        return this.getGameByID(input);
+        if (game == null) throw new IllegalStateException("Invalid game ID " + id + " from " + player.getName());
+        return game;
     }
 
     // DISPLAY METHOD
     public void displayGame() {
-        Board.displayBoards(boards);
+        this.boardsRenderer.display(this.boards, this.getOutput());
+    }
+
+    protected Consumer<PrintStream> createFrame() {
+        MultiBoardRenderer.Snapshot snapshot = this.boardsRenderer.snapshot(this.boards);
+        return out -> this.boardsRenderer.display(snapshot, out);
     }
 
     // resets every individual tic tac toe board
@@ -115,18 +143,159 @@ public class SuperTicTacToe extends ConsecutivePiecesGame {
         for (TicTacToe[] gameRow : games) {
             for (TicTacToe game : gameRow) {
                 Board board = game.getBoard();
-                this.addGameHistory(new BoardGameHistory(game.getWinner(), board, game.getTurnNumber(), this.getGameNumber() - 1, game.getGameID()));
-                game.setBoard(new Board(board.getRows(), board.getColumns(), TicTacToe.GAME_NAME));
+                boolean endedEarly = game.getWinner() == null && !game.getIsBoardFull() && game.isForcedDraw();
+                this.recordHistory(new BoardGameHistory(game.getWinner(), board.getGameType(), game.getMoveLog().copy(), game.getTurnNumber(),
+                    this.getGameNumber() - 1, this.getRecordedGameID(game), endedEarly, game.getWinLength(), this.getTeams()));
+                game.setBoard(board.createEmptyBoard(board.getRows(), board.getColumns(), TicTacToe.GAME_NAME));
+                game.setWinner(null);
+                game.resetTurnNumber();
+                // a board's game number is only read by the events it publishes (its history above uses the super game's
+                // number), so it is advanced with the super game to keep a board's moves and wins under the right game
+                game.incrementGameNumber();
             }
          }
+        this.refreshBoards();
+    }
+
+    // the id a board's history is saved under, qualified by the super game's id (e.g. a GameServer session) when it has one
+    private String getRecordedGameID(TicTacToe game) {
+        return this.getGameID() != null ? this.getGameID() + "/" + game.getGameID() : game.getGameID();
+    }
+
+    // keeps the boards grid in sync with the boards of the individual games after they are replaced
+    private void refreshBoards() {
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLS; c++) boards[r][c] = games[r][c].getBoard();
+        }
+    }
+
+    // GETTER: Zobrist hash of every sub board and the team to move, each sub board's keys are different
+    public long getPositionHash() {
+        long hash = Zobrist.getSideKey(this.getCurrentTeam().getNumber());
+        for (Board[] boardRow : boards) {
+            for (Board board : boardRow) hash ^= board.getHash();
+        }
+        return hash;
+    }
+
+    // GETTER: the smallest position hash over every rotation and reflection of the whole grid, in which each board
+    // moves to its transformed place in the grid and its pieces are transformed the same way
+    public long getCanonicalPositionHash() {
+        long best = 0;
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            long hash = 0;
+            for (Board[] boardRow : boards) {
+                for (Board board : boardRow) hash ^= board.getSymmetricHash(t);
+            }
+            if (t == 0 || hash < best) best = hash;
+        }
+        return best ^ Zobrist.getSideKey(this.getCurrentTeam().getNumber());
+    }
+
+    // the board index (1-9) each grid transform moves the board at (row, column) to
+    private static int[] getSymmetricBoardIndices(int row, int column) {
+        int[] indices = new int[Symmetry.COUNT];
+        for (int t = 0; t < Symmetry.COUNT; t++) {
+            indices[t] = Symmetry.transformRow(t, row, column, ROWS, COLS) * COLS + Symmetry.transformColumn(t, row, column, ROWS, COLS) + 1;
+        }
+        return indices;
+    }
+
+    // GETTER: moves made in all of the sub games
+    public long getMovesPlayed() {
+        long moves = super.getMovesPlayed();
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) moves += game.getMovesPlayed();
+        }
+        return moves;
+    }
+
+    // the sub games only print their results when the super game does
+    public void setDisplayEnabled(boolean enabled) {
+        super.setDisplayEnabled(enabled);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) {
+                if (game != null) game.setDisplayEnabled(enabled);
+            }
+        }
+    }
+
+    // the sub games publish their results through the render thread of the super game
+    public void setRenderThread(RenderThread renderThread) {
+        super.setRenderThread(renderThread);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) {
+                if (game != null) game.setRenderThread(renderThread);
+            }
+        }
+    }
+
+    // the sub games print their results where the super game prints
+    public void setOutput(PrintStream output) {
+        super.setOutput(output);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) {
+                if (game != null) game.setOutput(output);
+            }
+        }
+    }
+
+    // the moves are made in the sub games, which publish them to the event bus of the super game
+    public void setMoveEventBus(MoveEventBus eventBus) {
+        super.setMoveEventBus(eventBus);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) {
+                if (game != null) game.setMoveEventBus(eventBus);
+            }
+        }
+    }
+
+    // the sub games share the move source of the super game
+    public void setMoveSource(MoveSource moveSource) {
+        super.setMoveSource(moveSource);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) {
+                if (game != null) game.setMoveSource(moveSource);
+            }
+        }
+    }
+
+    // applies the chosen board storage to the super board and every individual tic tac toe board
+    public void setBitBoardStorage(boolean enabled) {
+        super.setBitBoardStorage(enabled);
+        for (TicTacToe[] gameRow : games) {
+            for (TicTacToe game : gameRow) game.setBitBoardStorage(enabled);
+        }
+        this.refreshBoards();
     }
 
     public boolean allGamesFinished() {
         for (TicTacToe[] gameRow : games) {
             for (TicTacToe game : gameRow) {
-                if (game.getWinner() == null && !game.getIsBoardFull()) return false; // if there is a game without a winner that is not tied yet
+                if (!game.isFinished()) return false; // if there is a game without a winner that is not tied yet
+            }
+        }
+        return true;
+    }
+
+    // a team can still win a line of games if every game in it is either won by that team or still being played
+    public boolean isForcedDraw() {
+        WinLines lines = this.getWinLines();
+        int columns = lines.getColumns();
+
+        for (Team team : this.getTeams()) {
+            for (int line = 0; line < lines.getLineCount(); line++) {
+                boolean open = true;
+                for (int i = 0; i < lines.getLength() && open; i++) {
+                    int cell = lines.getLineCell(line, i);
+                    TicTacToe game = games[cell / columns][cell % columns];
+                    Team gameWinner = game.getWinner();
+                    open = gameWinner != null ? gameWinner.getNumber() == team.getNumber() : !game.isFinished();
+                }
+                if (open) return false;
             }
         }
+
         return true;
     }
 
@@ -135,15 +304,16 @@ public class SuperTicTacToe extends ConsecutivePiecesGame {
         Team currentTeam = this.getCurrentTeam();
 
         // iterate over all winning positions and see if there is a team that has won all games in a winning position
-        for (List<int[]> position : this.getWinPositions()) {
-            for (int i = 0; i < position.size(); i++) {
-                int[] coordinate = position.get(i);
-                int x = coordinate[0], y = coordinate[1];
+        WinLines lines = this.getWinLines();
+        int columns = lines.getColumns();
 
-                Team currentGameWinner = games[x][y].getWinner();
+        for (int line = 0; line < lines.getLineCount(); line++) {
+            for (int i = 0; i < lines.getLength(); i++) {
+                int cell = lines.getLineCell(line, i);
+                Team currentGameWinner = games[cell / columns][cell % columns].getWinner();
 
-                if (currentGameWinner == null || games[x][y].getWinner().getNumber() != currentTeam.getNumber()) break;
-                if (i == position.size() - 1) return true;
+                if (currentGameWinner == null || currentGameWinner.getNumber() != currentTeam.getNumber()) break;
+                if (i == lines.getLength() - 1) return true;
             }
         }
 
@@ -162,38 +332,36 @@ public class SuperTicTacToe extends ConsecutivePiecesGame {
         game.makeMove(inputCell, piece, currentTeam, this.getTurnNumber(), currentPlayer);
     }
 
-    public void playGame() {
-        this.displayGame();
+    // plays a single game until a team wins a line of games or it is tied, then resets every board for the next game
+    public Team playRound() {
+        this.updateDisplay();
 
         while (true) {
             this.makeNextMove();
-            this.displayGame();
+            this.updateDisplay();
             
             Team currentTeam = this.getCurrentTeam();
             boolean teamWon = this.isWinner();
 
             if (teamWon) {
                 this.setWinner(currentTeam);
-                System.out.println("Congratulations team " + currentTeam.getName() + "! You won the game!");
+                this.displayMessage("Congratulations team " + currentTeam.getName() + "! You won the game!");
 
                 currentTeam.incrementPlayerwinCounts();
                 this.reset(GAME_NAME);
                 this.resetGameBoards();
+                return currentTeam;
+            } else if (this.allGamesFinished() || this.isForcedDraw()) {
+                boolean endedEarly = !this.allGamesFinished();
+                if (endedEarly) this.displayMessage("Neither team can win a line of games anymore.");
+                this.displayMessage("The game has ended in a tie.");
 
-                if (this.isUserDone()) break;
-                else this.displayGame();
-            } else if (this.allGamesFinished()) {
-                System.out.println("The game has ended in a tie.");
-
-                this.reset(GAME_NAME);
+                this.reset(GAME_NAME, endedEarly);
                 this.resetGameBoards();
-
-                if (this.isUserDone()) break;
-                else this.displayGame();
+                return null;
             } else {
                 this.incrementTurnNumber();
             }
         }
     }
-
 }
\ No newline at end of file
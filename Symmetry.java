@@ -0,0 +1,91 @@
+/*
+    Description:
+    The Symmetry class describes the 8 rotations and reflections (the dihedral group) of a board. Square boards have
+    all 8, rectangular boards only the 4 which keep the number of rows and columns: the identity, the half turn, and
+    the two mirror images. For every board size the cell each transform moves every cell to is computed once and
+    cached, so boards can keep a Zobrist hash of every transformed position up to date as cheaply as their own.
+
+    Class Level Constants:
+    - COUNT: the number of transforms.
+    - IDENTITY/ROTATE_90/ROTATE_180/ROTATE_270/MIRROR_COLUMNS/MIRROR_ROWS/TRANSPOSE/ANTI_TRANSPOSE: the transforms.
+    Rotations are clockwise, MIRROR_COLUMNS reverses the columns (left to right), MIRROR_ROWS reverses the rows, and
+    TRANSPOSE/ANTI_TRANSPOSE reflect in the main and the other diagonal.
+
+    Static Methods:
+    - isValid(int transform, int rows, int columns): if the transform maps a rows x columns board onto itself.
+    - transformRow/transformColumn(int transform, int row, int column, int rows, int columns): where a cell moves to.
+    - inverse(int transform): the transform which undoes the given one.
+    - getCellMaps(int rows, int columns): the packed cell each cell moves to under every transform (null if invalid).
+*/
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class Symmetry {
+    public static final int COUNT = 8;
+    public static final int IDENTITY = 0;
+    public static final int ROTATE_90 = 1;
+    public static final int ROTATE_180 = 2;
+    public static final int ROTATE_270 = 3;
+    public static final int MIRROR_COLUMNS = 4;
+    public static final int MIRROR_ROWS = 5;
+    public static final int TRANSPOSE = 6;
+    public static final int ANTI_TRANSPOSE = 7;
+
+    private static final Map<Long, int[][]> CELL_MAPS = new ConcurrentHashMap<>();
+
+    private Symmetry() {} // only static methods
+
+    public static boolean isValid(int transform, int rows, int columns) {
+        if (transform < 0 || transform >= COUNT) return false;
+        if (rows == columns) return true;
+        return transform == IDENTITY || transform == ROTATE_180 || transform == MIRROR_COLUMNS || transform == MIRROR_ROWS;
+    }
+
+    public static int transformRow(int transform, int row, int column, int rows, int columns) {
+        switch (transform) {
+            case ROTATE_90: return column;
+            case ROTATE_180: return rows - 1 - row;
+            case ROTATE_270: return columns - 1 - column;
+            case MIRROR_ROWS: return rows - 1 - row;
+            case TRANSPOSE: return column;
+            case ANTI_TRANSPOSE: return columns - 1 - column;
+            default: return row; // IDENTITY and MIRROR_COLUMNS
+        }
+    }
+
+    public static int transformColumn(int transform, int row, int column, int rows, int columns) {
+        switch (transform) {
+            case ROTATE_90: return rows - 1 - row;
+            case ROTATE_180: return columns - 1 - column;
+            case ROTATE_270: return row;
+            case MIRROR_COLUMNS: return columns - 1 - column;
+            case TRANSPOSE: return row;
+            case ANTI_TRANSPOSE: return rows - 1 - row;
+            default: return column; // IDENTITY and MIRROR_ROWS
+        }
+    }
+
+    public static int inverse(int transform) {
+        if (transform == ROTATE_90) return ROTATE_270;
+        if (transform == ROTATE_270) return ROTATE_90;
+        return transform; // every other transform undoes itself
+    }
+
+    // maps[t][row * columns + column] is the packed cell (row, column) moves to under transform t
+    public static int[][] getCellMaps(int rows, int columns) {
+        return CELL_MAPS.computeIfAbsent(((long) rows << 32) | columns, key -> {
+            int[][] maps = new int[COUNT][];
+            for (int t = 0; t < COUNT; t++) {
+                if (!isValid(t, rows, columns)) continue;
+                maps[t] = new int[rows * columns];
+                for (int r = 0; r < rows; r++) {
+                    for (int c = 0; c < columns; c++) {
+                        maps[t][r * columns + c] = transformRow(t, r, c, rows, columns) * columns + transformColumn(t, r, c, rows, columns);
+                    }
+                }
+            }
+            return maps;
+        });
+    }
+}
@@ -0,0 +1,124 @@
+/*
+    Description:
+    MoveSource for a TicTacToe bot which plays perfectly by looking every move up in a tablebase written by
+    TablebaseSolver. The file is memory mapped read only, so the table stays in the operating system's page cache
+    instead of the heap, and a move costs one base 3 index computation and one byte read with no search at all.
+    Tablebases are opened the first time a game of their size is played and kept open for later games.
+
+    Fields:
+    - directory: where the tablebase files (named by TablebaseSolver.getDefaultFileName) are looked for.
+    - tables: the open tablebase of each configuration, keyed by rows, columns, and win length.
+
+    Constructors:
+    - TablebaseMoveSource(): looks for tablebases in the working directory.
+    - TablebaseMoveSource(Path directory): looks for tablebases in the given directory.
+
+    Interface Method Implementations:
+    - getNextCell(...): returns the best move stored for the game's position.
+
+    Important Methods:
+    - getValue(TicTacToe game): the stored value (TablebaseSolver.WIN/DRAW/LOSS) of the position for the team to move.
+    - open(Path file): maps a tablebase file and checks its header.
+*/
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+public class TablebaseMoveSource implements MoveSource {
+    private final Path directory;
+    private final Map<String, MappedByteBuffer> tables;
+
+    // CONSTRUCTORS
+    public TablebaseMoveSource() {
+        this(Paths.get("."));
+    }
+
+    public TablebaseMoveSource(Path directory) {
+        this.directory = directory;
+        this.tables = new HashMap<>();
+    }
+
+    // MOVE INPUT METHODS
+    public int[] getNextCell(BoardGame game, Team team, Player player) {
+        if (!(game instanceof TicTacToe)) throw new IllegalArgumentException("The tablebase bot only plays TicTacToe");
+
+        int entry = this.getEntry((TicTacToe) game, team.getNumber());
+        int move = entry >>> 2;
+        if (move == TablebaseSolver.NO_MOVE) throw new IllegalStateException("The game is already over");
+
+        int columns = game.getBoard().getColumns();
+        return new int[] {move / columns, move % columns};
+    }
+
+    public int getValue(TicTacToe game) {
+        return this.getEntry(game, game.getCurrentTeam().getNumber()) & 0x3;
+    }
+
+    // maps a tablebase file read only and checks that its header is complete
+    public static MappedByteBuffer open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < TablebaseSolver.HEADER_SIZE || table.getInt(0) != TablebaseSolver.MAGIC) {
+                throw new IOException(file + " is not a tablebase");
+            }
+            if (channel.size() != TablebaseSolver.HEADER_SIZE + table.getLong(16)) throw new IOException(file + " is truncated");
+            return table; // the mapping stays valid after the channel is closed
+        }
+    }
+
+    // HELPER methods
+    private int getEntry(TicTacToe game, int side) {
+        Board board = game.getBoard();
+        MappedByteBuffer table = this.getTable(board.getRows(), board.getColumns(), game.getWinLength());
+
+        int index = 0, power = 1, xCount = 0, oCount = 0;
+        for (int cell = 0; cell < board.getRows() * board.getColumns(); cell++, power *= 3) {
+            char symbol = board.getPieceSymbol(cell / board.getColumns(), cell % board.getColumns());
+            if (symbol == TicTacToe.TEAM_0_SYMBOL) {
+                index += power;
+                xCount++;
+            } else if (symbol == TicTacToe.TEAM_1_SYMBOL) {
+                index += 2 * power;
+                oCount++;
+            }
+        }
+
+        // the table only holds positions reached by alternating turns with X first
+        if (side != (xCount == oCount ? 0 : 1) || xCount - oCount > 1 || xCount < oCount) {
+            throw new IllegalStateException("The position is not in the tablebase (turns did not alternate)");
+        }
+
+        int entry = table.get(TablebaseSolver.HEADER_SIZE + index) & 0xFF;
+        if ((entry & 0x3) == TablebaseSolver.UNKNOWN) throw new IllegalStateException("The position is not in the tablebase");
+        return entry;
+    }
+
+    private MappedByteBuffer getTable(int rows, int columns, int winLength) {
+        String name = TablebaseSolver.getDefaultFileName(rows, columns, winLength);
+        MappedByteBuffer table = this.tables.get(name);
+        if (table != null) return table;
+
+        Path file = this.directory.resolve(name);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("No tablebase for " + rows + "x" + columns + " (" + winLength + " in a row), run: java TablebaseSolver rows="
+                + rows + " cols=" + columns + " win=" + winLength);
+        }
+
+        try {
+            table = open(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open " + file, e);
+        }
+        if (table.getInt(4) != rows || table.getInt(8) != columns || table.getInt(12) != winLength) throw new IllegalStateException(file + " is for another board");
+
+        this.tables.put(name, table);
+        return table;
+    }
+}
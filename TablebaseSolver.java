@@ -0,0 +1,281 @@
+/*
+    Description:
+    Command line tool which solves a small TicTacToe configuration completely and writes a tablebase file holding the
+    game theoretic value and a best move of every position. Positions are solved by layered retrograde analysis: the
+    layer of completely full boards is solved first, then every layer with one piece fewer, so every move from a
+    position leads into the layer that has already been solved. The positions of a layer are independent of each
+    other, so each layer is split between the threads of a fork/join pool by the set of X pieces, and for every X set
+    the O sets are enumerated with Gosper's hack over the empty cells.
+
+    The file is written through a memory map and read the same way by TablebaseMoveSource, so neither side holds
+    the table on the heap. Every position has one byte at its base 3 index (sum of digit * 3^cell, where a digit is
+    0 for an empty cell, 1 for X, and 2 for O): the value for the team to move in the low 2 bits and the best move
+    (packed cell) in the high 6 bits. Bytes of unreachable positions are 0. Because the table has one byte for every
+    3^cells index, boards with more than 19 cells (e.g. 5x5) do not fit a single memory mapped file and are rejected.
+
+    Usage:
+    java TablebaseSolver [rows=N] [cols=N] [win=N] [threads=N] [file=PATH]
+    - the file defaults to getDefaultFileName(rows, cols, win) in the working directory.
+
+    Class Level Constants:
+    - MAGIC/HEADER_SIZE: identify the file and where the position bytes start.
+    - UNKNOWN/WIN/DRAW/LOSS: the values stored in the low 2 bits of a position byte.
+    - NO_MOVE: the move stored for positions that are already over.
+    - MAX_CELLS: the largest number of cells a tablebase can have.
+
+    Fields:
+    - rows/columns/winLength/cellCount: the configuration being solved.
+    - lineMasks: one bit mask of the cells of every winning line.
+    - powers/lowDigits/highDigits: tables to turn bit masks of pieces into base 3 indices.
+    - table: the memory mapped file being written.
+
+    Constructors:
+    - TablebaseSolver(int rows, int columns, int winLength): prepares to solve the configuration.
+
+    Important Methods:
+    - solve(Path file, int threads): solves every layer into the file, returns the value of the empty board.
+    - getDefaultFileName(int rows, int columns, int winLength): the file name used when none is given.
+*/
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class TablebaseSolver {
+    public static final int MAGIC = 0x54544231; // "TTB1"
+    public static final int HEADER_SIZE = 32;
+    public static final int UNKNOWN = 0, WIN = 1, DRAW = 2, LOSS = 3;
+    public static final int NO_MOVE = 63;
+    public static final int MAX_CELLS = 19; // 3^19 bytes is the largest table under 2 GB
+
+    private final int rows;
+    private final int columns;
+    private final int winLength;
+    private final int cellCount;
+    private final int[] lineMasks;
+    private final int[] powers;
+    private final int[] lowDigits;
+    private final int[] highDigits;
+    private MappedByteBuffer table;
+
+    // CONSTRUCTOR
+    public TablebaseSolver(int rows, int columns, int winLength) {
+        if (rows < 1 || columns < 1 || winLength < 1 || winLength > Math.max(rows, columns)) throw new IllegalArgumentException("Invalid board size or win length");
+        if (rows * columns > MAX_CELLS) throw new IllegalArgumentException("Boards with more than " + MAX_CELLS + " cells are too large for a tablebase");
+
+        this.rows = rows;
+        this.columns = columns;
+        this.winLength = winLength;
+        this.cellCount = rows * columns;
+
+        WinLines lines = new WinLines(rows, columns, winLength);
+        this.lineMasks = new int[lines.getLineCount()];
+        for (int line = 0; line < lines.getLineCount(); line++) {
+            for (int i = 0; i < winLength; i++) this.lineMasks[line] |= 1 << lines.getLineCell(line, i);
+        }
+
+        this.powers = new int[this.cellCount + 1];
+        this.powers[0] = 1;
+        for (int i = 1; i <= this.cellCount; i++) this.powers[i] = this.powers[i - 1] * 3;
+
+        // the base 3 value of a mask of ones is looked up 10 bits at a time
+        this.lowDigits = new int[1 << 10];
+        this.highDigits = new int[1 << 10];
+        for (int mask = 0; mask < 1 << 10; mask++) {
+            for (int bit = 0; bit < 10; bit++) {
+                if ((mask & (1 << bit)) == 0) continue;
+                if (bit < this.cellCount) this.lowDigits[mask] += this.powers[bit];
+                if (bit + 10 < this.cellCount) this.highDigits[mask] += this.powers[bit + 10];
+            }
+        }
+    }
+
+    public static String getDefaultFileName(int rows, int columns, int winLength) {
+        return "tablebase-" + rows + "x" + columns + "-" + winLength + ".ttb";
+    }
+
+    // solves every layer from the full board down to the empty board and returns the value of the empty board
+    public int solve(Path file, int threads) throws IOException {
+        long size = HEADER_SIZE + (long) this.powers[this.cellCount];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+
+        try (RandomAccessFile out = new RandomAccessFile(file.toFile(), "rw"); FileChannel channel = out.getChannel()) {
+            out.setLength(0);
+            out.setLength(size);
+            this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            this.table.putInt(0, MAGIC);
+            this.table.putInt(4, this.rows);
+            this.table.putInt(8, this.columns);
+            this.table.putInt(12, this.winLength);
+            this.table.putLong(16, this.powers[this.cellCount]);
+
+            for (int pieces = this.cellCount; pieces >= 0; pieces--) {
+                long begin = System.nanoTime();
+                int[] xMasks = combinations(this.cellCount, (pieces + 1) / 2);
+                long[] solved = new long[1];
+                pool.invoke(new LayerRange(xMasks, 0, xMasks.length, pieces / 2, solved));
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                System.out.printf("Layer %2d: %,d positions in %.3f s%n", pieces, solved[0], seconds);
+            }
+
+            this.table.force();
+            return this.table.get(HEADER_SIZE) & 0x3;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // HELPER methods
+    // solves every position with the given X pieces and oCount O pieces
+    private long solveXMask(int x, int oCount) {
+        int full = (1 << this.cellCount) - 1;
+        int free = ~x & full;
+        int[] freeCells = new int[Integer.bitCount(free)];
+        for (int i = 0, bits = free; bits != 0; bits &= bits - 1) freeCells[i++] = Integer.numberOfTrailingZeros(bits);
+
+        int xIndex = this.toIndex(x);
+        int side = Integer.bitCount(x) == oCount ? 0 : 1; // X moves first, so X is to move when the counts are equal
+        long solved = 0;
+
+        if (oCount > freeCells.length) return 0;
+        int limit = 1 << freeCells.length;
+        for (int pick = (1 << oCount) - 1; pick < limit; pick = nextCombination(pick)) {
+            int o = 0;
+            for (int bits = pick; bits != 0; bits &= bits - 1) o |= 1 << freeCells[Integer.numberOfTrailingZeros(bits)];
+
+            int index = xIndex + 2 * this.toIndex(o);
+            this.table.put(HEADER_SIZE + index, (byte) this.solvePosition(x, o, side, index));
+            solved++;
+            if (pick == 0) break; // no O pieces: only one combination
+        }
+        return solved;
+    }
+
+    // value and best move of one position, reading the positions one move later from the table
+    private int solvePosition(int x, int o, int side, int index) {
+        int mine = side == 0 ? x : o, theirs = side == 0 ? o : x;
+        if (this.hasLine(mine)) return UNKNOWN; // the team to move already won, so the game cannot have reached here
+        if (this.hasLine(theirs)) return pack(LOSS, NO_MOVE);
+
+        int full = (1 << this.cellCount) - 1;
+        int empty = ~(x | o) & full;
+        if (empty == 0) return pack(DRAW, NO_MOVE);
+
+        int digit = side == 0 ? 1 : 2;
+        int drawMove = -1, lossMove = -1;
+
+        for (int bits = empty; bits != 0; bits &= bits - 1) {
+            int cell = Integer.numberOfTrailingZeros(bits);
+            if (this.hasLine(mine | (1 << cell))) return pack(WIN, cell); // winning right away is always best
+
+            int child = this.table.get(HEADER_SIZE + index + digit * this.powers[cell]) & 0x3;
+            if (child == LOSS) return pack(WIN, cell);
+            if (child == DRAW && drawMove < 0) drawMove = cell;
+            if (lossMove < 0) lossMove = cell;
+        }
+
+        return drawMove >= 0 ? pack(DRAW, drawMove) : pack(LOSS, lossMove);
+    }
+
+    private boolean hasLine(int pieces) {
+        for (int line : this.lineMasks) if ((pieces & line) == line) return true;
+        return false;
+    }
+
+    private int toIndex(int mask) {
+        return this.lowDigits[mask & 0x3FF] + this.highDigits[(mask >>> 10) & 0x3FF];
+    }
+
+    private static int pack(int value, int move) {
+        return (move << 2) | value;
+    }
+
+    // the next larger number with the same number of bits set (Gosper's hack)
+    private static int nextCombination(int combination) {
+        if (combination == 0) return Integer.MAX_VALUE; // ends the loop over the single empty combination
+        int lowest = combination & -combination;
+        int ripple = combination + lowest;
+        return ripple | (((combination ^ ripple) >>> 2) / lowest);
+    }
+
+    // every mask of n bits with k bits set, in increasing order
+    private static int[] combinations(int n, int k) {
+        int count = 1;
+        for (int i = 0; i < k; i++) count = count * (n - i) / (i + 1);
+
+        int[] masks = new int[count];
+        int mask = (1 << k) - 1;
+        for (int i = 0; i < count; i++, mask = nextCombination(mask)) masks[i] = mask;
+        return masks;
+    }
+
+    // splits the X masks of a layer in half until a range is small enough to solve on one worker
+    private class LayerRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] xMasks;
+        private final int start;
+        private final int end;
+        private final int oCount;
+        private final long[] solved;
+
+        LayerRange(int[] xMasks, int start, int end, int oCount, long[] solved) {
+            this.xMasks = xMasks;
+            this.start = start;
+            this.end = end;
+            this.oCount = oCount;
+            this.solved = solved;
+        }
+
+        protected void compute() {
+            if (this.end - this.start > 16) {
+                int middle = (this.start + this.end) >>> 1;
+                invokeAll(new LayerRange(this.xMasks, this.start, middle, this.oCount, this.solved),
+                    new LayerRange(this.xMasks, middle, this.end, this.oCount, this.solved));
+                return;
+            }
+
+            long count = 0;
+            for (int i = this.start; i < this.end; i++) count += solveXMask(this.xMasks[i], this.oCount);
+            synchronized (this.solved) {
+                this.solved[0] += count;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int rows = 3, columns = 3, winLength = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String file = null;
+
+        for (String arg : args) {
+            int split = arg.indexOf('=');
+            if (split < 0) throw new IllegalArgumentException("Arguments must look like key=value: " + arg);
+            String key = arg.substring(0, split).toLowerCase(), value = arg.substring(split + 1);
+
+            switch (key) {
+                case "rows": rows = Integer.parseInt(value); break;
+                case "cols": columns = Integer.parseInt(value); break;
+                case "win": winLength = Integer.parseInt(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "file": file = value; break;
+                default: throw new IllegalArgumentException("Unknown argument: " + key);
+            }
+        }
+        if (winLength < 0) winLength = Math.min(rows, columns);
+        if (file == null) file = getDefaultFileName(rows, columns, winLength);
+
+        TablebaseSolver solver = new TablebaseSolver(rows, columns, winLength);
+        long begin = System.nanoTime();
+        int value = solver.solve(Paths.get(file), threads);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        String[] names = { "unknown", "X wins", "draw", "O wins" };
+        System.out.printf("Solved %dx%d (%d in a row) into %s in %.3f s: %s with perfect play%n", rows, columns, winLength, file, seconds, names[value]);
+    }
+}
@@ -3,7 +3,6 @@
     Class representing a Team of one or more players.
 
     Fields:
-    - random: A class level instance of Random used to get a random player from a team.
     - team: An array of Player objects representing the members of the team.
     - number: The unique index of the team within the game.
     - name: The name of the team, defaulting to "Team #" based on the team number.
@@ -18,14 +17,16 @@
     Interesting Methods:
     - getRandomPlayer(): Selects and returns a random player from the team.
     - displayPlayerWinCounts(): Prints each player's win count to stdout.
+    - displayPlayerWinCounts(PlayerStatsStore stats, String gameType): Same as above, plus each player's record over every session.
+    - displayPlayerWinCounts(..., PrintStream out): Same as above, printed to the given stream (e.g. a network session).
     - incrementPlayerWinCounts(): Increments the win count for all players on the team.
 */
 
 
-import java.util.Random;
+import java.io.PrintStream;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class Team {
-    private static final Random random = new Random(); // used on the class level
     private Player[] team; // array of players on the same team
     private int number; // the index of the team in the list of teams in the Game class
     private String name; // name of the team - default to Team #
@@ -75,7 +76,8 @@ public class Team {
     }
 
     public Player getRandomPlayer() {
-        return this.team[this.random.nextInt(this.team.length)];
+        if (this.team.length == 1) return this.team[0];
+        return this.team[ThreadLocalRandom.current().nextInt(this.team.length)]; // no shared Random to contend on when games run in parallel
     }
 
     // SETTER METHODS
@@ -93,8 +95,26 @@ public class Team {
 
     // PLAYER WIN COUNT INTERFACE
     public void displayPlayerWinCounts() {
+        this.displayPlayerWinCounts(System.out);
+    }
+
+    public void displayPlayerWinCounts(PrintStream out) {
+        for (Player player : this.team) {
+            out.println("[TEAM " + this.name + "] " + player.getName() + ":\t" + player.getWinCount() + " wins");
+        }
+    }
+
+    public void displayPlayerWinCounts(PlayerStatsStore stats, String gameType) {
+        this.displayPlayerWinCounts(stats, gameType, System.out);
+    }
+
+    public void displayPlayerWinCounts(PlayerStatsStore stats, String gameType, PrintStream out) {
         for (Player player : this.team) {
-            System.out.println("[TEAM " + this.name + "] " + player.getName() + ":\t" + player.getWinCount() + " wins");
+            PlayerStatsStore.Stats record = stats.get(player.getName());
+            int wins = record == null ? 0 : record.getWins(gameType), losses = record == null ? 0 : record.getLosses(gameType);
+            int draws = record == null ? 0 : record.getDraws(gameType);
+            out.println("[TEAM " + this.name + "] " + player.getName() + ":\t" + player.getWinCount() + " wins (" + gameType + " all time: "
+                + wins + " wins, " + losses + " losses, " + draws + " draws)");
         }
     }
 
@@ -13,21 +13,24 @@
 
     Constructors:
     - public TicTacToe(): creates a generic TicTacToe game based off of user inputted fields
+    - public TicTacToe(MoveSource moveSource): same as above, asking the given move source instead of the console
+    - public TicTacToe(int rows, int columns, int winLength, Team[] teams): creates a TicTacToe game with the given settings without user input
     - public TicTacToe(String gameID): creates a simple TicTacToe game with a given game id without user input (used in SuperTicTacToe)
 
     Abstract Method Implementations:
-    - playGame(): runs the game loop, allowing players to take turns until a winner is found or the game ends in a tie.
-    - isWinner(): iterates over all winPositions and checks if the current team has winLength pieces in a row.
+    - playRound(): runs the game loop, allowing players to take turns until a winner is found or the game ends in a tie.
+    - isWinner(): reads the line counters or checks the lines through the last move (or, in FULL_SCAN mode, iterates over all winPositions or scans the 
+    bitsets of a BitBoard) to see if the current team has winLength pieces in a row.
     - makeNextMove(): Processes the current player's move by selecting a cell and placing their game piece.
 
     Important Methods:
-    - setBoardSizeFromUserInput(): Prompts the user for board size and initializes the board accordingly.
+    - setBoardSizeFromUserInput(): Asks the move source (by default the user) for board size and initializes the board accordingly.
     - makeMove(Cell input, GamePiece piece, Team team, int turnNumber, Player player): makes a generic move based off of inputted values (used in Super)
     - isWinner(Team team): checks if the inputted team is the winner of the game (used in Super)
+    - isForcedDraw(): checks if neither team can complete a line anymore, so the game can be ended as a tie right away
+    - isFinished(): checks if the game has a winner, a full board, or a forced draw (used in Super)
 */
 
-import java.util.List;
-
 public class TicTacToe extends ConsecutivePiecesGame {
     // CLASS LEVEL CONSTANTS
     public static final char TEAM_0_SYMBOL = 'X';
@@ -38,10 +41,26 @@ public class TicTacToe extends ConsecutivePiecesGame {
     private static final int DEFAULT_ROWS = 3;
     private static final int DEFAULT_COLS = 3;
 
+    private boolean alternatingTurns = true; // false for Super sub games, where either team may move on any board next
+
     // CONSTRUCTORS
     public TicTacToe() {
+        this(new ConsoleMoveSource());
+    }
+
+    // TicTacToe game set up without any user input, e.g. for simulations
+    public TicTacToe(int rows, int columns, int winLength, Team[] teams) {
+        super(rows, columns, GAME_NAME);
+        this.getBoard().setGameType(GAME_NAME);
+        this.setTeams(teams);
+        this.setWinLength(winLength);
+    }
+
+    // TicTacToe game whose setup answers and moves come from the given move source
+    public TicTacToe(MoveSource moveSource) {
         super(DEFAULT_ROWS, DEFAULT_COLS, GAME_NAME);
         this.getBoard().setGameType(GAME_NAME);
+        this.setMoveSource(moveSource);
         this.setTeamsFromUserInput("" + TEAM_0_SYMBOL, "" + "" + TEAM_1_SYMBOL);
         this.setBoardSizeFromUserInput();
         this.setWinLengthFromUserInput(); 
@@ -51,50 +70,31 @@ public class TicTacToe extends ConsecutivePiecesGame {
     public TicTacToe(String gameID) {
         super(DEFAULT_ROWS, DEFAULT_COLS, GAME_NAME, gameID);
         this.getBoard().setGameType(GAME_NAME);
+        this.alternatingTurns = false;
     }
 
     // USER INPUT METHOD
     public void setBoardSizeFromUserInput() {
-        String input;
-        int rows, columns;
+        int[] size = this.getMoveSource().getBoardSize(MAX_ROWS, MAX_COLUMNS);
+        if (size == null) size = new int[] {DEFAULT_ROWS, DEFAULT_COLS};
 
-        System.out.print("Enter desired board size (rows, columns) or leave blank to play default game:\t");
-
-        while (true) {
-            try {
-                input = this.getScanner().nextLine().trim();
-                if (input.length() == 0) {
-                    this.setBoard(new Board(3, 3, GAME_NAME));
-                    break;
-                }
-
-                String[] parts = input.split(",");
-                if (parts.length != 2) throw new IllegalArgumentException();
-
-                rows = Integer.parseInt(parts[0].trim());
-                columns = Integer.parseInt(parts[1].trim());
-
-                if (rows < 1 || columns < 1 || rows > MAX_ROWS || columns > MAX_COLUMNS) {
-                    System.out.println("Invalid input. Rows \u2208 [1, " + MAX_ROWS + "], columns \u2208 [1, " + MAX_COLUMNS + "]");
-                    throw new IllegalArgumentException();
-                }
-
-                this.setBoard(new Board(rows, columns, GAME_NAME));
-                break;
-            } catch (Exception e) {
-                System.out.print("Enter desired board size (rows, columns) or leave blank to play default game:\t");
-            }
+        if (size[0] < 1 || size[1] < 1 || size[0] > MAX_ROWS || size[1] > MAX_COLUMNS) {
+            throw new IllegalArgumentException("Invalid board size " + size[0] + "x" + size[1]);
         }
+
+        this.setBoard(this.getBoard().createEmptyBoard(size[0], size[1], GAME_NAME));
     }
 
     // SUPER TICTACTOE UTILITY METHODS
     // used to make a generic move given all information about the move
     public void makeMove(Cell input, GamePiece piece, Team team, int turnNumber, Player player) {
-        input.setAllFields(piece, team, turnNumber, player);
+        this.placePiece(piece, team, turnNumber, player, input.getRow(), input.getColumn());
         this.incrementTurnNumber();
         if (this.isWinner(team)) {
-            System.out.println(team.getName() + " won board " + this.getGameID());
+            this.displayMessage(team.getName() + " won board " + this.getGameID());
             this.setWinner(team);
+            MoveEventBus eventBus = this.getMoveEventBus();
+            if (eventBus != null) eventBus.publishWin(this.getGameID(), this.getGameNumber(), this.getTurnNumber(), team); // the board's result, by its id
         }
     }
 
@@ -105,19 +105,55 @@ public class TicTacToe extends ConsecutivePiecesGame {
         char symbol = team.getNumber() == 0 ? TEAM_0_SYMBOL : TEAM_1_SYMBOL;
         Board board = this.getBoard();
 
-        for (List<int[]> position : this.getWinPositions()) {
-            for (int i = 0; i < position.size(); i++) {
-                int[] coordinate = position.get(i);
-                int x = coordinate[0], y = coordinate[1];
-                GamePiece piece = board.getCell(x, y).getValue();
-                if (piece == null || piece.getSymbol() != symbol) break;
-                if (i == position.size() - 1) return true;
+        // the line counters already know if this team filled a line
+        if (this.getWinCheckMode() == WinCheckMode.LINE_COUNTERS) return this.hasCompletedLine(team.getNumber());
+
+        // only the lines through the last move can hold a new win
+        if (this.getWinCheckMode() == WinCheckMode.LAST_MOVE) {
+            if (!this.hasLastMove()) return false;
+            int row = this.getLastMoveRow(), column = this.getLastMoveColumn();
+            return board.getPieceSymbol(row, column) == symbol && this.isWinningMove(row, column, symbol);
+        }
+
+        // bitboards can check every winning position at once with word level bit operations
+        if (board instanceof BitBoard) return ((BitBoard) board).hasConsecutiveSymbols(symbol, this.getWinLength());
+
+        WinLines lines = this.getWinLines();
+        int columns = lines.getColumns();
+
+        for (int line = 0; line < lines.getLineCount(); line++) {
+            for (int i = 0; i < lines.getLength(); i++) {
+                int cell = lines.getLineCell(line, i);
+                if (board.getPieceSymbol(cell / columns, cell % columns) != symbol) break;
+                if (i == lines.getLength() - 1) return true;
             }
         }
 
         return false; // if got to here, no direction yeilds a win condition
     }
 
+    // EARLY END DETECTION
+    // a draw is forced once no team has an open line it can still fill with the moves it has left
+    public boolean isForcedDraw() {
+        int empty = this.getEmptyCellCount();
+
+        for (Team team : this.getTeams()) {
+            int movesLeft = empty;
+            if (this.alternatingTurns) {
+                // team 0 moves first, so the team to move next gets the extra move of an odd number of empty cells
+                boolean movesNext = team.getNumber() == this.getPiecesPlaced() % 2;
+                movesLeft = movesNext ? (empty + 1) / 2 : empty / 2;
+            }
+            if (this.canOwnerStillWin(team.getNumber(), movesLeft)) return false;
+        }
+
+        return true;
+    }
+
+    public boolean isFinished() {
+        return this.getWinner() != null || this.getIsBoardFull() || this.isForcedDraw();
+    }
+
     // ABSTRACT METHOD IMPLEMENTATIONS
     public void makeNextMove() {
         Team currentTeam = this.getCurrentTeam(); // the team whose turn it is currently
@@ -126,42 +162,38 @@ public class TicTacToe extends ConsecutivePiecesGame {
         Cell inputCell = this.getNextPlayerInputCell(currentTeam, currentPlayer);
         GamePiece playerPiece = currentTeam.getNumber() == 0 ? new GamePiece(TEAM_0_SYMBOL) : new GamePiece(TEAM_1_SYMBOL);
 
-        inputCell.setAllFields(playerPiece, currentTeam, this.getTurnNumber(), currentPlayer);
+        this.placePiece(playerPiece, currentTeam, this.getTurnNumber(), currentPlayer, inputCell.getRow(), inputCell.getColumn());
     }
 
     public boolean isWinner() {
         return isWinner(this.getCurrentTeam());
     }
 
-    public void playGame() {
-        Board board = this.getBoard();
-        board.displayBoard();
+    // plays a single game until a team wins or it is tied, then resets the board for the next game
+    public Team playRound() {
+        this.updateDisplay();
 
         while (true) {
             this.makeNextMove();
-            board.displayBoard();
+            this.updateDisplay();
 
             boolean playerWon = this.isWinner();
             Team currentTeam = this.getCurrentTeam();
 
             if (playerWon) {
                 this.setWinner(currentTeam);
-                System.out.println("Congratulations team " + currentTeam.getName() + "! You won the game!");
+                this.displayMessage("Congratulations team " + currentTeam.getName() + "! You won the game!");
 
                 currentTeam.incrementPlayerwinCounts();
                 this.reset(GAME_NAME);
-                board = this.getBoard();
-
-                if (this.isUserDone()) break;
-                else board.displayBoard();
-            } else if (this.getIsBoardFull()) {
-                System.out.println("The game has ended in a tie.");
-
-                this.reset(GAME_NAME);
-                board = this.getBoard();
-
-                if (this.isUserDone()) break;
-                else board.displayBoard();
+                return currentTeam;
+            } else if (this.getIsBoardFull() || this.isForcedDraw()) {
+                boolean endedEarly = !this.getIsBoardFull();
+                if (endedEarly) this.displayMessage("Neither team can complete a line anymore.");
+                this.displayMessage("The game has ended in a tie.");
+
+                this.reset(GAME_NAME, endedEarly);
+                return null;
             } else {
                 this.incrementTurnNumber();
             }
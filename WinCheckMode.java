@@ -0,0 +1,17 @@
+/*
+    Description:
+    Enum of the strategies a ConsecutivePiecesGame can use to decide if a move won the game.
+
+    Values:
+    - FULL_SCAN: checks every winning position on the board after each move. Kept as the reference checker.
+    - LAST_MOVE: only checks the four lines (horizontal, vertical, and both diagonals) running through the cell
+    of the last move, which is the only place a new win can appear.
+    - LINE_COUNTERS: reads the running per line piece counts kept by ConsecutivePiecesGame, so a win is found as soon
+    as one owner's count in a line reaches winLength.
+*/
+
+public enum WinCheckMode {
+    FULL_SCAN,
+    LAST_MOVE,
+    LINE_COUNTERS
+}
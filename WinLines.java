@@ -0,0 +1,148 @@
+/*
+    Description:
+    The WinLines class stores every winning position (line of length cells in a row) of a board in flat primitive arrays
+    instead of lists of coordinate pairs. Cells are packed as row * columns + column. Lines are stored back to back in
+    lineCells, and an inverted index (cellLineStart/cellLines) lists the lines that pass through each cell, so a rule
+    engine can look up only the lines relevant to a move.
+
+    Fields:
+    - rows/columns: the dimensions of the board the lines were generated for.
+    - length: the number of cells in every line.
+    - lineCount: the number of lines.
+    - lineCells: the cells of line l are lineCells[l * length] ... lineCells[l * length + length - 1].
+    - cellLineStart: the lines through cell c are cellLines[cellLineStart[c]] ... cellLines[cellLineStart[c + 1] - 1].
+    - cellLines: the line numbers of every cell, grouped by cell.
+
+    Constructors:
+    - WinLines(int rows, int columns, int length): generates all horizontal, vertical, and diagonal lines in the same
+    order as ConsecutivePiecesGame always has, then builds the inverted index.
+
+    Important Methods:
+    - getLineCell(int line, int index): returns the packed cell at a position in a line.
+    - getLinesThroughCellStart(int cell)/getLinesThroughCellEnd(int cell)/getCellLine(int index): walk the lines through a cell.
+    - toPositions(): builds the List<List<int[]>> form of the lines returned by getWinPositions().
+*/
+
+import java.util.List;
+import java.util.ArrayList;
+
+public class WinLines {
+    private final int rows;
+    private final int columns;
+    private final int length;
+    private final int lineCount;
+    private final int[] lineCells;
+    private final int[] cellLineStart;
+    private final int[] cellLines;
+
+    // CONSTRUCTOR
+    public WinLines(int rows, int columns, int length) {
+        this.rows = rows;
+        this.columns = columns;
+        this.length = length;
+
+        int horizontal = rows * Math.max(0, columns - length + 1);
+        int vertical = columns * Math.max(0, rows - length + 1);
+        int diagonal = Math.max(0, rows - length + 1) * Math.max(0, columns - length + 1);
+        this.lineCount = horizontal + vertical + 2 * diagonal;
+        this.lineCells = new int[this.lineCount * length];
+
+        int line = 0;
+
+        // Horizontal wins
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c <= columns - length; c++) line = this.addLine(line, r, c, 0, 1);
+        }
+
+        // Vertical wins
+        for (int c = 0; c < columns; c++) {
+            for (int r = 0; r <= rows - length; r++) line = this.addLine(line, r, c, 1, 0);
+        }
+
+        // Top left to bottom right diagonal
+        for (int r = 0; r <= rows - length; r++) {
+            for (int c = 0; c <= columns - length; c++) line = this.addLine(line, r, c, 1, 1);
+        }
+
+        // Top right to bottom left diagonal
+        for (int r = 0; r <= rows - length; r++) {
+            for (int c = length - 1; c < columns; c++) line = this.addLine(line, r, c, 1, -1);
+        }
+
+        // inverted index: count the lines through each cell, turn the counts into offsets, then fill in the lines
+        this.cellLineStart = new int[rows * columns + 1];
+        for (int cell : this.lineCells) this.cellLineStart[cell + 1]++;
+        for (int cell = 0; cell < rows * columns; cell++) this.cellLineStart[cell + 1] += this.cellLineStart[cell];
+
+        this.cellLines = new int[this.lineCells.length];
+        int[] next = new int[rows * columns];
+        for (int l = 0; l < this.lineCount; l++) {
+            for (int i = 0; i < length; i++) {
+                int cell = this.lineCells[l * length + i];
+                this.cellLines[this.cellLineStart[cell] + next[cell]++] = l;
+            }
+        }
+    }
+
+    // GETTER methods
+    public int getRows() {
+        return this.rows;
+    }
+
+    public int getColumns() {
+        return this.columns;
+    }
+
+    public int getLength() {
+        return this.length;
+    }
+
+    public int getLineCount() {
+        return this.lineCount;
+    }
+
+    public int getLineCell(int line, int index) {
+        return this.lineCells[line * this.length + index];
+    }
+
+    public int getLinesThroughCellStart(int cell) {
+        return this.cellLineStart[cell];
+    }
+
+    public int getLinesThroughCellEnd(int cell) {
+        return this.cellLineStart[cell + 1];
+    }
+
+    public int getCellLine(int index) {
+        return this.cellLines[index];
+    }
+
+    // packs a (row, column) coordinate into a cell index
+    public int toCell(int row, int column) {
+        return row * this.columns + column;
+    }
+
+    // builds the list of coordinate pairs form of every line
+    public List<List<int[]>> toPositions() {
+        List<List<int[]>> positions = new ArrayList<>(this.lineCount);
+
+        for (int l = 0; l < this.lineCount; l++) {
+            List<int[]> position = new ArrayList<>(this.length);
+            for (int i = 0; i < this.length; i++) {
+                int cell = this.getLineCell(l, i);
+                position.add(new int[] {cell / this.columns, cell % this.columns}); // add the coordinates
+            }
+            positions.add(position);
+        }
+
+        return positions;
+    }
+
+    // HELPER method: stores the cells of one line starting at (row, column) and stepping in the given direction
+    private int addLine(int line, int row, int column, int rowStep, int columnStep) {
+        for (int i = 0; i < this.length; i++) {
+            this.lineCells[line * this.length + i] = (row + i * rowStep) * this.columns + column + i * columnStep;
+        }
+        return line + 1;
+    }
+}
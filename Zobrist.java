@@ -0,0 +1,36 @@
+/*
+    Description:
+    The Zobrist class holds the keys used to hash board positions. Every (board, cell, symbol) combination has its own
+    64-bit key and a position's hash is the XOR of the keys of its pieces, so placing or removing a piece changes the
+    hash with a single XOR. The keys are derived from their inputs with a fixed mixing function rather than drawn from
+    a random generator, so they are the same in every run and hashes can be stored in files and compared later.
+
+    Class Level Constants:
+    - SEED: constant mixed into every key.
+
+    Static Methods:
+    - getPieceKey(int board, int cell, char symbol): the key of a symbol in a packed cell (row * columns + column) of
+    a board. board is 0 for a standalone game and identifies the sub board (1, 2, ...) in games made of several boards.
+    - getSideKey(int side): the key XORed in for the team to move, 0 for team 0 so a bare board hash is team 0 to move.
+*/
+
+public class Zobrist {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {} // only static keys
+
+    public static long getPieceKey(int board, int cell, char symbol) {
+        return mix(SEED ^ ((long) board << 48) ^ ((long) cell << 16) ^ symbol);
+    }
+
+    public static long getSideKey(int side) {
+        return side == 0 ? 0 : mix(SEED * 31 + side);
+    }
+
+    // splitmix64 finalizer: spreads every input bit over the whole key
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}